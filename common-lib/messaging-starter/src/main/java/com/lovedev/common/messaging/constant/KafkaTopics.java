@@ -20,9 +20,11 @@ public final class KafkaTopics {
 
     // Notification domain events
     public static final String NOTIFICATION_EVENTS = "notification-events";
+    public static final String NOTIFICATION_REALTIME = "notification-realtime";
 
     // Dead letter topics for error handling
     public static final String DLT_EMAIL_VERIFY = "email.verify-dlt";
     public static final String DLT_EMAIL_WELCOME = "email.welcome-dlt";
     public static final String DLT_EMAIL_RESET_PASSWORD = "email.reset.password-dlt";
+    public static final String DLT_NOTIFICATION_EVENTS = "notification-events-dlt";
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.lovedev.common.messaging.event;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.Map;
+
+/**
+ * Request to notify one user, published to KafkaTopics.NOTIFICATION_EVENTS
+ *
+ * The recipient is {@link BaseEvent#getUserId()}. Publish with the recipient as key so a user's
+ * notifications are stored in the order they were published. The eventId doubles as the
+ * notification id, a redelivered event is stored once.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@JsonTypeName(NotificationEvent.EVENT_TYPE)
+public class NotificationEvent extends BaseEvent {
+
+    public static final String EVENT_TYPE = "NOTIFICATION_SEND";
+
+    private String title;
+
+    private String body;
+
+    /**
+     * Name of a notification-service NotificationType, INFO when missing or unknown
+     */
+    private String notificationType;
+
+    private String actionUrl;
+
+    /**
+     * Extra key/value pairs, stored with the notification and forwarded as FCM data
+     */
+    private Map<String, String> data;
+}
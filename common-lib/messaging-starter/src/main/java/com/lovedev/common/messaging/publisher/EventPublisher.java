@@ -49,11 +49,23 @@ public class EventPublisher {
      * @return CompletableFuture with send result
      */
     public CompletableFuture<SendResult<String, Object>> publishAsync(String topic, BaseEvent event) {
+        return publishAsync(topic, event.getEventId(), event);
+    }
+
+    /**
+     * Publish an event asynchronously with custom key
+     *
+     * @param topic Kafka topic name
+     * @param key Custom message key
+     * @param event Event to publish
+     * @return CompletableFuture with send result
+     */
+    public CompletableFuture<SendResult<String, Object>> publishAsync(String topic, String key, BaseEvent event) {
         log.info("Publishing event asynchronously to topic {}: eventType={}, eventId={}",
                 topic, event.getEventType(), event.getEventId());
 
         CompletableFuture<SendResult<String, Object>> future =
-                kafkaTemplate.send(topic, event.getEventId(), event);
+                kafkaTemplate.send(topic, key, event);
 
         future.whenComplete((result, ex) -> {
             if (ex == null) {
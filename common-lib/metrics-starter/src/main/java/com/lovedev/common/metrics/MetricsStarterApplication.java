@@ -0,0 +1,13 @@
+package com.lovedev.common.metrics;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class MetricsStarterApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(MetricsStarterApplication.class, args);
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.lovedev.common.metrics.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+import java.util.List;
+
+/**
+ * Turns on percentile histograms for the configured latency meters
+ */
+public class LatencyHistogramMeterFilter implements MeterFilter {
+
+    private final List<String> meterPrefixes;
+    private final double[] percentiles;
+    private final double minimumExpectedNanos;
+    private final double maximumExpectedNanos;
+
+    public LatencyHistogramMeterFilter(MetricsProperties.HistogramProperties histogram) {
+        this.meterPrefixes = List.copyOf(histogram.getMeterPrefixes());
+        this.percentiles = histogram.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+        this.minimumExpectedNanos = histogram.getMinimumExpectedValue().toNanos();
+        this.maximumExpectedNanos = histogram.getMaximumExpectedValue().toNanos();
+    }
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (id.getType() != Meter.Type.TIMER || !matches(id.getName())) {
+            return config;
+        }
+
+        return DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .percentiles(percentiles)
+                .minimumExpectedValue(minimumExpectedNanos)
+                .maximumExpectedValue(maximumExpectedNanos)
+                .build()
+                .merge(config);
+    }
+
+    private boolean matches(String name) {
+        for (String prefix : meterPrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
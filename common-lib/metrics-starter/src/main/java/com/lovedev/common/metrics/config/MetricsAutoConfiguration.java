@@ -0,0 +1,109 @@
+package com.lovedev.common.metrics.config;
+
+import com.lovedev.common.metrics.kafka.KafkaMetricsBeanPostProcessor;
+import io.micrometer.core.aop.CountedAspect;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * Auto-configuration for LoveDev Metrics Starter
+ * Enables @Timed/@Counted, latency histograms and Kafka client metrics.
+ * HikariCP pool, executor and repository metrics come from Spring Boot's
+ * actuator binders and get histograms through the meter filter below.
+ */
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+@EnableConfigurationProperties(MetricsProperties.class)
+@ConditionalOnProperty(
+        prefix = "app.metrics",
+        name = "enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+@Slf4j
+public class MetricsAutoConfiguration {
+
+    private final MetricsProperties metricsProperties;
+
+    public MetricsAutoConfiguration(MetricsProperties metricsProperties) {
+        this.metricsProperties = metricsProperties;
+        log.info("📊 LoveDev Metrics Starter Auto-Configuration Enabled");
+    }
+
+    /**
+     * Tag every meter with the application name
+     */
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> applicationTagCustomizer(Environment environment) {
+        String application = environment.getProperty("spring.application.name", "unknown");
+        return registry -> registry.config().commonTags("application", application);
+    }
+
+    /**
+     * Percentile histograms for hot-path latency timers
+     */
+    @Bean
+    @ConditionalOnProperty(
+            prefix = "app.metrics.histogram",
+            name = "enabled",
+            havingValue = "true",
+            matchIfMissing = true
+    )
+    public MeterFilter latencyHistogramMeterFilter() {
+        log.info("📈 Publishing latency histograms for {}", metricsProperties.getHistogram().getMeterPrefixes());
+        return new LatencyHistogramMeterFilter(metricsProperties.getHistogram());
+    }
+
+    /**
+     * Annotation support, service methods are timed with @Timed
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Aspect.class)
+    static class AspectConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+            return new TimedAspect(meterRegistry);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public CountedAspect countedAspect(MeterRegistry meterRegistry) {
+            return new CountedAspect(meterRegistry);
+        }
+    }
+
+    /**
+     * Kafka producer/consumer latency and consumer lag
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(KafkaTemplate.class)
+    static class KafkaMetricsConfiguration {
+
+        @Bean
+        public static KafkaMetricsBeanPostProcessor kafkaMetricsBeanPostProcessor(
+                ObjectProvider<MeterRegistry> meterRegistry,
+                Environment environment) {
+            // Static post-processor runs before properties binding, read the flags directly
+            MetricsProperties.KafkaProperties kafka = new MetricsProperties.KafkaProperties();
+            kafka.setClientMetrics(environment.getProperty("app.metrics.kafka.client-metrics", Boolean.class, true));
+            kafka.setObservations(environment.getProperty("app.metrics.kafka.observations", Boolean.class, true));
+            return new KafkaMetricsBeanPostProcessor(meterRegistry, kafka);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.lovedev.common.metrics.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Default management settings so the Prometheus endpoint is exposed
+ * Added with lowest precedence, any service or config-server value wins
+ */
+public class MetricsEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    private static final String PROPERTY_SOURCE_NAME = "lovedevMetricsDefaults";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        Map<String, Object> defaults = Map.of(
+                "management.endpoints.web.exposure.include", "health,info,prometheus",
+                "management.prometheus.metrics.export.enabled", "true"
+        );
+        environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME, defaults));
+    }
+}
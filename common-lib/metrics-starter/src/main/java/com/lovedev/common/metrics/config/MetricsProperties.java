@@ -0,0 +1,82 @@
+package com.lovedev.common.metrics.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for metrics starter
+ */
+@Data
+@ConfigurationProperties(prefix = "app.metrics")
+public class MetricsProperties {
+
+    /**
+     * Enable/disable metrics auto-configuration
+     */
+    private boolean enabled = true;
+
+    /**
+     * Latency histogram configuration
+     */
+    private HistogramProperties histogram = new HistogramProperties();
+
+    /**
+     * Kafka client and container instrumentation
+     */
+    private KafkaProperties kafka = new KafkaProperties();
+
+    @Data
+    public static class HistogramProperties {
+        /**
+         * Publish percentile histograms for matching timers
+         */
+        private boolean enabled = true;
+
+        /**
+         * Meter name prefixes that get histograms
+         */
+        private List<String> meterPrefixes = new ArrayList<>(List.of(
+                "lovedev.",
+                "http.server.requests",
+                "http.client.requests",
+                "spring.data.repository.invocations",
+                "hikaricp.connections.acquire",
+                "hikaricp.connections.usage",
+                "spring.kafka.template",
+                "spring.kafka.listener",
+                "executor"
+        ));
+
+        /**
+         * Client-side percentiles, also published for quick dashboards
+         */
+        private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99));
+
+        /**
+         * Lowest expected value, bounds the histogram buckets
+         */
+        private Duration minimumExpectedValue = Duration.ofMillis(1);
+
+        /**
+         * Highest expected value, bounds the histogram buckets
+         */
+        private Duration maximumExpectedValue = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class KafkaProperties {
+        /**
+         * Bind producer/consumer client metrics (including consumer lag)
+         */
+        private boolean clientMetrics = true;
+
+        /**
+         * Enable template and listener observations (send/consume latency timers)
+         */
+        private boolean observations = true;
+    }
+}
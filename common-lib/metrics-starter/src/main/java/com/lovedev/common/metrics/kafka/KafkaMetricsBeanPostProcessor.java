@@ -0,0 +1,54 @@
+package com.lovedev.common.metrics.kafka;
+
+import com.lovedev.common.metrics.config.MetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
+
+/**
+ * Instruments Kafka beans created outside Spring Boot's Kafka auto-configuration
+ * (e.g. by the messaging starter), which Boot's metrics customizers never see
+ */
+@Slf4j
+public class KafkaMetricsBeanPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final MetricsProperties.KafkaProperties kafka;
+
+    public KafkaMetricsBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                         MetricsProperties.KafkaProperties kafka) {
+        this.meterRegistry = meterRegistry;
+        this.kafka = kafka;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (kafka.isClientMetrics()) {
+            if (bean instanceof DefaultKafkaProducerFactory<?, ?> producerFactory) {
+                producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry.getObject()));
+                log.debug("Bound producer client metrics for {}", beanName);
+            } else if (bean instanceof DefaultKafkaConsumerFactory<?, ?> consumerFactory) {
+                // Client metrics include records-lag-max per partition
+                consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry.getObject()));
+                log.debug("Bound consumer client metrics for {}", beanName);
+            }
+        }
+
+        if (kafka.isObservations()) {
+            if (bean instanceof KafkaTemplate<?, ?> template) {
+                template.setObservationEnabled(true);
+            } else if (bean instanceof AbstractKafkaListenerContainerFactory<?, ?, ?> containerFactory) {
+                containerFactory.getContainerProperties().setObservationEnabled(true);
+            }
+        }
+
+        return bean;
+    }
+}
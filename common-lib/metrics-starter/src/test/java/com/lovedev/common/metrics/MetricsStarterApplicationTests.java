@@ -0,0 +1,13 @@
+package com.lovedev.common.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class MetricsStarterApplicationTests {
+
+    @Test
+    void contextLoads() {
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.lovedev.common.web.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Utility class for PostgreSQL session advisory locks
+ *
+ * The lock is keyed on hashtext(name) and held on a dedicated connection for the whole task,
+ * so it is released automatically if the process dies mid-task. A connection whose unlock failed
+ * is evicted from the pool instead of being handed back, since it may still hold the lock.
+ */
+@Slf4j
+public final class AdvisoryLocks {
+
+    private AdvisoryLocks() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Run a task if this process wins the lock
+     *
+     * @param dataSource Data source to take the lock connection from
+     * @param name Lock name
+     * @param task Task to run while holding the lock
+     * @return false when another session holds the lock and the task did not run
+     * @throws SQLException when no connection could be had or the lock query failed
+     */
+    public static boolean runExclusive(DataSource dataSource, String name, Runnable task) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tryLock(connection, name)) {
+                return false;
+            }
+            try {
+                task.run();
+            } finally {
+                if (!unlock(connection, name)) {
+                    evict(dataSource, connection, name);
+                }
+            }
+            return true;
+        }
+    }
+
+    private static boolean tryLock(Connection connection, String name) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_lock(hashtext(?))")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static boolean unlock(Connection connection, String name) {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(hashtext(?))")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            log.warn("Could not release advisory lock {}", name, e);
+            return false;
+        }
+    }
+
+    /**
+     * Close the physical connection so the session, and the lock with it, ends in the database
+     */
+    private static void evict(DataSource dataSource, Connection connection, String name) {
+        log.warn("Evicting connection that may still hold advisory lock {}", name);
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                dataSource.unwrap(HikariDataSource.class).evictConnection(connection);
+            } else {
+                connection.abort(Runnable::run);
+            }
+        } catch (SQLException e) {
+            log.error("Could not evict connection holding advisory lock {}", name, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.lovedev.common.web.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class for running work around the current transaction
+ */
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Run an action once the current transaction commits, or right away without one
+     * The action is dropped when the transaction rolls back.
+     *
+     * @param action Action to run
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Run an action once the current transaction rolls back, or ends without a known outcome
+     * Without a transaction there is nothing to roll back and the action never runs.
+     *
+     * @param action Action to run
+     */
+    public static void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
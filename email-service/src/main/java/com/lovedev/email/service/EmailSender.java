@@ -0,0 +1,43 @@
+package com.lovedev.email.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * SMTP send, kept out of EmailService so every call goes through the proxy and is timed
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailSender {
+
+    private final JavaMailSender mailSender;
+
+    /**
+     * Send an HTML email
+     */
+    @Timed(value = "lovedev.email.send", description = "SMTP send latency")
+    public void send(String to, String subject, String body) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+            helper.setTo(to);
+            helper.setSubject(subject);
+            helper.setText(body, true); // true = HTML
+
+            mailSender.send(message);
+            log.info("Email sent successfully to: {}", to);
+        } catch (MessagingException e) {
+            log.error("Error sending email to {}: {}", to, e.getMessage());
+            throw new RuntimeException("Failed to send email", e);
+        }
+    }
+}
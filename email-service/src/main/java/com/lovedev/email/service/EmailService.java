@@ -5,14 +5,10 @@ import com.lovedev.email.model.dto.client.UserDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import java.util.UUID;
 
 @Service
@@ -20,7 +16,7 @@ import java.util.UUID;
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailSender emailSender;
     private final UserServiceClient userServiceClient;
 
     @Value("${services.user-service.url:http://localhost:8081}")
@@ -61,20 +57,7 @@ public class EmailService {
      * Send email
      */
     public void sendEmail(String to, String subject, String body) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body, true); // true = HTML
-
-            mailSender.send(message);
-            log.info("Email sent successfully to: {}", to);
-        } catch (MessagingException e) {
-            log.error("Error sending email to {}: {}", to, e.getMessage());
-            throw new RuntimeException("Failed to send email", e);
-        }
+        emailSender.send(to, subject, body);
     }
 
     /**
@@ -0,0 +1,99 @@
+package com.lovedev.notification.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.common.web.dto.ApiResponse;
+import com.lovedev.common.web.dto.PageResponse;
+import com.lovedev.notification.mapper.NotificationMapper;
+import com.lovedev.notification.mapper.NotificationMapperImpl;
+import com.lovedev.notification.model.dto.response.NotificationResponse;
+import com.lovedev.notification.model.entity.Notification;
+import com.lovedev.notification.model.enums.NotificationStatus;
+import com.lovedev.notification.model.enums.NotificationType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification page response path: NotificationMapper.toResponse, PageResponse.of and ApiResponse serialization
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class NotificationResponseBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int pageSize;
+
+    private NotificationMapper notificationMapper;
+    private ObjectMapper objectMapper;
+    private Page<Notification> page;
+    private PageResponse<NotificationResponse> mappedPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        notificationMapper = new NotificationMapperImpl();
+        // Same defaults Spring Boot applies to the MVC ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        UUID userId = UUID.randomUUID();
+        Random random = new Random(42);
+        NotificationType[] types = NotificationType.values();
+        List<Notification> notifications = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            LocalDateTime createdAt = LocalDateTime.now().minusMinutes(random.nextInt(60 * 24 * 30));
+            boolean read = random.nextInt(100) < 60;
+            notifications.add(Notification.builder()
+                    .id(UUID.randomUUID())
+                    .userId(userId)
+                    .title("Notification " + i)
+                    .body("Your request #" + i + " has been processed and is ready for review")
+                    .type(types[random.nextInt(types.length)])
+                    .status(read ? NotificationStatus.READ : NotificationStatus.UNREAD)
+                    .data("{\"requestId\":\"" + UUID.randomUUID() + "\",\"source\":\"business-service\"}")
+                    .actionUrl("/requests/" + i)
+                    .readAt(read ? createdAt.plusMinutes(5) : null)
+                    .sentAt(createdAt)
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .build());
+        }
+
+        page = new PageImpl<>(notifications, PageRequest.of(0, pageSize), 5_000);
+        mappedPage = PageResponse.of(page, notificationMapper::toResponse);
+    }
+
+    @Benchmark
+    public void mapNotifications(Blackhole blackhole) {
+        for (Notification notification : page.getContent()) {
+            blackhole.consume(notificationMapper.toResponse(notification));
+        }
+    }
+
+    @Benchmark
+    public PageResponse<NotificationResponse> mapPage() {
+        return PageResponse.of(page, notificationMapper::toResponse);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(mappedPage));
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(PageResponse.of(page, notificationMapper::toResponse)));
+    }
+}
@@ -1,23 +1,27 @@
 package com.lovedev.notification.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
+/**
+ * Executors for background work, single-user pushes go through PushScheduler
+ */
 @Configuration
-@EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    /**
+     * Workers for bulk notification fan-out shards, one shard per thread at a time
+     */
+    @Bean(name = "fanoutExecutor")
+    public Executor fanoutExecutor(@Value("${app.fanout.workers:4}") int workers) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("notification-async-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("notification-fanout-");
         executor.initialize();
         return executor;
     }
@@ -1,5 +1,8 @@
 package com.lovedev.notification.config;
 
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
@@ -8,9 +11,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StringUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
 
 @Configuration
 @Slf4j
@@ -22,6 +32,15 @@ public class FirebaseConfig {
     @Value("${app.firebase.enabled:true}")
     private boolean firebaseEnabled;
 
+    /**
+     * Base URL of a local FCM stand-in (e.g. http://localhost:9099), used by offline/perf environments
+     */
+    @Value("${app.firebase.endpoint-override:}")
+    private String endpointOverride;
+
+    @Value("${app.firebase.project-id:lovedev-local}")
+    private String projectId;
+
     @PostConstruct
     public void initialize() {
         if (!firebaseEnabled) {
@@ -31,7 +50,10 @@ public class FirebaseConfig {
 
         try {
             // Check if Firebase is already initialized
-            if (FirebaseApp.getApps().isEmpty()) {
+            if (FirebaseApp.getApps().isEmpty() && StringUtils.hasText(endpointOverride)) {
+                FirebaseApp.initializeApp(localOptions());
+                log.warn("Firebase Admin SDK initialized against local endpoint: {}", endpointOverride);
+            } else if (FirebaseApp.getApps().isEmpty()) {
                 InputStream serviceAccount = new ClassPathResource(serviceAccountFile).getInputStream();
 
                 FirebaseOptions options = FirebaseOptions.builder()
@@ -48,4 +70,22 @@ public class FirebaseConfig {
             throw new RuntimeException("Failed to initialize Firebase", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Options that send every Firebase request to the endpoint override with a static token
+     */
+    private FirebaseOptions localOptions() {
+        URI target = URI.create(endpointOverride);
+        HttpTransport transport = new NetHttpTransport.Builder()
+                .setConnectionFactory(url -> (HttpURLConnection) new URL(
+                        target.getScheme(), target.getHost(), target.getPort(), url.getFile()).openConnection())
+                .build();
+
+        AccessToken token = new AccessToken("local", Date.from(Instant.now().plus(Duration.ofDays(365))));
+        return FirebaseOptions.builder()
+                .setCredentials(GoogleCredentials.create(token))
+                .setProjectId(projectId)
+                .setHttpTransport(transport)
+                .build();
+    }
+}
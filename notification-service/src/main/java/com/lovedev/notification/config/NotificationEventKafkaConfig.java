@@ -0,0 +1,74 @@
+package com.lovedev.notification.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.common.messaging.config.MessagingProperties;
+import com.lovedev.common.messaging.constant.KafkaTopics;
+import com.lovedev.common.messaging.event.NotificationEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Batch consumer for notification requests from other services
+ *
+ * Records are bound to NotificationEvent regardless of type headers and acknowledged
+ * manually once their batch is stored. A batch that keeps failing is retried
+ * {@code app.notification-events.max-retries} times, then its records go to the dead letter topic.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.notification-events", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationEventKafkaConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> notificationEventKafkaListenerContainerFactory(
+            MessagingProperties messagingProperties,
+            ObjectMapper kafkaObjectMapper,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${app.notification-events.concurrency:3}") int concurrency,
+            @Value("${app.notification-events.max-poll-records:500}") int maxPollRecords,
+            @Value("${app.notification-events.retry-backoff-ms:1000}") long retryBackoffMs,
+            @Value("${app.notification-events.max-retries:5}") long maxRetries) {
+
+        MessagingProperties.ConsumerProperties consumer = messagingProperties.getConsumer();
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, messagingProperties.getBootstrapServers());
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, consumer.getGroupId());
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, consumer.getAutoOffsetReset());
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, consumer.getMaxPollIntervalMs());
+        config.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, consumer.getSessionTimeoutMs());
+        config.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, consumer.getHeartbeatIntervalMs());
+
+        JsonDeserializer<NotificationEvent> jsonDeserializer = new JsonDeserializer<>(NotificationEvent.class, kafkaObjectMapper, false);
+        DefaultKafkaConsumerFactory<String, NotificationEvent> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                config, new StringDeserializer(), new ErrorHandlingDeserializer<>(jsonDeserializer));
+
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(KafkaTopics.DLT_NOTIFICATION_EVENTS, -1));
+
+        ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, new FixedBackOff(retryBackoffMs, maxRetries)));
+        return factory;
+    }
+}
@@ -0,0 +1,68 @@
+package com.lovedev.notification.config;
+
+import com.lovedev.notification.dispatch.PushLane;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Push scheduler configuration properties
+ * Workers are shared by all lanes, each lane has its own bounded queue and scheduling weight
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.push")
+@Data
+public class PushProperties {
+
+    /**
+     * Worker threads sending pushes
+     */
+    private int workers = 8;
+
+    /**
+     * How long a blocking submit (Kafka ingestion) waits for queue space before dropping the push
+     */
+    private Duration submitTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Per-lane settings, keyed by lane name (transactional, bulk, marketing)
+     */
+    private Map<PushLane, Lane> lanes = defaultLanes();
+
+    @Data
+    public static class Lane {
+        /**
+         * Share of worker picks while several lanes have work queued
+         */
+        private int weight = 1;
+
+        /**
+         * Queued pushes before submits are rejected
+         */
+        private int capacity = 10000;
+
+        public Lane() {
+        }
+
+        public Lane(int weight, int capacity) {
+            this.weight = weight;
+            this.capacity = capacity;
+        }
+    }
+
+    public Lane lane(PushLane lane) {
+        return lanes.getOrDefault(lane, new Lane());
+    }
+
+    private static Map<PushLane, Lane> defaultLanes() {
+        Map<PushLane, Lane> lanes = new EnumMap<>(PushLane.class);
+        lanes.put(PushLane.TRANSACTIONAL, new Lane(6, 10000));
+        lanes.put(PushLane.BULK, new Lane(3, 50000));
+        lanes.put(PushLane.MARKETING, new Lane(1, 50000));
+        return lanes;
+    }
+}
@@ -0,0 +1,76 @@
+package com.lovedev.notification.config;
+
+import com.lovedev.notification.model.enums.NotificationType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-user push rate limit configuration properties
+ * Every user gets a token bucket per notification type, pushes over the limit go into a digest
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.push-rate-limit")
+@Data
+public class PushRateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Limit of types without their own entry
+     */
+    private Limit defaultLimit = new Limit(10, 10);
+
+    /**
+     * Per-type limits, keyed by notification type name
+     */
+    private Map<NotificationType, Limit> types = defaultTypes();
+
+    /**
+     * Users without a push for this long are forgotten, their buckets are full again by then
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Users tracked at once, beyond that some are evicted and their buckets start full again
+     */
+    private int maxUsers = 100000;
+
+    @Data
+    public static class Limit {
+        /**
+         * Pushes allowed back to back, 0 or less disables the limit
+         */
+        private int burst = 10;
+
+        /**
+         * Pushes the bucket regains per minute
+         */
+        private double perMinute = 10;
+
+        public Limit() {
+        }
+
+        public Limit(int burst, double perMinute) {
+            this.burst = burst;
+            this.perMinute = perMinute;
+        }
+    }
+
+    public Limit limit(NotificationType type) {
+        return types.getOrDefault(type, defaultLimit);
+    }
+
+    private static Map<NotificationType, Limit> defaultTypes() {
+        Map<NotificationType, Limit> types = new EnumMap<>(NotificationType.class);
+        types.put(NotificationType.MESSAGE, new Limit(20, 30));
+        types.put(NotificationType.SYSTEM, new Limit(0, 0));
+        types.put(NotificationType.ANNOUNCEMENT, new Limit(2, 1));
+        types.put(NotificationType.PROMOTION, new Limit(1, 0.1));
+        return types;
+    }
+}
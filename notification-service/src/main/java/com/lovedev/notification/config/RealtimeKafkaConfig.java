@@ -0,0 +1,47 @@
+package com.lovedev.notification.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.common.messaging.config.MessagingProperties;
+import com.lovedev.notification.realtime.RealtimeEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consumer for cross-replica realtime events
+ *
+ * Separate from the starter's factory: events are bound to RealtimeEvent regardless of
+ * type headers, and a new replica starts reading from the latest offset.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.realtime.kafka", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RealtimeKafkaConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, RealtimeEvent> realtimeKafkaListenerContainerFactory(
+            MessagingProperties messagingProperties, ObjectMapper kafkaObjectMapper) {
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, messagingProperties.getBootstrapServers());
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        JsonDeserializer<RealtimeEvent> jsonDeserializer = new JsonDeserializer<>(RealtimeEvent.class, kafkaObjectMapper, false);
+        DefaultKafkaConsumerFactory<String, RealtimeEvent> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                config, new StringDeserializer(), new ErrorHandlingDeserializer<>(jsonDeserializer));
+
+        ConcurrentKafkaListenerContainerFactory<String, RealtimeEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(1);
+        return factory;
+    }
+}
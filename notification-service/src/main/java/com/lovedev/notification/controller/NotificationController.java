@@ -2,8 +2,11 @@ package com.lovedev.notification.controller;
 
 import com.lovedev.notification.model.dto.request.*;
 import com.lovedev.common.web.dto.ApiResponse;
+import com.lovedev.notification.model.dto.response.FanoutJobResponse;
 import com.lovedev.notification.model.dto.response.NotificationResponse;
 import com.lovedev.notification.model.dto.response.NotificationSettingsResponse;
+import com.lovedev.notification.model.dto.response.NotificationStatsResponse;
+import com.lovedev.notification.model.dto.response.ScheduledNotificationResponse;
 import com.lovedev.common.web.dto.PageResponse;
 import com.lovedev.notification.service.FCMService;
 import com.lovedev.notification.service.NotificationService;
@@ -12,11 +15,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -44,13 +48,34 @@ public class NotificationController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
-    @Operation(summary = "Get notification statistics", description = "Get notification counts (unread, read, total)")
+    @Operation(summary = "Get notification statistics", description = "Get notification counts by status and type and the last 7 days of activity")
     @GetMapping("/stats")
-    public ResponseEntity<ApiResponse<Map<String, Long>>> getNotificationStats() {
-        Map<String, Long> stats = fcmService.getNotificationStats();
+    public ResponseEntity<ApiResponse<NotificationStatsResponse>> getNotificationStats() {
+        NotificationStatsResponse stats = fcmService.getNotificationStats();
         return ResponseEntity.ok(ApiResponse.success(stats));
     }
 
+    @Operation(summary = "Get global notification statistics", description = "Get notification counts over all users (Admin only)")
+    @GetMapping("/stats/global")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<NotificationStatsResponse>> getGlobalNotificationStats() {
+        NotificationStatsResponse stats = fcmService.getGlobalNotificationStats();
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    @Operation(summary = "Stream notifications", description = "Server-sent events: notification, unread-delta and unread-count")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications() {
+        return notificationService.subscribe();
+    }
+
+    @Operation(summary = "Get unread count", description = "Get number of unread notifications for the badge")
+    @GetMapping("/unread-count")
+    public ResponseEntity<ApiResponse<Long>> getUnreadCount() {
+        Long count = notificationService.getUnreadCount();
+        return ResponseEntity.ok(ApiResponse.success(count));
+    }
+
     @Operation(summary = "Mark notification as read", description = "Mark a specific notification as read")
     @PutMapping("/{id}/read")
     public ResponseEntity<ApiResponse<NotificationResponse>> markAsRead(@PathVariable UUID id) {
@@ -131,9 +156,43 @@ public class NotificationController {
     @Operation(summary = "Send notification to all users", description = "Send notification to all users (Admin only)")
     @PostMapping("/broadcast")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<Void>> sendNotificationToAllUsers(@Valid @RequestBody SendBulkNotificationRequest request) {
-        fcmService.sendBulkNotification(request);
-        return ResponseEntity.ok(ApiResponse.success("Notification broadcast initiated", null));
+    public ResponseEntity<ApiResponse<FanoutJobResponse>> sendNotificationToAllUsers(@Valid @RequestBody SendBulkNotificationRequest request) {
+        FanoutJobResponse job = fcmService.sendBulkNotification(request);
+        return ResponseEntity.ok(ApiResponse.success("Notification broadcast initiated", job));
+    }
+
+    @Operation(summary = "Schedule notification", description = "Send a notification to one user or to all users at a later time (Admin only)")
+    @PostMapping("/schedule")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ScheduledNotificationResponse>> scheduleNotification(@Valid @RequestBody ScheduleNotificationRequest request) {
+        ScheduledNotificationResponse scheduled = fcmService.scheduleNotification(request);
+        return ResponseEntity.ok(ApiResponse.success("Notification scheduled", scheduled));
+    }
+
+    @Operation(summary = "Get scheduled notifications", description = "Get pending scheduled notifications, soonest first (Admin only)")
+    @GetMapping("/scheduled")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PageResponse<ScheduledNotificationResponse>>> getScheduledNotifications(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        PageResponse<ScheduledNotificationResponse> response = fcmService.getScheduledNotifications(page, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "Cancel scheduled notification", description = "Cancel a scheduled notification that was not sent yet (Admin only)")
+    @DeleteMapping("/scheduled/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> cancelScheduledNotification(@PathVariable UUID id) {
+        fcmService.cancelScheduledNotification(id);
+        return ResponseEntity.ok(ApiResponse.success("Scheduled notification cancelled", null));
+    }
+
+    @Operation(summary = "Get broadcast status", description = "Get progress and throughput of a broadcast job (Admin only)")
+    @GetMapping("/broadcast/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<FanoutJobResponse>> getBroadcastStatus(@PathVariable UUID jobId) {
+        FanoutJobResponse job = fcmService.getBulkNotificationStatus(jobId);
+        return ResponseEntity.ok(ApiResponse.success(job));
     }
 
     // ============================================
@@ -0,0 +1,123 @@
+package com.lovedev.notification.counter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lovedev.common.web.util.TransactionUtils;
+import com.lovedev.notification.model.entity.UnreadCounter;
+import com.lovedev.notification.repository.UnreadCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user unread counts of personal notifications
+ *
+ * The notification_unread_counters table is the source of truth. Every change is written there
+ * in the caller's transaction and applied to the in-memory copy after commit, so a badge refresh
+ * is a map read. A user's row is created from a single COUNT on their first change; reads never
+ * write, so they are safe inside read-only transactions, and a user without a row is counted
+ * directly. Cached entries expire after {@code app.unread-counters.ttl-ms} to pick up changes made
+ * on other replicas, and a periodic reconcile fixes drift from bulk deletes or crashes between
+ * commit and cache update.
+ */
+@Component
+@Slf4j
+public class UnreadCounters {
+
+    private final UnreadCounterRepository unreadCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<UUID, LongAdder> counters;
+
+    public UnreadCounters(UnreadCounterRepository unreadCounterRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.unread-counters.ttl-ms:30000}") long ttlMs,
+                          @Value("${app.unread-counters.max-entries:100000}") int maxEntries) {
+        this.unreadCounterRepository = unreadCounterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.counters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Unread count of a user, from memory when cached
+     */
+    public long get(UUID userId) {
+        LongAdder cached = counters.getIfPresent(userId);
+        if (cached != null) {
+            return Math.max(cached.sum(), 0L);
+        }
+
+        long value = unreadCounterRepository.findById(userId)
+                .map(UnreadCounter::getUnreadCount)
+                .orElseGet(() -> unreadCounterRepository.countUnread(userId));
+        LongAdder loaded = new LongAdder();
+        loaded.add(value);
+        counters.put(userId, loaded);
+        return value;
+    }
+
+    /**
+     * Record a new unread notification, call inside the transaction that creates it
+     */
+    public void increment(UUID userId) {
+        add(userId, 1);
+    }
+
+    /**
+     * Record several new unread notifications of one user with a single update
+     */
+    public void increment(UUID userId, long count) {
+        if (count > 0) {
+            add(userId, count);
+        }
+    }
+
+    /**
+     * Record an unread notification that was read or deleted
+     */
+    public void decrement(UUID userId) {
+        add(userId, -1);
+    }
+
+    /**
+     * Record that all of a user's notifications were read or deleted
+     */
+    public void reset(UUID userId) {
+        unreadCounterRepository.reset(userId);
+        TransactionUtils.afterCommit(() -> counters.invalidate(userId));
+    }
+
+    /**
+     * Rewrite drifted counters, runs after the nightly notification cleanup
+     */
+    @Scheduled(cron = "${app.unread-counters.reconcile-cron:0 15 4 * * *}")
+    public void reconcile() {
+        try {
+            Integer fixed = transactionTemplate.execute(status -> unreadCounterRepository.reconcile());
+            counters.invalidateAll();
+            log.info("Unread counters reconciled, {} corrected", fixed);
+        } catch (Exception e) {
+            log.error("Unread counter reconcile failed", e);
+        }
+    }
+
+    private void add(UUID userId, long delta) {
+        unreadCounterRepository.add(userId, delta);
+        TransactionUtils.afterCommit(() -> {
+            LongAdder cached = counters.getIfPresent(userId);
+            if (cached != null) {
+                cached.add(delta);
+            }
+        });
+    }
+}
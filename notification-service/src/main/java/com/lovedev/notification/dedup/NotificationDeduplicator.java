@@ -0,0 +1,179 @@
+package com.lovedev.notification.dedup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lovedev.common.web.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Dedup keys of single-user notifications
+ *
+ * A key is claimed with an insert on the primary key of notification_dedup_keys inside the
+ * creating transaction, so concurrent requests with the same key serialize on the row and only
+ * the first one creates a notification. Committed keys are also remembered in memory for
+ * {@code app.notification-dedup.memory-ttl-ms}, which drops retries hitting this replica without a
+ * database round trip. Keys expire after {@code app.notification-dedup.key-ttl-ms} and can then be
+ * claimed again.
+ */
+@Component
+@Slf4j
+public class NotificationDeduplicator {
+
+    /**
+     * Outcome of a claim, for a key held by an earlier request the notification created for it
+     */
+    public record Claim(boolean claimed, UUID notificationId, LocalDateTime notificationCreatedAt) {
+
+        static final Claim NEW = new Claim(true, null, null);
+    }
+
+    /**
+     * A user's key, for claiming keys of several users at once
+     */
+    public record Key(UUID userId, String key) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration keyTtl;
+
+    private final Cache<String, Boolean> recent;
+
+    public NotificationDeduplicator(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.notification-dedup.key-ttl-ms:86400000}") long keyTtlMs,
+                                    @Value("${app.notification-dedup.memory-ttl-ms:600000}") long memoryTtlMs,
+                                    @Value("${app.notification-dedup.max-keys:100000}") int maxKeys) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.keyTtl = Duration.ofMillis(keyTtlMs);
+        this.recent = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(memoryTtlMs))
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    /**
+     * Whether this replica committed the key recently, checked before any database access
+     */
+    public boolean isRecent(UUID userId, String key) {
+        return recent.getIfPresent(memoryKey(userId, key)) != null;
+    }
+
+    /**
+     * Claim a key, must be called inside the transaction creating the notification
+     *
+     * An expired key is taken over. A key held by an earlier request is locked until commit so
+     * a collapsing request can replace its notification without racing another one.
+     */
+    public Claim claim(UUID userId, String key) {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = jdbcTemplate.update("""
+                INSERT INTO notification_dedup_keys (user_id, dedup_key, created_at)
+                VALUES (?, ?, ?)
+                ON CONFLICT (user_id, dedup_key) DO UPDATE
+                SET notification_id = NULL,
+                    notification_created_at = NULL,
+                    created_at = EXCLUDED.created_at
+                WHERE notification_dedup_keys.created_at < ?
+                """,
+                userId, key, Timestamp.valueOf(now), Timestamp.valueOf(now.minus(keyTtl)));
+        if (claimed > 0) {
+            return Claim.NEW;
+        }
+
+        remember(userId, key);
+        List<Claim> held = jdbcTemplate.query("""
+                SELECT notification_id, notification_created_at
+                FROM notification_dedup_keys
+                WHERE user_id = ? AND dedup_key = ?
+                FOR UPDATE
+                """,
+                (rs, rowNum) -> {
+                    Timestamp createdAt = rs.getTimestamp("notification_created_at");
+                    return new Claim(false, rs.getObject("notification_id", UUID.class),
+                            createdAt != null ? createdAt.toLocalDateTime() : null);
+                },
+                userId, key);
+        return held.isEmpty() ? new Claim(false, null, null) : held.get(0);
+    }
+
+    /**
+     * Claim several keys with one batch insert, must be called inside the transaction acting on them
+     *
+     * Unlike {@link #claim} a key held by an earlier request is neither locked nor remembered, the
+     * caller only learns that it was not claimed.
+     *
+     * @return the keys that were claimed
+     */
+    public Set<Key> claimAll(List<Key> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+        Timestamp expiredBefore = Timestamp.valueOf(now.minus(keyTtl));
+        List<Object[]> rows = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            rows.add(new Object[]{key.userId(), key.key(), createdAt, expiredBefore});
+        }
+        int[] counts = jdbcTemplate.batchUpdate("""
+                INSERT INTO notification_dedup_keys (user_id, dedup_key, created_at)
+                VALUES (?, ?, ?)
+                ON CONFLICT (user_id, dedup_key) DO UPDATE
+                SET notification_id = NULL,
+                    notification_created_at = NULL,
+                    created_at = EXCLUDED.created_at
+                WHERE notification_dedup_keys.created_at < ?
+                """, rows);
+
+        Set<Key> claimed = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            // The driver may not report per-row counts for rewritten batches
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                claimed.add(keys.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Point a claimed key at the notification created for it, the key is remembered once the transaction commits
+     */
+    public void bind(UUID userId, String key, UUID notificationId, LocalDateTime notificationCreatedAt) {
+        jdbcTemplate.update("""
+                UPDATE notification_dedup_keys
+                SET notification_id = ?, notification_created_at = ?
+                WHERE user_id = ? AND dedup_key = ?
+                """,
+                notificationId, Timestamp.valueOf(notificationCreatedAt), userId, key);
+
+        TransactionUtils.afterCommit(() -> remember(userId, key));
+    }
+
+    @Scheduled(cron = "${app.notification-dedup.cleanup-cron:0 15 * * * *}")
+    public void cleanupExpiredKeys() {
+        int deleted = jdbcTemplate.update("DELETE FROM notification_dedup_keys WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(keyTtl)));
+        log.info("Removed {} expired notification dedup keys", deleted);
+    }
+
+    private void remember(UUID userId, String key) {
+        recent.put(memoryKey(userId, key), Boolean.TRUE);
+    }
+
+    private static String memoryKey(UUID userId, String key) {
+        return userId + ":" + key;
+    }
+}
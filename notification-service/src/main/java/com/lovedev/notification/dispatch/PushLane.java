@@ -0,0 +1,27 @@
+package com.lovedev.notification.dispatch;
+
+import com.lovedev.notification.model.enums.NotificationType;
+
+/**
+ * Scheduling class of a push, each lane has its own queue and weight
+ */
+public enum PushLane {
+
+    /** Direct messages, reminders and system notices a user is waiting for */
+    TRANSACTIONAL,
+    /** Announcements and updates sent to many users */
+    BULK,
+    /** Promotions, first to yield under load */
+    MARKETING;
+
+    public static PushLane of(NotificationType type) {
+        if (type == null) {
+            return TRANSACTIONAL;
+        }
+        return switch (type) {
+            case PROMOTION -> MARKETING;
+            case ANNOUNCEMENT, UPDATE -> BULK;
+            default -> TRANSACTIONAL;
+        };
+    }
+}
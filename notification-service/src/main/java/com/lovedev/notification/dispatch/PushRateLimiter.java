@@ -0,0 +1,226 @@
+package com.lovedev.notification.dispatch;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lovedev.notification.config.PushRateLimitProperties;
+import com.lovedev.notification.fcm.PushDispatcher;
+import com.lovedev.notification.fcm.PushMessage;
+import com.lovedev.notification.model.enums.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user token buckets for pushes, by notification type
+ *
+ * A push over its user's limit is not sent; it is counted into the user's digest, and every
+ * {@code app.push-rate-limit.digest-interval-ms} each user with folded pushes gets one summary
+ * push instead. Users idle for {@code idle-timeout} are forgotten and at most {@code max-users} are
+ * tracked, beyond that Caffeine evicts the least valuable and their buckets start full again. A
+ * user evicted with folded pushes keeps their digest, it is queued and goes out with the next flush.
+ */
+@Component
+@Slf4j
+public class PushRateLimiter {
+
+    private static final String DIGEST_COLLAPSE_KEY = "digest";
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    private static final class UserState {
+        private final Map<NotificationType, Bucket> buckets = new EnumMap<>(NotificationType.class);
+        private int folded;
+        private String latestTitle;
+        private PushLane digestLane;
+    }
+
+    private final PushRateLimitProperties properties;
+    private final PushDispatcher pushDispatcher;
+    private final LongSupplier clock;
+    private final Cache<UUID, UserState> users;
+    // Digests of evicted users, the eviction listener must not block on the dispatcher
+    private final Queue<PushMessage> evictedDigests = new ConcurrentLinkedQueue<>();
+    private final Counter allowed;
+    private final Counter folded;
+    private final Counter digests;
+
+    @Autowired
+    public PushRateLimiter(PushRateLimitProperties properties,
+                           PushDispatcher pushDispatcher,
+                           MeterRegistry meterRegistry) {
+        this(properties, pushDispatcher, meterRegistry, System::currentTimeMillis);
+    }
+
+    PushRateLimiter(PushRateLimitProperties properties,
+                    PushDispatcher pushDispatcher,
+                    MeterRegistry meterRegistry,
+                    LongSupplier clock) {
+        this.properties = properties;
+        this.pushDispatcher = pushDispatcher;
+        this.clock = clock;
+        this.users = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxUsers())
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.getAsLong()))
+                .<UUID, UserState>evictionListener((userId, state, cause) -> {
+                    if (userId != null && state != null) {
+                        queueEvicted(userId, state);
+                    }
+                })
+                .build();
+        this.allowed = meterRegistry.counter("lovedev.push.ratelimit", "outcome", "allowed");
+        this.folded = meterRegistry.counter("lovedev.push.ratelimit", "outcome", "folded");
+        this.digests = meterRegistry.counter("lovedev.push.digests");
+        meterRegistry.gauge("lovedev.push.ratelimit.users", users, Cache::estimatedSize);
+    }
+
+    /**
+     * Take a token for a push to the user
+     *
+     * @return false when the user is over the type's limit, the push was folded into their digest
+     */
+    public boolean tryAcquire(UUID userId, NotificationType type, String title) {
+        PushRateLimitProperties.Limit limit = properties.limit(type);
+        if (!properties.isEnabled() || limit.getBurst() <= 0) {
+            return true;
+        }
+
+        long now = clock.getAsLong();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            UserState state = users.get(userId, id -> new UserState());
+            synchronized (state) {
+                // Evicted between lookup and lock, its digest is already queued
+                if (users.asMap().get(userId) == state) {
+                    return acquire(state, type, title, limit, now);
+                }
+            }
+        }
+        // Evicted again right away while the cache is full, let the push through untracked
+        allowed.increment();
+        return true;
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire} for a push that was not sent after all
+     */
+    public void refund(UUID userId, NotificationType type) {
+        PushRateLimitProperties.Limit limit = properties.limit(type);
+        UserState state = users.getIfPresent(userId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            Bucket bucket = state.buckets.get(type);
+            if (bucket != null) {
+                bucket.tokens = Math.min(limit.getBurst(), bucket.tokens + 1);
+            }
+        }
+    }
+
+    private boolean acquire(UserState state, NotificationType type, String title,
+                            PushRateLimitProperties.Limit limit, long now) {
+        Bucket bucket = state.buckets.computeIfAbsent(type, t -> new Bucket(limit.getBurst(), now));
+        double refill = (now - bucket.refilledAt) / 60_000.0 * limit.getPerMinute();
+        bucket.tokens = Math.min(limit.getBurst(), bucket.tokens + refill);
+        bucket.refilledAt = now;
+
+        if (bucket.tokens >= 1) {
+            bucket.tokens--;
+            allowed.increment();
+            return true;
+        }
+
+        state.folded++;
+        state.latestTitle = title;
+        PushLane lane = PushLane.of(type);
+        if (state.digestLane == null || lane.ordinal() < state.digestLane.ordinal()) {
+            state.digestLane = lane;
+        }
+        folded.increment();
+        return false;
+    }
+
+    /**
+     * Send one summary push to every user with folded pushes
+     */
+    @Scheduled(fixedDelayString = "${app.push-rate-limit.digest-interval-ms:60000}")
+    public void flushDigests() {
+        // Expire idle users first, the ones with folded pushes queue their digest on eviction
+        users.cleanUp();
+        List<PushMessage> pushes = new ArrayList<>();
+        PushMessage evicted;
+        while ((evicted = evictedDigests.poll()) != null) {
+            pushes.add(evicted);
+        }
+        users.asMap().forEach((userId, state) -> {
+            PushMessage digest = digest(userId, state);
+            if (digest != null) {
+                pushes.add(digest);
+            }
+        });
+        send(pushes);
+    }
+
+    private void queueEvicted(UUID userId, UserState state) {
+        PushMessage digest = digest(userId, state);
+        if (digest != null) {
+            evictedDigests.add(digest);
+        }
+    }
+
+    /**
+     * Take the user's folded pushes into one summary push
+     *
+     * @return null when nothing was folded since the last digest
+     */
+    private PushMessage digest(UUID userId, UserState state) {
+        synchronized (state) {
+            if (state.folded == 0) {
+                return null;
+            }
+            String body = state.folded == 1
+                    ? state.latestTitle
+                    : state.latestTitle + " and " + (state.folded - 1) + " more";
+            String title = state.folded == 1
+                    ? "You have a new notification"
+                    : "You have " + state.folded + " new notifications";
+            PushMessage digest = new PushMessage(state.digestLane, userId, title, body,
+                    Map.of("digest", "true", "count", String.valueOf(state.folded)),
+                    DIGEST_COLLAPSE_KEY);
+            state.folded = 0;
+            state.latestTitle = null;
+            state.digestLane = null;
+            return digest;
+        }
+    }
+
+    private void send(List<PushMessage> pushes) {
+        if (pushes.isEmpty()) {
+            return;
+        }
+        int dropped = pushDispatcher.dispatchAll(pushes);
+        digests.increment(pushes.size() - dropped);
+        log.info("Sent {} push digests for rate limited users", pushes.size() - dropped);
+    }
+}
@@ -0,0 +1,18 @@
+package com.lovedev.notification.dispatch;
+
+/**
+ * A push lane is full, the caller should retry later
+ */
+public class PushRejectedException extends RuntimeException {
+
+    private final PushLane lane;
+
+    public PushRejectedException(PushLane lane) {
+        super("Push queue " + lane.name().toLowerCase() + " is full, try again later");
+        this.lane = lane;
+    }
+
+    public PushLane getLane() {
+        return lane;
+    }
+}
@@ -0,0 +1,44 @@
+package com.lovedev.notification.dispatch;
+
+import com.lovedev.common.web.dto.ApiResponse;
+import com.lovedev.common.web.dto.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Turns a full push lane into 503 with Retry-After, ahead of the shared handler's 500
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class PushRejectedExceptionHandler {
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    @ExceptionHandler(PushRejectedException.class)
+    public ResponseEntity<ApiResponse<ErrorResponse>> handlePushRejected(
+            PushRejectedException ex,
+            HttpServletRequest request) {
+
+        log.warn("Push rejected: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.of(
+                "PUSH_QUEUE_FULL",
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(ApiResponse.error(ex.getMessage(), error));
+    }
+}
@@ -0,0 +1,273 @@
+package com.lovedev.notification.dispatch;
+
+import com.lovedev.notification.config.PushProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Weighted fair scheduler for push sends
+ *
+ * Every {@link PushLane} has a bounded queue; a fixed set of workers takes the next task with
+ * smooth weighted round-robin over the lanes that have work, so a backlog of bulk or marketing
+ * pushes only ever gets its share of the workers and transactional pushes keep flowing. A full
+ * lane rejects instead of silently dropping: {@link #submit} throws, {@link #submit(PushLane, Runnable, Duration)}
+ * blocks the caller for up to the timeout. {@link #reserve} takes a lane's room up front for a task
+ * that is only known to be wanted later, such as a push sent once its transaction commits. Tasks
+ * run with the security context and MDC of the submitting thread.
+ */
+@Component
+@Slf4j
+public class PushScheduler {
+
+    private final class Lane {
+        private final PushLane lane;
+        private final int weight;
+        private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+        // Free places in the lane, taken on submit or reserve and given back when a worker takes the task
+        private final Semaphore room;
+        private final Counter submitted;
+        private final Counter rejected;
+        private final Counter failed;
+        private final Timer waitTimer;
+        private final Timer runTimer;
+        private int currentWeight;
+
+        private Lane(PushLane lane, PushProperties.Lane settings) {
+            this.lane = lane;
+            this.weight = Math.max(1, settings.getWeight());
+            this.room = new Semaphore(Math.max(1, settings.getCapacity()));
+            String tag = lane.name().toLowerCase();
+            this.submitted = meterRegistry.counter("lovedev.push.tasks", "lane", tag, "outcome", "submitted");
+            this.rejected = meterRegistry.counter("lovedev.push.tasks", "lane", tag, "outcome", "rejected");
+            this.failed = meterRegistry.counter("lovedev.push.tasks", "lane", tag, "outcome", "failed");
+            this.waitTimer = meterRegistry.timer("lovedev.push.queue.wait", "lane", tag);
+            this.runTimer = meterRegistry.timer("lovedev.push.execution", "lane", tag);
+            meterRegistry.gauge("lovedev.push.queue.size", Tags.of("lane", tag),
+                    queue, BlockingQueue::size);
+        }
+    }
+
+    private record Task(Runnable runnable, long enqueuedAt) {
+    }
+
+    private record Pick(Lane lane, Task task) {
+    }
+
+    /**
+     * A place held in a lane, used by exactly one {@link #submit} or {@link #cancel}
+     */
+    public final class Reservation {
+        private final Lane lane;
+        private final AtomicBoolean used = new AtomicBoolean();
+
+        private Reservation(Lane lane) {
+            this.lane = lane;
+        }
+
+        /**
+         * Queue the task in the held place, never rejected while the scheduler runs
+         */
+        public void submit(Runnable task) {
+            if (!used.compareAndSet(false, true)) {
+                return;
+            }
+            if (stopping) {
+                lane.room.release();
+                lane.rejected.increment();
+                return;
+            }
+            lane.queue.add(new Task(withCallerContext(task), System.nanoTime()));
+            accepted(lane);
+        }
+
+        /**
+         * Give the place back without queueing anything
+         */
+        public void cancel() {
+            if (used.compareAndSet(false, true)) {
+                lane.room.release();
+            }
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<PushLane, Lane> lanes = new EnumMap<>(PushLane.class);
+    // One permit per queued task, workers wait on it instead of polling the lanes
+    private final Semaphore queued = new Semaphore(0);
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean stopping;
+
+    public PushScheduler(PushProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (PushLane lane : PushLane.values()) {
+            lanes.put(lane, new Lane(lane, properties.lane(lane)));
+        }
+
+        int workerCount = Math.max(1, properties.getWorkers());
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::work, "notification-push-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queue a task, fails fast when the lane is full
+     *
+     * @throws PushRejectedException when the lane has no room
+     */
+    public void submit(PushLane lane, Runnable task) {
+        Lane target = lanes.get(lane);
+        if (stopping || !target.room.tryAcquire()) {
+            target.rejected.increment();
+            throw new PushRejectedException(lane);
+        }
+        target.queue.add(new Task(withCallerContext(task), System.nanoTime()));
+        accepted(target);
+    }
+
+    /**
+     * Hold a place in the lane for a task submitted later, fails fast when the lane is full
+     *
+     * @throws PushRejectedException when the lane has no room
+     */
+    public Reservation reserve(PushLane lane) {
+        Lane target = lanes.get(lane);
+        if (stopping || !target.room.tryAcquire()) {
+            target.rejected.increment();
+            throw new PushRejectedException(lane);
+        }
+        return new Reservation(target);
+    }
+
+    /**
+     * Queue a task, waiting up to timeout for room in the lane
+     *
+     * @return false when the lane stayed full or the wait was interrupted
+     */
+    public boolean submit(PushLane lane, Runnable task, Duration timeout) {
+        Lane target = lanes.get(lane);
+        try {
+            if (!stopping && target.room.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                target.queue.add(new Task(withCallerContext(task), System.nanoTime()));
+                accepted(target);
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.rejected.increment();
+        return false;
+    }
+
+    private void accepted(Lane lane) {
+        lane.submitted.increment();
+        queued.release();
+    }
+
+    private void work() {
+        while (!stopping) {
+            try {
+                queued.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            Pick pick = next();
+            if (pick == null) {
+                continue;
+            }
+            Lane lane = pick.lane();
+            Task task = pick.task();
+
+            lane.waitTimer.record(System.nanoTime() - task.enqueuedAt(), TimeUnit.NANOSECONDS);
+            long started = System.nanoTime();
+            try {
+                task.runnable().run();
+            } catch (Exception e) {
+                lane.failed.increment();
+                log.error("Push task in lane {} failed", lane.lane, e);
+            } finally {
+                lane.runTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Smooth weighted round-robin over lanes with queued work, takes the task under the same lock
+     * so a worker holding a permit always finds one
+     */
+    private synchronized Pick next() {
+        Lane best = null;
+        int total = 0;
+        for (Lane lane : lanes.values()) {
+            if (lane.queue.isEmpty()) {
+                continue;
+            }
+            lane.currentWeight += lane.weight;
+            total += lane.weight;
+            if (best == null || lane.currentWeight > best.currentWeight) {
+                best = lane;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        best.currentWeight -= total;
+        Task task = best.queue.poll();
+        if (task == null) {
+            return null;
+        }
+        best.room.release();
+        return new Pick(best, task);
+    }
+
+    private static Runnable withCallerContext(Runnable task) {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            SecurityContext previous = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(securityContext);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                task.run();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+                MDC.clear();
+            }
+        };
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        workers.forEach(Thread::interrupt);
+        int dropped = lanes.values().stream().mapToInt(lane -> lane.queue.size()).sum();
+        if (dropped > 0) {
+            log.warn("Push scheduler stopped with {} queued pushes", dropped);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.lovedev.notification.fanout;
+
+import com.lovedev.common.web.util.TransactionUtils;
+import com.lovedev.notification.fcm.FCMDeliveryResult;
+import com.lovedev.notification.fcm.FCMMulticastSender;
+import com.lovedev.notification.model.entity.FanoutJob;
+import com.lovedev.notification.model.entity.FanoutShard;
+import com.lovedev.notification.model.enums.FanoutJobStatus;
+import com.lovedev.notification.repository.FCMTokenRepository;
+import com.lovedev.notification.repository.FanoutJobRepository;
+import com.lovedev.notification.repository.FanoutShardRepository;
+import com.lovedev.notification.repository.FanoutTokenRow;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Streaming, resumable bulk notification fan-out
+ *
+ * A job is split into {@code app.fanout.shards} contiguous user_id ranges. Each shard walks its
+ * active, push-enabled tokens by keyset on (user_id, id) one page at a time. A page is read and
+ * sent as one FCM multicast with no transaction open, then the shard cursor and the job progress
+ * are committed in one short transaction that only succeeds while this worker owns the lease, so
+ * memory stays bounded by the page size, no connection is held across FCM round trips and a crash
+ * resumes from the last committed page. The in-app copy is a single
+ * broadcast row created with the job, no per-user rows are written.
+ *
+ * Workers hold a shard through a lease (owner + heartbeat). A lease that stops heart-beating for
+ * {@code lease-timeout} is picked up again by the recovery sweep on any replica. Delivery is
+ * at-least-once: the page in flight when a worker dies is sent again.
+ */
+@Component
+@Slf4j
+public class FanoutEngine {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
+    private static final List<FanoutJobStatus> OPEN_STATUSES = List.of(FanoutJobStatus.PENDING, FanoutJobStatus.RUNNING);
+
+    private enum PageOutcome { MORE, DONE, LEASE_LOST }
+
+    private final FanoutJobRepository fanoutJobRepository;
+    private final FanoutShardRepository fanoutShardRepository;
+    private final FCMTokenRepository fcmTokenRepository;
+    private final FCMMulticastSender fcmMulticastSender;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor fanoutExecutor;
+    private final int shardCount;
+    private final int pageSize;
+    private final int maxAttempts;
+    private final Duration leaseTimeout;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Set<UUID> activeShards = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopping;
+
+    public FanoutEngine(FanoutJobRepository fanoutJobRepository,
+                        FanoutShardRepository fanoutShardRepository,
+                        FCMTokenRepository fcmTokenRepository,
+                        FCMMulticastSender fcmMulticastSender,
+                        PlatformTransactionManager transactionManager,
+                        @Qualifier("fanoutExecutor") Executor fanoutExecutor,
+                        @Value("${app.fanout.shards:16}") int shardCount,
+                        @Value("${app.fanout.page-size:500}") int pageSize,
+                        @Value("${app.fanout.max-attempts:5}") int maxAttempts,
+                        @Value("${app.fanout.lease-timeout-ms:300000}") long leaseTimeoutMs) {
+        this.fanoutJobRepository = fanoutJobRepository;
+        this.fanoutShardRepository = fanoutShardRepository;
+        this.fcmTokenRepository = fcmTokenRepository;
+        this.fcmMulticastSender = fcmMulticastSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fanoutExecutor = fanoutExecutor;
+        this.shardCount = Math.max(1, shardCount);
+        this.pageSize = Math.max(1, pageSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.leaseTimeout = Duration.ofMillis(leaseTimeoutMs);
+    }
+
+    /**
+     * Persist a job with its shards, in the caller's transaction when there is one, and start
+     * working on it once that commits
+     */
+    public FanoutJob submit(FanoutJob job) {
+        job.setShardCount(shardCount);
+        List<FanoutShard> shards = new ArrayList<>(shardCount);
+        FanoutJob saved = transactionTemplate.execute(status -> {
+            FanoutJob created = fanoutJobRepository.save(job);
+            shards.addAll(fanoutShardRepository.saveAll(createShards(created.getId())));
+            return created;
+        });
+
+        log.info("Fan-out job {} created with {} shards", saved.getId(), shardCount);
+        // Shards of a job rolled back with the caller's transaction must never start
+        TransactionUtils.afterCommit(() -> shards.forEach(shard -> dispatch(shard.getId())));
+        return saved;
+    }
+
+    /**
+     * Pick up shards that were never started, released, or whose worker stopped heart-beating
+     */
+    @Scheduled(fixedDelayString = "${app.fanout.recovery-interval-ms:60000}",
+            initialDelayString = "${app.fanout.recovery-initial-delay-ms:10000}")
+    public void resumeStalledShards() {
+        if (stopping) {
+            return;
+        }
+        List<FanoutShard> claimable = fanoutShardRepository.findClaimable(OPEN_STATUSES, staleBefore());
+        for (FanoutShard shard : claimable) {
+            if (!activeShards.contains(shard.getId())) {
+                log.info("Resuming fan-out job {} shard {} from checkpoint", shard.getJobId(), shard.getShardIndex());
+                dispatch(shard.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    private void dispatch(UUID shardId) {
+        try {
+            fanoutExecutor.execute(() -> runShard(shardId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Fan-out shard {} rejected, it will be picked up by the recovery sweep", shardId);
+        }
+    }
+
+    private void runShard(UUID shardId) {
+        if (stopping || !activeShards.add(shardId)) {
+            return;
+        }
+        try {
+            Integer claimed = transactionTemplate.execute(status -> fanoutShardRepository.claim(
+                    shardId, instanceId, OPEN_STATUSES, FanoutJobStatus.RUNNING, LocalDateTime.now(), staleBefore()));
+            if (claimed == null || claimed == 0) {
+                return;
+            }
+
+            FanoutShard shard = fanoutShardRepository.findById(shardId).orElseThrow();
+            FanoutJob job = fanoutJobRepository.findById(shard.getJobId()).orElseThrow();
+            transactionTemplate.executeWithoutResult(status -> fanoutJobRepository.markRunning(
+                    job.getId(), FanoutJobStatus.PENDING, FanoutJobStatus.RUNNING, LocalDateTime.now()));
+
+            processShard(job, shard);
+        } finally {
+            activeShards.remove(shardId);
+        }
+    }
+
+    private void processShard(FanoutJob job, FanoutShard shard) {
+        com.google.firebase.messaging.Notification fcmNotification = com.google.firebase.messaging.Notification.builder()
+                .setTitle(job.getTitle())
+                .setBody(job.getBody())
+                .build();
+
+        Map<String, String> data = new HashMap<>();
+        data.put("type", job.getType().toString());
+        data.put("actionUrl", job.getActionUrl() != null ? job.getActionUrl() : "");
+        if (job.getBroadcastId() != null) {
+            data.put("notificationId", job.getBroadcastId().toString());
+        }
+
+        try {
+            PageOutcome outcome = PageOutcome.MORE;
+            while (outcome == PageOutcome.MORE && !stopping) {
+                outcome = processPage(job, shard, fcmNotification, data);
+            }
+
+            if (outcome == PageOutcome.LEASE_LOST) {
+                log.warn("Fan-out job {} shard {} lost its lease", job.getId(), shard.getShardIndex());
+            } else if (outcome == PageOutcome.DONE) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    fanoutShardRepository.release(shard.getId(), instanceId, FanoutJobStatus.COMPLETED);
+                    if (fanoutJobRepository.completeIfDone(job.getId(), FanoutJobStatus.RUNNING,
+                            FanoutJobStatus.COMPLETED, LocalDateTime.now()) > 0) {
+                        log.info("Fan-out job {} completed", job.getId());
+                    }
+                });
+            } else {
+                // Shutting down: hand the shard back so another replica resumes it right away
+                transactionTemplate.executeWithoutResult(status ->
+                        fanoutShardRepository.release(shard.getId(), instanceId, FanoutJobStatus.RUNNING));
+            }
+        } catch (RuntimeException e) {
+            // attempts already counts this run, it is incremented when the shard is claimed
+            boolean exhausted = shard.getAttempts() >= maxAttempts;
+            log.error("Fan-out job {} shard {} failed (attempt {} of {})",
+                    job.getId(), shard.getShardIndex(), shard.getAttempts(), maxAttempts, e);
+            transactionTemplate.executeWithoutResult(status -> {
+                fanoutShardRepository.release(shard.getId(), instanceId,
+                        exhausted ? FanoutJobStatus.FAILED : FanoutJobStatus.RUNNING);
+                if (exhausted) {
+                    fanoutJobRepository.markFailed(job.getId(), FanoutJobStatus.FAILED, LocalDateTime.now());
+                }
+            });
+        }
+    }
+
+    /**
+     * Send one keyset page, then checkpoint it in a short transaction guarded by the lease owner
+     */
+    private PageOutcome processPage(FanoutJob job, FanoutShard shard,
+                                    com.google.firebase.messaging.Notification fcmNotification,
+                                    Map<String, String> data) {
+        List<FanoutTokenRow> rows = fcmTokenRepository.findFanoutPage(
+                shard.getCursorUserId(), shard.getCursorTokenId(), shard.getUpperUserId(), pageSize);
+        if (rows.isEmpty()) {
+            return PageOutcome.DONE;
+        }
+
+        FCMDeliveryResult result = fcmMulticastSender.send(
+                rows.stream().map(FanoutTokenRow::getToken).toList(), fcmNotification, data);
+
+        // Rows are ordered by user, so only the first user of a page can carry over from the previous page
+        UUID carriedUser = MIN_UUID.equals(shard.getCursorTokenId()) ? null : shard.getCursorUserId();
+        long notifiedUsers = rows.stream()
+                .map(FanoutTokenRow::getUserId)
+                .distinct()
+                .filter(userId -> !Objects.equals(userId, carriedUser))
+                .count();
+
+        FanoutTokenRow last = rows.get(rows.size() - 1);
+        Boolean checkpointed = transactionTemplate.execute(status -> {
+            if (fanoutShardRepository.checkpoint(shard.getId(), instanceId,
+                    last.getUserId(), last.getId(), rows.size(), LocalDateTime.now()) == 0) {
+                return false;
+            }
+            fanoutJobRepository.addProgress(job.getId(), rows.size(), result.successCount(),
+                    result.failureCount(), result.deactivatedCount(), notifiedUsers);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(checkpointed)) {
+            return PageOutcome.LEASE_LOST;
+        }
+
+        shard.setCursorUserId(last.getUserId());
+        shard.setCursorTokenId(last.getId());
+        return rows.size() < pageSize ? PageOutcome.DONE : PageOutcome.MORE;
+    }
+
+    /**
+     * Split the user_id space into equal ranges on the high 64 bits, random UUIDs spread evenly
+     */
+    private List<FanoutShard> createShards(UUID jobId) {
+        BigInteger space = BigInteger.ONE.shiftLeft(64);
+        BigInteger count = BigInteger.valueOf(shardCount);
+
+        List<FanoutShard> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            long lowerBits = space.multiply(BigInteger.valueOf(i)).divide(count).longValue();
+            UUID lower = new UUID(lowerBits, 0L);
+            UUID upper = i == shardCount - 1
+                    ? MAX_UUID
+                    : new UUID(space.multiply(BigInteger.valueOf(i + 1)).divide(count).longValue() - 1, -1L);
+
+            shards.add(FanoutShard.builder()
+                    .jobId(jobId)
+                    .shardIndex(i)
+                    .lowerUserId(lower)
+                    .upperUserId(upper)
+                    .cursorUserId(lower)
+                    .cursorTokenId(MIN_UUID)
+                    .build());
+        }
+        return shards;
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minus(leaseTimeout);
+    }
+}
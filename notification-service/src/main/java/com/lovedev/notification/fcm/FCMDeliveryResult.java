@@ -0,0 +1,9 @@
+package com.lovedev.notification.fcm;
+
+/**
+ * Outcome of one multicast delivery
+ */
+public record FCMDeliveryResult(int successCount, int failureCount, int deactivatedCount) {
+
+    public static final FCMDeliveryResult EMPTY = new FCMDeliveryResult(0, 0, 0);
+}
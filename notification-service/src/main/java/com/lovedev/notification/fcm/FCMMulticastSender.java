@@ -0,0 +1,190 @@
+package com.lovedev.notification.fcm;
+
+import com.google.api.core.ApiFuture;
+import com.google.firebase.messaging.AndroidConfig;
+import com.google.firebase.messaging.ApnsConfig;
+import com.google.firebase.messaging.Aps;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import com.lovedev.notification.repository.FCMTokenRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends one notification to many FCM tokens with sendEachForMulticast
+ *
+ * Tokens are split into chunks of at most 500 (the FCM multicast limit). At most
+ * app.fcm.max-concurrent-batches chunks are in flight across the whole service, and tokens
+ * FCM reports as invalid are deactivated with one UPDATE per chunk in a transaction of its own,
+ * so callers never hold a transaction open across FCM round trips.
+ */
+@Component
+@Slf4j
+public class FCMMulticastSender {
+
+    /**
+     * FCM multicast limit
+     */
+    private static final int MAX_TOKENS_PER_MULTICAST = 500;
+
+    private final FCMTokenRepository fcmTokenRepository;
+    private final FCMTokenRegistry fcmTokenRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore inFlightBatches;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+
+    public FCMMulticastSender(
+            FCMTokenRepository fcmTokenRepository,
+            FCMTokenRegistry fcmTokenRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.fcm.batch-size:500}") int batchSize,
+            @Value("${app.fcm.max-concurrent-batches:4}") int maxConcurrentBatches,
+            @Value("${app.fcm.send-timeout-ms:30000}") long sendTimeoutMs) {
+
+        this.fcmTokenRepository = fcmTokenRepository;
+        this.fcmTokenRegistry = fcmTokenRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_TOKENS_PER_MULTICAST));
+        this.inFlightBatches = new Semaphore(Math.max(1, maxConcurrentBatches));
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Send to all tokens
+     */
+    @Timed(value = "lovedev.fcm.send", description = "FCM multicast send latency")
+    public FCMDeliveryResult send(List<String> tokens, Notification notification, Map<String, String> data) {
+        return send(tokens, notification, data, null);
+    }
+
+    /**
+     * Send to all tokens, with a collapse key devices replace an earlier push of the same key
+     */
+    @Timed(value = "lovedev.fcm.send", description = "FCM multicast send latency")
+    public FCMDeliveryResult send(List<String> tokens, Notification notification, Map<String, String> data,
+                                  String collapseKey) {
+        if (tokens.isEmpty()) {
+            return FCMDeliveryResult.EMPTY;
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int start = 0; start < tokens.size(); start += batchSize) {
+            chunks.add(tokens.subList(start, Math.min(start + batchSize, tokens.size())));
+        }
+
+        List<ApiFuture<BatchResponse>> futures = new ArrayList<>(chunks.size());
+        try {
+            for (List<String> chunk : chunks) {
+                futures.add(sendChunk(chunk, notification, data, collapseKey));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted after submitting {} of {} FCM batches", futures.size(), chunks.size());
+        }
+
+        int success = 0;
+        int failure = 0;
+        int deactivated = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            List<String> chunk = chunks.get(i);
+            BatchResponse response = await(futures.get(i), chunk.size());
+            if (response == null) {
+                failure += chunk.size();
+                continue;
+            }
+
+            success += response.getSuccessCount();
+            failure += response.getFailureCount();
+
+            List<String> invalidTokens = invalidTokens(chunk, response);
+            if (!invalidTokens.isEmpty()) {
+                Integer updated = transactionTemplate.execute(status ->
+                        fcmTokenRepository.deactivateTokens(invalidTokens));
+                deactivated += updated != null ? updated : 0;
+                fcmTokenRegistry.invalidateTokens(invalidTokens);
+            }
+        }
+
+        return new FCMDeliveryResult(success, failure, deactivated);
+    }
+
+    private ApiFuture<BatchResponse> sendChunk(List<String> chunk, Notification notification, Map<String, String> data,
+                                               String collapseKey) throws InterruptedException {
+        MulticastMessage.Builder builder = MulticastMessage.builder()
+                .addAllTokens(chunk)
+                .setNotification(notification)
+                .putAllData(data);
+        if (collapseKey != null) {
+            builder.setAndroidConfig(AndroidConfig.builder().setCollapseKey(collapseKey).build())
+                    .setApnsConfig(ApnsConfig.builder()
+                            .putHeader("apns-collapse-id", collapseKey)
+                            .setAps(Aps.builder().build())
+                            .build());
+        }
+        MulticastMessage message = builder.build();
+
+        inFlightBatches.acquire();
+        try {
+            ApiFuture<BatchResponse> future = FirebaseMessaging.getInstance().sendEachForMulticastAsync(message);
+            future.addListener(inFlightBatches::release, Runnable::run);
+            return future;
+        } catch (RuntimeException e) {
+            inFlightBatches.release();
+            throw e;
+        }
+    }
+
+    private BatchResponse await(ApiFuture<BatchResponse> future, int chunkSize) {
+        try {
+            return future.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("FCM multicast of {} tokens failed", chunkSize, e);
+        }
+        return null;
+    }
+
+    /**
+     * Tokens FCM rejected as unregistered or malformed
+     * INVALID_ARGUMENT is only trusted when some tokens in the chunk succeeded, otherwise the payload itself is bad
+     */
+    private List<String> invalidTokens(List<String> chunk, BatchResponse response) {
+        boolean payloadAccepted = response.getSuccessCount() > 0;
+        List<SendResponse> responses = response.getResponses();
+        List<String> invalid = new ArrayList<>();
+
+        for (int i = 0; i < responses.size(); i++) {
+            FirebaseMessagingException exception = responses.get(i).getException();
+            if (exception == null) {
+                continue;
+            }
+            MessagingErrorCode code = exception.getMessagingErrorCode();
+            if (code == MessagingErrorCode.UNREGISTERED
+                    || (code == MessagingErrorCode.INVALID_ARGUMENT && payloadAccepted)) {
+                invalid.add(chunk.get(i));
+            } else {
+                log.warn("FCM send failed with {}: {}", code, exception.getMessage());
+            }
+        }
+        return invalid;
+    }
+}
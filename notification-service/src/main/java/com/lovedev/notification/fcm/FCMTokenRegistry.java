@@ -0,0 +1,120 @@
+package com.lovedev.notification.fcm;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lovedev.common.web.util.TransactionUtils;
+import com.lovedev.notification.model.entity.FCMToken;
+import com.lovedev.notification.repository.FCMTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Active FCM tokens per user, kept in memory for push sends
+ *
+ * A user's tokens are loaded on the first send and dropped whenever this replica registers,
+ * removes or deactivates one of them. Invalidation runs both immediately and after commit so a
+ * concurrent send cannot cache the pre-commit state. Changes made on other replicas are picked
+ * up when the entry expires after {@code app.fcm-token-registry.ttl-ms}; at most
+ * {@code max-entries} users are kept.
+ */
+@Component
+public class FCMTokenRegistry {
+
+    private final FCMTokenRepository fcmTokenRepository;
+
+    private final Cache<UUID, List<String>> tokensByUser;
+    private final Map<String, UUID> owners = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public FCMTokenRegistry(FCMTokenRepository fcmTokenRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.fcm-token-registry.ttl-ms:60000}") long ttlMs,
+                            @Value("${app.fcm-token-registry.max-entries:100000}") int maxEntries) {
+        this.fcmTokenRepository = fcmTokenRepository;
+        this.tokensByUser = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxEntries)
+                // Runs inside the eviction, so the reverse index never points at an evicted user for long
+                .<UUID, List<String>>evictionListener((userId, tokens, cause) -> forgetOwners(userId, tokens))
+                .build();
+        this.hits = meterRegistry.counter("lovedev.fcm.registry.requests", "result", "hit");
+        this.misses = meterRegistry.counter("lovedev.fcm.registry.requests", "result", "miss");
+        meterRegistry.gauge("lovedev.fcm.registry.users", tokensByUser, Cache::estimatedSize);
+        meterRegistry.gauge("lovedev.fcm.registry.tokens", owners, Map::size);
+    }
+
+    /**
+     * Active tokens of a user, from memory when cached
+     */
+    public List<String> activeTokens(UUID userId) {
+        List<String> cached = tokensByUser.getIfPresent(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        List<String> tokens = fcmTokenRepository.findActiveTokensByUserId(userId).stream()
+                .map(FCMToken::getToken)
+                .toList();
+        List<String> previous = tokensByUser.asMap().put(userId, tokens);
+        forgetOwners(userId, previous);
+        tokens.forEach(token -> owners.put(token, userId));
+        return tokens;
+    }
+
+    /**
+     * Forget all cached tokens of a user
+     */
+    public void invalidate(UUID userId) {
+        evict(userId);
+        TransactionUtils.afterCommit(() -> evict(userId));
+    }
+
+    /**
+     * Forget the users owning any of the given tokens
+     */
+    public void invalidateTokens(Collection<String> tokens) {
+        evictOwners(tokens);
+        TransactionUtils.afterCommit(() -> evictOwners(tokens));
+    }
+
+    public void invalidateAll() {
+        clear();
+        TransactionUtils.afterCommit(this::clear);
+    }
+
+    private void evict(UUID userId) {
+        forgetOwners(userId, tokensByUser.asMap().remove(userId));
+    }
+
+    private void evictOwners(Collection<String> tokens) {
+        for (String token : tokens) {
+            UUID owner = owners.get(token);
+            if (owner != null) {
+                evict(owner);
+            }
+        }
+    }
+
+    private void forgetOwners(UUID userId, List<String> tokens) {
+        if (tokens != null) {
+            tokens.forEach(token -> owners.remove(token, userId));
+        }
+    }
+
+    private void clear() {
+        tokensByUser.invalidateAll();
+        owners.clear();
+    }
+}
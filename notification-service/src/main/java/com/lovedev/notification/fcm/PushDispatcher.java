@@ -0,0 +1,95 @@
+package com.lovedev.notification.fcm;
+
+import com.google.firebase.messaging.Notification;
+import com.lovedev.common.web.util.TransactionUtils;
+import com.lovedev.notification.config.PushProperties;
+import com.lovedev.notification.dispatch.PushRejectedException;
+import com.lovedev.notification.dispatch.PushScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sends single-user pushes off the caller's thread through the {@link PushScheduler}
+ *
+ * Tokens come from the {@link FCMTokenRegistry}, tokens FCM rejects are deactivated by the
+ * {@link FCMMulticastSender}. Request paths fail fast when the push's lane is full,
+ * batch producers such as the Kafka listener wait for room instead.
+ */
+@Component
+@Slf4j
+public class PushDispatcher {
+
+    private final FCMTokenRegistry fcmTokenRegistry;
+    private final FCMMulticastSender fcmMulticastSender;
+    private final PushScheduler pushScheduler;
+    private final Duration submitTimeout;
+
+    public PushDispatcher(FCMTokenRegistry fcmTokenRegistry,
+                          FCMMulticastSender fcmMulticastSender,
+                          PushScheduler pushScheduler,
+                          PushProperties pushProperties) {
+        this.fcmTokenRegistry = fcmTokenRegistry;
+        this.fcmMulticastSender = fcmMulticastSender;
+        this.pushScheduler = pushScheduler;
+        this.submitTimeout = pushProperties.getSubmitTimeout();
+    }
+
+    /**
+     * Queue a push once the current transaction commits, right away without one
+     *
+     * The lane's room is reserved now so a full lane still fails the caller's transaction, and
+     * given back when the transaction rolls back. Workers therefore never send a push for data
+     * that is not committed yet.
+     *
+     * @throws PushRejectedException when the push's lane is full
+     */
+    public void dispatchAfterCommit(PushMessage message) {
+        PushScheduler.Reservation reservation = pushScheduler.reserve(message.lane());
+        TransactionUtils.afterRollback(reservation::cancel);
+        TransactionUtils.afterCommit(() -> reservation.submit(() -> send(message)));
+    }
+
+    /**
+     * Queue pushes, waiting for room in their lanes; a push still without room after
+     * {@code app.push.submit-timeout} is dropped
+     *
+     * @return number of dropped pushes
+     */
+    public int dispatchAll(Collection<PushMessage> messages) {
+        int dropped = 0;
+        for (PushMessage message : messages) {
+            if (!pushScheduler.submit(message.lane(), () -> send(message), submitTimeout)) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.warn("Dropped {} of {} pushes, their lanes stayed full", dropped, messages.size());
+        }
+        return dropped;
+    }
+
+    private void send(PushMessage message) {
+        try {
+            List<String> tokens = fcmTokenRegistry.activeTokens(message.userId());
+            if (tokens.isEmpty()) {
+                log.debug("No active FCM tokens for user: {}", message.userId());
+                return;
+            }
+
+            Notification notification = Notification.builder()
+                    .setTitle(message.title())
+                    .setBody(message.body())
+                    .build();
+            FCMDeliveryResult result = fcmMulticastSender.send(tokens, notification, message.data(),
+                    message.collapseKey());
+            log.debug("Push to user {}: {} delivered, {} failed, {} tokens deactivated",
+                    message.userId(), result.successCount(), result.failureCount(), result.deactivatedCount());
+        } catch (Exception e) {
+            log.error("Error sending push to user: {}", message.userId(), e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.lovedev.notification.fcm;
+
+import com.lovedev.notification.dispatch.PushLane;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One push to all active devices of a user, devices replace a shown push with the same collapse key
+ */
+public record PushMessage(PushLane lane, UUID userId, String title, String body, Map<String, String> data,
+                          String collapseKey) {
+
+    public PushMessage(PushLane lane, UUID userId, String title, String body, Map<String, String> data) {
+        this(lane, userId, title, body, data, null);
+    }
+}
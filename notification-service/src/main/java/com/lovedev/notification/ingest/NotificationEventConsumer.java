@@ -0,0 +1,40 @@
+package com.lovedev.notification.ingest;
+
+import com.lovedev.common.messaging.constant.KafkaTopics;
+import com.lovedev.common.messaging.event.NotificationEvent;
+import com.lovedev.notification.fcm.PushDispatcher;
+import com.lovedev.notification.fcm.PushMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Receives notification requests published by other services
+ *
+ * A poll is handled as one batch: stored in one transaction, acknowledged, then pushed.
+ * A failure before the acknowledgment leaves the offsets alone so the batch is redelivered.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.notification-events", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationEventConsumer {
+
+    private final NotificationIngestor notificationIngestor;
+    private final PushDispatcher pushDispatcher;
+
+    @KafkaListener(
+            topics = KafkaTopics.NOTIFICATION_EVENTS,
+            containerFactory = "notificationEventKafkaListenerContainerFactory"
+    )
+    public void onEvents(List<NotificationEvent> events, Acknowledgment acknowledgment) {
+        List<PushMessage> pushes = notificationIngestor.ingest(events);
+        acknowledgment.acknowledge();
+        pushDispatcher.dispatchAll(pushes);
+    }
+}
@@ -0,0 +1,288 @@
+package com.lovedev.notification.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.common.messaging.event.NotificationEvent;
+import com.lovedev.notification.counter.UnreadCounters;
+import com.lovedev.notification.dedup.NotificationDeduplicator;
+import com.lovedev.notification.dispatch.PushLane;
+import com.lovedev.notification.dispatch.PushRateLimiter;
+import com.lovedev.notification.fcm.PushMessage;
+import com.lovedev.notification.mapper.NotificationMapper;
+import com.lovedev.notification.model.entity.Notification;
+import com.lovedev.notification.model.enums.NotificationStatus;
+import com.lovedev.notification.model.enums.NotificationType;
+import com.lovedev.notification.realtime.RealtimeNotifier;
+import com.lovedev.notification.settings.NotificationSettingsResolver;
+import com.lovedev.notification.settings.ResolvedNotificationSettings;
+import com.lovedev.notification.stats.NotificationStatsCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stores a batch of notification events with one JDBC batch insert
+ *
+ * Settings of all recipients are resolved up front. Rows, unread counters, cached stats and
+ * realtime events commit together; the pushes for the batch are returned for dispatch after
+ * commit. The event id is the notification id and the event timestamp its creation time, so a
+ * redelivered event hits the primary key and is neither stored nor pushed twice; events without a
+ * timestamp are skipped as invalid. For recipients
+ * with in-app notifications off nothing is stored, their event ids are claimed as keys of the
+ * {@link NotificationDeduplicator} instead and a redelivery within its key ttl is not pushed again.
+ * Rate limit tokens are only taken for events seen for the first time.
+ */
+@Component
+@Slf4j
+public class NotificationIngestor {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notifications (id, user_id, title, body, type, status, data, action_url,
+                                       sent_at, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id, created_at) DO NOTHING
+            """;
+
+    // Dedup key recording the event id of a notification that was pushed but not stored
+    private static final String EVENT_KEY_PREFIX = "event:";
+
+    private record Candidate(NotificationEvent event, Notification notification, boolean stored) {
+    }
+
+    private record Ingested(Set<UUID> inserted, Set<UUID> claimed) {
+
+        boolean isNew(UUID notificationId) {
+            return inserted.contains(notificationId) || claimed.contains(notificationId);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationSettingsResolver notificationSettingsResolver;
+    private final UnreadCounters unreadCounters;
+    private final RealtimeNotifier realtimeNotifier;
+    private final NotificationStatsCache notificationStatsCache;
+    private final PushRateLimiter pushRateLimiter;
+    private final NotificationDeduplicator notificationDeduplicator;
+    private final NotificationMapper notificationMapper;
+    private final ObjectMapper objectMapper;
+
+    public NotificationIngestor(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                NotificationSettingsResolver notificationSettingsResolver,
+                                UnreadCounters unreadCounters,
+                                RealtimeNotifier realtimeNotifier,
+                                NotificationStatsCache notificationStatsCache,
+                                PushRateLimiter pushRateLimiter,
+                                NotificationDeduplicator notificationDeduplicator,
+                                NotificationMapper notificationMapper,
+                                ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationSettingsResolver = notificationSettingsResolver;
+        this.unreadCounters = unreadCounters;
+        this.realtimeNotifier = realtimeNotifier;
+        this.notificationStatsCache = notificationStatsCache;
+        this.pushRateLimiter = pushRateLimiter;
+        this.notificationDeduplicator = notificationDeduplicator;
+        this.notificationMapper = notificationMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Store a batch, events that cannot be delivered are skipped
+     *
+     * @return pushes to send once the batch is committed
+     */
+    public List<PushMessage> ingest(List<NotificationEvent> events) {
+        List<NotificationEvent> valid = new ArrayList<>(events.size());
+        Set<UUID> recipients = new LinkedHashSet<>();
+        for (NotificationEvent event : events) {
+            // The timestamp is part of the notification key, without it a redelivery would be stored twice
+            if (event == null || event.getUserId() == null || event.getTimestamp() == null
+                    || isBlank(event.getTitle()) || isBlank(event.getBody())) {
+                log.warn("Skipping invalid notification event: {}", event != null ? event.getEventId() : null);
+                continue;
+            }
+            valid.add(event);
+            recipients.add(event.getUserId());
+        }
+        if (valid.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, ResolvedNotificationSettings> settings = notificationSettingsResolver.resolveAll(recipients);
+        List<Notification> stored = new ArrayList<>();
+        List<Candidate> candidates = new ArrayList<>();
+        Map<NotificationDeduplicator.Key, UUID> pushOnly = new LinkedHashMap<>();
+        for (NotificationEvent event : valid) {
+            ResolvedNotificationSettings recipient = settings.get(event.getUserId());
+            Notification notification = toNotification(event);
+            if (recipient.inAppEnabled()) {
+                stored.add(notification);
+            } else if (recipient.pushEnabled() && fromEventId(event, notification)) {
+                // No row to hit on redelivery, the event id is recorded as a dedup key instead
+                pushOnly.put(new NotificationDeduplicator.Key(notification.getUserId(),
+                        EVENT_KEY_PREFIX + notification.getId()), notification.getId());
+            }
+            if (recipient.pushEnabled()) {
+                candidates.add(new Candidate(event, notification, recipient.inAppEnabled()));
+            }
+        }
+
+        Ingested ingested = transactionTemplate.execute(status -> {
+            Set<UUID> inserted = insert(stored);
+            Set<UUID> claimed = new HashSet<>();
+            List<NotificationDeduplicator.Key> keys = new ArrayList<>(pushOnly.keySet());
+            for (NotificationDeduplicator.Key key : notificationDeduplicator.claimAll(keys)) {
+                claimed.add(pushOnly.get(key));
+            }
+            return new Ingested(inserted, claimed);
+        });
+
+        // Pushes of redelivered events were already sent with the first delivery. Only new events
+        // take a rate limit token, over the limit the push goes into the digest
+        List<PushMessage> pushes = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            Notification notification = candidate.notification();
+            if (fromEventId(candidate.event(), notification) && !ingested.isNew(notification.getId())) {
+                continue;
+            }
+            if (pushRateLimiter.tryAcquire(notification.getUserId(), notification.getType(), notification.getTitle())) {
+                pushes.add(toPush(candidate.event(), notification, candidate.stored()));
+            }
+        }
+
+        log.info("Ingested {} notification events: {} stored, {} pushes, {} skipped",
+                events.size(), ingested.inserted().size(), pushes.size(), events.size() - valid.size());
+        return pushes;
+    }
+
+    private Set<UUID> insert(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return Set.of();
+        }
+
+        List<Object[]> rows = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            Timestamp createdAt = Timestamp.valueOf(notification.getCreatedAt());
+            rows.add(new Object[]{
+                    notification.getId(), notification.getUserId(), notification.getTitle(), notification.getBody(),
+                    notification.getType().name(), notification.getStatus().name(), notification.getData(),
+                    notification.getActionUrl(), Timestamp.valueOf(notification.getSentAt()), createdAt, createdAt
+            });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        Set<UUID> inserted = new LinkedHashSet<>();
+        Map<UUID, Long> unreadByUser = new HashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            // The driver may not report per-row counts for rewritten batches
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                Notification notification = notifications.get(i);
+                inserted.add(notification.getId());
+                unreadByUser.merge(notification.getUserId(), 1L, Long::sum);
+                notificationStatsCache.created(notification.getUserId(), notification.getStatus(),
+                        notification.getType(), notification.getCreatedAt());
+                realtimeNotifier.notificationCreated(notification.getUserId(),
+                        notificationMapper.toResponse(notification), 1);
+            }
+        }
+        unreadByUser.forEach(unreadCounters::increment);
+        return inserted;
+    }
+
+    private Notification toNotification(NotificationEvent event) {
+        LocalDateTime createdAt = event.getTimestamp();
+        return Notification.builder()
+                .id(notificationId(event))
+                .userId(event.getUserId())
+                .title(event.getTitle())
+                .body(event.getBody())
+                .type(notificationType(event.getNotificationType()))
+                .status(NotificationStatus.UNREAD)
+                .data(serialize(event.getData()))
+                .actionUrl(event.getActionUrl())
+                .sentAt(createdAt)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    private PushMessage toPush(NotificationEvent event, Notification notification, boolean stored) {
+        Map<String, String> data = new HashMap<>();
+        if (event.getData() != null) {
+            data.putAll(event.getData());
+        }
+        data.put("type", notification.getType().name());
+        data.put("actionUrl", notification.getActionUrl() != null ? notification.getActionUrl() : "");
+        if (stored) {
+            data.put("notificationId", notification.getId().toString());
+        }
+        return new PushMessage(PushLane.of(notification.getType()), event.getUserId(),
+                event.getTitle(), event.getBody(), data);
+    }
+
+    /**
+     * Whether the notification id is the event's own, only then is a redelivery recognisable
+     */
+    private static boolean fromEventId(NotificationEvent event, Notification notification) {
+        return notification.getId().toString().equalsIgnoreCase(event.getEventId());
+    }
+
+    private UUID notificationId(NotificationEvent event) {
+        if (event.getEventId() != null) {
+            try {
+                return UUID.fromString(event.getEventId());
+            } catch (IllegalArgumentException e) {
+                log.debug("Event id {} is not a UUID, generating a notification id", event.getEventId());
+            }
+        }
+        return UUID.randomUUID();
+    }
+
+    private NotificationType notificationType(String name) {
+        if (name != null) {
+            try {
+                return NotificationType.valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                log.debug("Unknown notification type {}, using INFO", name);
+            }
+        }
+        return NotificationType.INFO;
+    }
+
+    private String serialize(Map<String, String> data) {
+        if (data == null || data.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize notification data", e);
+            return null;
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,7 +1,11 @@
 package com.lovedev.notification.mapper;
 
 import com.lovedev.notification.model.dto.response.NotificationResponse;
+import com.lovedev.notification.model.dto.response.ScheduledNotificationResponse;
+import com.lovedev.notification.model.entity.BroadcastNotification;
 import com.lovedev.notification.model.entity.Notification;
+import com.lovedev.notification.model.entity.ScheduledNotification;
+import com.lovedev.notification.repository.NotificationFeedRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.NullValuePropertyMappingStrategy;
@@ -20,4 +24,13 @@ public interface NotificationMapper {
     NotificationResponse toResponse(Notification notification);
 
     List<NotificationResponse> toResponseList(List<Notification> notifications);
+
+    @Mapping(target = "isBroadcast", source = "broadcast")
+    NotificationResponse toFeedResponse(NotificationFeedRow row);
+
+    @Mapping(target = "isBroadcast", constant = "true")
+    @Mapping(target = "sentAt", source = "createdAt")
+    NotificationResponse toBroadcastResponse(BroadcastNotification broadcast);
+
+    ScheduledNotificationResponse toScheduledResponse(ScheduledNotification scheduled);
 }
\ No newline at end of file
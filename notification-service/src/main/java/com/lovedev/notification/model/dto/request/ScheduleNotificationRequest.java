@@ -0,0 +1,35 @@
+package com.lovedev.notification.model.dto.request;
+
+import com.lovedev.notification.model.enums.NotificationType;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class ScheduleNotificationRequest {
+
+    /**
+     * Recipient, without one the notification is broadcast to all users
+     */
+    private UUID userId;
+
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    @NotBlank(message = "Body is required")
+    private String body;
+
+    private NotificationType type = NotificationType.INFO;
+
+    private String data;
+
+    private String actionUrl;
+
+    @NotNull(message = "Send time is required")
+    @Future(message = "Send time must be in the future")
+    private LocalDateTime sendAt;
+}
@@ -3,6 +3,7 @@ package com.lovedev.notification.model.dto.request;
 import com.lovedev.notification.model.enums.NotificationType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.util.UUID;
@@ -24,4 +25,15 @@ public class SendNotificationRequest {
     private String data;
 
     private String actionUrl;
+
+    /**
+     * Optional idempotency key, a repeated request with the same key for the same user is dropped
+     */
+    @Size(max = 128, message = "Dedup key must be at most 128 characters")
+    private String dedupKey;
+
+    /**
+     * With a dedup key, replace the pending notification of that key instead of dropping the request
+     */
+    private boolean collapse;
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.lovedev.notification.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lovedev.notification.model.enums.FanoutJobStatus;
+import com.lovedev.notification.model.enums.NotificationType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Bulk notification fan-out job status")
+public class FanoutJobResponse {
+
+    @Schema(description = "Job ID")
+    private UUID id;
+
+    @Schema(description = "Notification title", example = "Scheduled maintenance")
+    private String title;
+
+    @Schema(description = "Notification type", example = "INFO")
+    private NotificationType type;
+
+    @Schema(description = "Broadcast notification shown in users' feeds")
+    private UUID broadcastId;
+
+    @Schema(description = "Job status", example = "RUNNING")
+    private FanoutJobStatus status;
+
+    @Schema(description = "Number of shards", example = "16")
+    private Integer shardCount;
+
+    @Schema(description = "Number of finished shards", example = "9")
+    private Long completedShards;
+
+    @Schema(description = "Tokens processed so far", example = "120000")
+    private Long processedTokens;
+
+    @Schema(description = "Tokens FCM accepted", example = "118500")
+    private Long successCount;
+
+    @Schema(description = "Tokens FCM rejected", example = "1500")
+    private Long failureCount;
+
+    @Schema(description = "Invalid tokens deactivated", example = "900")
+    private Long deactivatedCount;
+
+    @Schema(description = "Users with at least one token pushed to", example = "80000")
+    private Long notifiedUsers;
+
+    @Schema(description = "Average throughput since the job started, in tokens per second", example = "2400.5")
+    private Double tokensPerSecond;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    private LocalDateTime createdAt;
+}
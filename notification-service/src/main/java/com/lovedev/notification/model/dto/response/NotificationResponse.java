@@ -67,4 +67,7 @@ public class NotificationResponse {
 
     @Schema(description = "Is notification unread", example = "true")
     private Boolean isUnread;
+
+    @Schema(description = "Is system-wide broadcast", example = "false")
+    private Boolean isBroadcast;
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package com.lovedev.notification.model.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lovedev.notification.model.enums.NotificationStatus;
+import com.lovedev.notification.model.enums.NotificationType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -27,6 +32,18 @@ public class NotificationStatsResponse {
     @Schema(description = "Archived notifications count", example = "5")
     private Long archivedCount;
 
+    @Schema(description = "Sent push-only notifications count", example = "0")
+    private Long sentCount;
+
     @Schema(description = "Has unread notifications", example = "true")
     private Boolean hasUnread;
+
+    @Schema(description = "Notification counts by status")
+    private Map<NotificationStatus, Long> byStatus;
+
+    @Schema(description = "Notification counts by type")
+    private Map<NotificationType, Long> byType;
+
+    @Schema(description = "Notifications created per day over the last 7 days, oldest first")
+    private Map<LocalDate, Long> dailyActivity;
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.lovedev.notification.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lovedev.notification.model.enums.NotificationType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Notification waiting for its send time")
+public class ScheduledNotificationResponse {
+
+    @Schema(description = "Scheduled notification ID")
+    private UUID id;
+
+    @Schema(description = "Recipient, absent for broadcasts to all users")
+    private UUID userId;
+
+    @Schema(description = "Notification title", example = "Flash sale starts now")
+    private String title;
+
+    @Schema(description = "Notification body")
+    private String body;
+
+    @Schema(description = "Notification type", example = "PROMOTION")
+    private NotificationType type;
+
+    @Schema(description = "When the notification is sent")
+    private LocalDateTime sendAt;
+
+    private UUID createdBy;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,102 @@
+package com.lovedev.notification.model.entity;
+
+import com.lovedev.notification.model.enums.FanoutJobStatus;
+import com.lovedev.notification.model.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Bulk notification fan-out job, progress is aggregated from its shards
+ */
+@Entity
+@Table(name = "fanout_jobs", indexes = {
+        @Index(name = "idx_fanout_job_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FanoutJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private NotificationType type = NotificationType.INFO;
+
+    @Column(name = "data", columnDefinition = "TEXT")
+    private String data;
+
+    @Column(name = "action_url")
+    private String actionUrl;
+
+    @Column(name = "broadcast_id")
+    private UUID broadcastId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private FanoutJobStatus status = FanoutJobStatus.PENDING;
+
+    @Column(name = "shard_count", nullable = false)
+    private Integer shardCount;
+
+    @Column(name = "processed_tokens", nullable = false)
+    @Builder.Default
+    private Long processedTokens = 0L;
+
+    @Column(name = "success_count", nullable = false)
+    @Builder.Default
+    private Long successCount = 0L;
+
+    @Column(name = "failure_count", nullable = false)
+    @Builder.Default
+    private Long failureCount = 0L;
+
+    @Column(name = "deactivated_count", nullable = false)
+    @Builder.Default
+    private Long deactivatedCount = 0L;
+
+    @Column(name = "notified_users", nullable = false)
+    @Builder.Default
+    private Long notifiedUsers = 0L;
+
+    @Column(name = "created_by")
+    private UUID createdBy;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,77 @@
+package com.lovedev.notification.model.entity;
+
+import com.lovedev.notification.model.enums.FanoutJobStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One user_id range of a fan-out job with its keyset checkpoint
+ *
+ * The shard covers tokens with user_id in [lowerUserId, upperUserId]. The cursor is the
+ * (user_id, id) of the last token sent, and the owner/heartbeat pair is the lease that
+ * keeps two workers from running the same shard.
+ */
+@Entity
+@Table(name = "fanout_shards", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_fanout_shard", columnNames = {"job_id", "shard_index"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FanoutShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "job_id", nullable = false)
+    private UUID jobId;
+
+    @Column(name = "shard_index", nullable = false)
+    private Integer shardIndex;
+
+    @Column(name = "lower_user_id", nullable = false)
+    private UUID lowerUserId;
+
+    @Column(name = "upper_user_id", nullable = false)
+    private UUID upperUserId;
+
+    @Column(name = "cursor_user_id", nullable = false)
+    private UUID cursorUserId;
+
+    @Column(name = "cursor_token_id", nullable = false)
+    private UUID cursorTokenId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private FanoutJobStatus status = FanoutJobStatus.PENDING;
+
+    @Column(name = "processed_tokens", nullable = false)
+    @Builder.Default
+    private Long processedTokens = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,72 @@
+package com.lovedev.notification.model.entity;
+
+import com.lovedev.notification.model.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Notification waiting for its send time, deleted when released
+ */
+@Entity
+@Table(name = "scheduled_notifications", indexes = {
+        @Index(name = "idx_scheduled_send_at", columnList = "send_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduledNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "user_id")
+    private UUID userId;  // Null broadcasts to all users
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private NotificationType type = NotificationType.INFO;
+
+    @Column(name = "data", columnDefinition = "TEXT")
+    private String data;
+
+    @Column(name = "action_url")
+    private String actionUrl;
+
+    @Column(name = "send_at", nullable = false)
+    private LocalDateTime sendAt;
+
+    @Column(name = "due_minute", nullable = false)
+    private LocalDateTime dueMinute;
+
+    @Column(name = "loaded_by")
+    private UUID loadedBy;
+
+    @Column(name = "loaded_at")
+    private LocalDateTime loadedAt;
+
+    @Column(name = "created_by")
+    private UUID createdBy;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        dueMinute = sendAt.truncatedTo(ChronoUnit.MINUTES);
+    }
+}
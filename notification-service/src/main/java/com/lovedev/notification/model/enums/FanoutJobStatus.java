@@ -0,0 +1,8 @@
+package com.lovedev.notification.model.enums;
+
+public enum FanoutJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,168 @@
+package com.lovedev.notification.partition;
+
+import com.lovedev.common.web.util.AdvisoryLocks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Daily partitions of the notifications table
+ *
+ * Maintenance creates the partitions for the next {@code app.notification-partitions.premake-days}
+ * days and detaches and drops every partition that lies entirely before the retention cutoff, so
+ * expiring a day of notifications is a metadata change instead of a large DELETE. Detach and drop
+ * run with a short lock timeout; a partition that cannot get its lock is retried on the next run.
+ * Only one replica runs maintenance at a time, guarded by a session advisory lock.
+ */
+@Component
+@Slf4j
+public class NotificationPartitionManager {
+
+    private static final String PARENT_TABLE = "notifications";
+    private static final String DEFAULT_PARTITION = "notifications_default";
+    private static final String PARTITION_PREFIX = "notifications_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String LOCK_NAME = "notification-partition-maintenance";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+    private final int premakeDays;
+    private final long lockTimeoutMs;
+
+    public NotificationPartitionManager(DataSource dataSource,
+                                        JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${app.notification-partitions.retention-days:30}") int retentionDays,
+                                        @Value("${app.notification-partitions.premake-days:7}") int premakeDays,
+                                        @Value("${app.notification-partitions.lock-timeout-ms:2000}") long lockTimeoutMs) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionDays = Math.max(1, retentionDays);
+        this.premakeDays = Math.max(1, premakeDays);
+        this.lockTimeoutMs = Math.max(1, lockTimeoutMs);
+    }
+
+    /**
+     * Oldest creation time still kept, inbox queries use it as lower bound so older partitions are pruned
+     */
+    public LocalDateTime retentionCutoff() {
+        return LocalDate.now().minusDays(retentionDays).atStartOfDay();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Create upcoming partitions and drop expired ones
+     */
+    @Scheduled(cron = "${app.notification-partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        try {
+            if (!AdvisoryLocks.runExclusive(dataSource, LOCK_NAME, this::runMaintenance)) {
+                log.info("Notification partition maintenance is running on another instance, skipping");
+            }
+        } catch (SQLException e) {
+            log.error("Notification partition maintenance could not acquire its lock", e);
+        }
+    }
+
+    private void runMaintenance() {
+        try {
+            createUpcomingPartitions();
+            dropExpiredPartitions();
+        } catch (DataAccessException e) {
+            log.error("Notification partition maintenance failed", e);
+        }
+    }
+
+    private void createUpcomingPartitions() {
+        LocalDate today = LocalDate.now();
+        int created = 0;
+        for (LocalDate day = today.minusDays(1); !day.isAfter(today.plusDays(premakeDays)); day = day.plusDays(1)) {
+            String name = partitionName(day);
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        name, PARENT_TABLE, day, day.plusDays(1)));
+                created++;
+            } catch (DataAccessException e) {
+                // Fails when the default partition already holds rows of that day
+                log.error("Could not create notification partition {}", name, e);
+            }
+        }
+        log.debug("Ensured {} notification partitions up to {}", created, today.plusDays(premakeDays));
+    }
+
+    private void dropExpiredPartitions() {
+        LocalDate cutoff = retentionCutoff().toLocalDate();
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ?
+                ORDER BY c.relname
+                """, String.class, PARENT_TABLE);
+
+        int dropped = 0;
+        for (String name : partitions) {
+            LocalDate day = partitionDay(name);
+            // A partition holds [day, day + 1), drop it only once all of it is past the cutoff
+            if (day == null || day.plusDays(1).isAfter(cutoff)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeoutMs + "ms'");
+                    jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name);
+                    jdbcTemplate.execute("DROP TABLE " + name);
+                });
+                dropped++;
+            } catch (DataAccessException e) {
+                log.warn("Could not drop notification partition {}, retrying on the next run", name, e);
+            }
+        }
+
+        // Stragglers outside every partition expire the ordinary way, the default partition stays small
+        int strays = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE created_at < ?",
+                Timestamp.valueOf(cutoff.atStartOfDay()));
+        log.info("Dropped {} notification partitions before {}, removed {} rows from the default partition",
+                dropped, cutoff, strays);
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+
+    private static LocalDate partitionDay(String name) {
+        if (!name.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.lovedev.notification.realtime;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.lovedev.common.messaging.event.BaseEvent;
+import com.lovedev.notification.model.dto.response.NotificationResponse;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Push event for connected clients, shared between replicas over Kafka
+ *
+ * userId is the recipient, null means every connected user.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@JsonTypeName(RealtimeEvent.EVENT_TYPE)
+public class RealtimeEvent extends BaseEvent {
+
+    public static final String EVENT_TYPE = "NOTIFICATION_REALTIME";
+
+    public enum Kind {
+        /** A new notification, with the unread delta it causes */
+        NOTIFICATION,
+        /** Unread count moved by unreadDelta */
+        UNREAD_DELTA,
+        /** Unread count is now unreadCount */
+        UNREAD_COUNT
+    }
+
+    private Kind kind;
+
+    private NotificationResponse notification;
+
+    private Long unreadDelta;
+
+    private Long unreadCount;
+
+    /**
+     * Replica that produced the event, it has already delivered it locally
+     */
+    private String origin;
+}
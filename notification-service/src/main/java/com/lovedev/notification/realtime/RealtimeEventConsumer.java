@@ -0,0 +1,35 @@
+package com.lovedev.notification.realtime;
+
+import com.lovedev.common.messaging.constant.KafkaTopics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Receives realtime events from all replicas
+ *
+ * Every replica joins with its own consumer group so each one sees every event,
+ * starting from the latest offset since only live connections matter.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.realtime.kafka", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class RealtimeEventConsumer {
+
+    private final RealtimeNotifier realtimeNotifier;
+
+    @KafkaListener(
+            topics = KafkaTopics.NOTIFICATION_REALTIME,
+            groupId = "notification-realtime-${random.uuid}",
+            containerFactory = "realtimeKafkaListenerContainerFactory"
+    )
+    public void onEvent(RealtimeEvent event) {
+        if (event == null || event.getKind() == null) {
+            return;
+        }
+        realtimeNotifier.deliverRemote(event);
+    }
+}
@@ -0,0 +1,109 @@
+package com.lovedev.notification.realtime;
+
+import com.lovedev.common.messaging.constant.KafkaTopics;
+import com.lovedev.common.messaging.publisher.EventPublisher;
+import com.lovedev.common.web.util.TransactionUtils;
+import com.lovedev.notification.model.dto.response.NotificationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pushes notification and unread-count changes to connected clients
+ *
+ * Events are sent after the surrounding transaction commits: first to the streams open on
+ * this replica, then to Kafka so the other replicas reach their own subscribers.
+ */
+@Component
+@Slf4j
+public class RealtimeNotifier {
+
+    private static final String SOURCE = "notification-service";
+
+    private final SseSubscriptionRegistry sseSubscriptionRegistry;
+    private final ObjectProvider<EventPublisher> eventPublisher;
+    private final boolean kafkaEnabled;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public RealtimeNotifier(SseSubscriptionRegistry sseSubscriptionRegistry,
+                            ObjectProvider<EventPublisher> eventPublisher,
+                            @Value("${app.realtime.kafka.enabled:true}") boolean kafkaEnabled) {
+        this.sseSubscriptionRegistry = sseSubscriptionRegistry;
+        this.eventPublisher = eventPublisher;
+        this.kafkaEnabled = kafkaEnabled;
+    }
+
+    /**
+     * A personal notification was created, unreadDelta is 1 when it is unread
+     */
+    public void notificationCreated(UUID userId, NotificationResponse notification, long unreadDelta) {
+        publish(event(userId, RealtimeEvent.Kind.NOTIFICATION)
+                .notification(notification)
+                .unreadDelta(unreadDelta)
+                .build());
+    }
+
+    /**
+     * A broadcast was created, it reaches every connected user as unread
+     */
+    public void broadcastCreated(NotificationResponse notification) {
+        publish(event(null, RealtimeEvent.Kind.NOTIFICATION)
+                .notification(notification)
+                .unreadDelta(1L)
+                .build());
+    }
+
+    public void unreadChanged(UUID userId, long delta) {
+        publish(event(userId, RealtimeEvent.Kind.UNREAD_DELTA)
+                .unreadDelta(delta)
+                .build());
+    }
+
+    public void unreadCountChanged(UUID userId, long count) {
+        publish(event(userId, RealtimeEvent.Kind.UNREAD_COUNT)
+                .unreadCount(count)
+                .build());
+    }
+
+    /**
+     * Deliver an event received from another replica
+     */
+    void deliverRemote(RealtimeEvent event) {
+        if (!instanceId.equals(event.getOrigin())) {
+            sseSubscriptionRegistry.deliver(event);
+        }
+    }
+
+    private RealtimeEvent.RealtimeEventBuilder<?, ?> event(UUID userId, RealtimeEvent.Kind kind) {
+        return RealtimeEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(RealtimeEvent.EVENT_TYPE)
+                .timestamp(LocalDateTime.now())
+                .source(SOURCE)
+                .version("1.0")
+                .userId(userId)
+                .kind(kind)
+                .origin(instanceId);
+    }
+
+    private void publish(RealtimeEvent event) {
+        TransactionUtils.afterCommit(() -> dispatch(event));
+    }
+
+    private void dispatch(RealtimeEvent event) {
+        sseSubscriptionRegistry.deliver(event);
+
+        EventPublisher publisher = kafkaEnabled ? eventPublisher.getIfAvailable() : null;
+        if (publisher != null) {
+            try {
+                publisher.publishAsync(KafkaTopics.NOTIFICATION_REALTIME, event);
+            } catch (Exception e) {
+                log.warn("Failed to publish realtime event {} to other replicas", event.getEventId(), e);
+            }
+        }
+    }
+}
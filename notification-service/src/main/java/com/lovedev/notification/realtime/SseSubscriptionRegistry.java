@@ -0,0 +1,224 @@
+package com.lovedev.notification.realtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open SSE connections of this replica, keyed by user
+ *
+ * Emitters run on async servlet requests, so an idle connection holds no request thread.
+ * Writes never happen on the caller's thread: every stream has a small queue of pending events
+ * drained in order by a bounded pool of {@code app.realtime.send-workers}, so one slow client
+ * cannot stall a broadcast or the transaction commit that triggered it. Events for a stream whose
+ * queue is full are dropped. A heartbeat comment keeps proxies from closing idle streams and finds
+ * dead connections; a failed write removes the emitter.
+ */
+@Component
+@Slf4j
+public class SseSubscriptionRegistry {
+
+    private final class Stream implements Runnable {
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        // Set while a drain task is queued or running, keeps the stream's writes in order
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Stream(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(emitterQueueSize);
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            if (!pending.offer(event)) {
+                dropped.increment();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this);
+            } catch (RejectedExecutionException e) {
+                dropped.increment(pending.size());
+                pending.clear();
+                draining.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            SseEmitter.SseEventBuilder event;
+            while ((event = pending.poll()) != null) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    pending.clear();
+                    remove(userId, emitter);
+                    break;
+                }
+            }
+            draining.set(false);
+            // An event queued after the last poll but before the flag was cleared
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private final Map<UUID, List<Stream>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final long emitterTimeoutMs;
+    private final int maxConnectionsPerUser;
+    private final int emitterQueueSize;
+    private final ThreadPoolExecutor sender;
+    private final Counter dropped;
+
+    public SseSubscriptionRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${app.realtime.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${app.realtime.max-connections-per-user:5}") int maxConnectionsPerUser,
+            @Value("${app.realtime.send-workers:4}") int sendWorkers,
+            @Value("${app.realtime.send-queue-size:10000}") int sendQueueSize,
+            @Value("${app.realtime.emitter-queue-size:64}") int emitterQueueSize) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.emitterQueueSize = Math.max(1, emitterQueueSize);
+        AtomicInteger threads = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(Math.max(1, sendWorkers), Math.max(1, sendWorkers),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, sendQueueSize)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-sse-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.dropped = meterRegistry.counter("lovedev.realtime.events.dropped");
+        meterRegistry.gauge("lovedev.realtime.connections", connections);
+        meterRegistry.gauge("lovedev.realtime.send.queue.size", sender, executor -> executor.getQueue().size());
+    }
+
+    /**
+     * Open a stream for a user, the oldest stream is closed when the user is over the limit
+     */
+    public SseEmitter subscribe(UUID userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Stream stream = new Stream(userId, emitter);
+        List<Stream> streams = subscriptions.compute(userId, (id, current) -> {
+            List<Stream> list = current != null ? current : new CopyOnWriteArrayList<>();
+            list.add(stream);
+            return list;
+        });
+        connections.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        if (streams.size() > maxConnectionsPerUser) {
+            streams.stream().findFirst().ifPresent(oldest -> oldest.emitter.complete());
+        }
+
+        log.debug("SSE stream opened for user {}, {} open on this replica", userId, connections.get());
+        return emitter;
+    }
+
+    /**
+     * Queue an event for the recipient's streams, or for every stream when userId is null
+     */
+    public void deliver(RealtimeEvent event) {
+        if (event.getUserId() == null) {
+            subscriptions.values().forEach(streams -> enqueue(streams, event));
+        } else {
+            List<Stream> streams = subscriptions.get(event.getUserId());
+            if (streams != null) {
+                enqueue(streams, event);
+            }
+        }
+    }
+
+    /**
+     * Queue a single event for one stream, used for the initial state of a new subscription
+     */
+    public void send(UUID userId, SseEmitter emitter, String name, Object data) {
+        List<Stream> streams = subscriptions.get(userId);
+        if (streams == null) {
+            return;
+        }
+        for (Stream stream : streams) {
+            if (stream.emitter == emitter) {
+                stream.enqueue(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.realtime.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscriptions.values().forEach(streams -> {
+            for (Stream stream : streams) {
+                stream.enqueue(SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    private void enqueue(List<Stream> streams, RealtimeEvent event) {
+        String name = switch (event.getKind()) {
+            case NOTIFICATION -> "notification";
+            case UNREAD_DELTA -> "unread-delta";
+            case UNREAD_COUNT -> "unread-count";
+        };
+        Object data = switch (event.getKind()) {
+            case NOTIFICATION -> event.getNotification();
+            case UNREAD_DELTA -> event.getUnreadDelta();
+            case UNREAD_COUNT -> event.getUnreadCount();
+        };
+
+        for (Stream stream : streams) {
+            stream.enqueue(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            if (event.getKind() == RealtimeEvent.Kind.NOTIFICATION
+                    && event.getUnreadDelta() != null && event.getUnreadDelta() != 0) {
+                stream.enqueue(SseEmitter.event().name("unread-delta")
+                        .data(event.getUnreadDelta(), MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    private void remove(UUID userId, SseEmitter emitter) {
+        subscriptions.computeIfPresent(userId, (id, streams) -> {
+            if (streams.removeIf(stream -> stream.emitter == emitter)) {
+                connections.decrementAndGet();
+            }
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+    }
+}
@@ -0,0 +1,128 @@
+package com.lovedev.notification.repository;
+
+import com.lovedev.notification.model.entity.BroadcastNotification;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, UUID> {
+
+    /**
+     * Personal notifications of a user merged with the broadcasts they have not deleted,
+     * :since bounds the personal part to the partitions inside the retention window
+     */
+    String FEED_SQL = """
+            SELECT n.id, n.title, n.body, n.type, n.status, n.action_url, n.read_at, n.sent_at, n.created_at,
+                   false AS broadcast
+            FROM notifications n
+            WHERE n.user_id = :userId AND n.created_at >= :since
+            UNION ALL
+            SELECT b.id, b.title, b.body, b.type,
+                   CASE WHEN r.read_at IS NOT NULL OR b.created_at <= w.read_through THEN 'READ' ELSE 'UNREAD' END,
+                   b.action_url,
+                   COALESCE(r.read_at, CASE WHEN b.created_at <= w.read_through THEN w.read_through END),
+                   b.created_at, b.created_at,
+                   true
+            FROM broadcast_notifications b
+            LEFT JOIN broadcast_receipts r ON r.broadcast_id = b.id AND r.user_id = :userId
+            LEFT JOIN broadcast_watermarks w ON w.user_id = :userId
+            WHERE r.deleted_at IS NULL
+              AND (w.cleared_through IS NULL OR b.created_at > w.cleared_through)
+            """;
+
+    String FEED_COLUMNS = """
+            SELECT feed.id AS id, feed.title AS title, feed.body AS body, feed.type AS type, feed.status AS status,
+                   feed.action_url AS actionUrl, feed.read_at AS readAt, feed.sent_at AS sentAt,
+                   feed.created_at AS createdAt, feed.broadcast AS broadcast
+            """;
+
+    @Query(value = FEED_COLUMNS + "FROM (" + FEED_SQL + ") feed ORDER BY feed.created_at DESC",
+            countQuery = "SELECT COUNT(*) FROM (" + FEED_SQL + ") feed",
+            nativeQuery = true)
+    Page<NotificationFeedRow> findFeed(@Param("userId") UUID userId,
+                                       @Param("since") LocalDateTime since,
+                                       Pageable pageable);
+
+    @Query(value = FEED_COLUMNS + "FROM (" + FEED_SQL + ") feed WHERE feed.status = :status ORDER BY feed.created_at DESC",
+            countQuery = "SELECT COUNT(*) FROM (" + FEED_SQL + ") feed WHERE feed.status = :status",
+            nativeQuery = true)
+    Page<NotificationFeedRow> findFeedByStatus(@Param("userId") UUID userId,
+                                               @Param("status") String status,
+                                               @Param("since") LocalDateTime since,
+                                               Pageable pageable);
+
+    @Query(value = """
+            SELECT COUNT(*)
+            FROM broadcast_notifications b
+            LEFT JOIN broadcast_receipts r ON r.broadcast_id = b.id AND r.user_id = :userId
+            LEFT JOIN broadcast_watermarks w ON w.user_id = :userId
+            WHERE r.deleted_at IS NULL
+              AND r.read_at IS NULL
+              AND (w.read_through IS NULL OR b.created_at > w.read_through)
+              AND (w.cleared_through IS NULL OR b.created_at > w.cleared_through)
+            """, nativeQuery = true)
+    long countUnread(@Param("userId") UUID userId);
+
+    @Query(value = """
+            SELECT NOT EXISTS (
+                       SELECT 1 FROM broadcast_receipts r
+                       WHERE r.broadcast_id = :broadcastId AND r.user_id = :userId
+                         AND (r.read_at IS NOT NULL OR r.deleted_at IS NOT NULL))
+                   AND NOT EXISTS (
+                       SELECT 1 FROM broadcast_notifications b
+                       JOIN broadcast_watermarks w ON w.user_id = :userId
+                       WHERE b.id = :broadcastId
+                         AND (b.created_at <= w.read_through OR b.created_at <= w.cleared_through))
+            """, nativeQuery = true)
+    boolean isUnread(@Param("broadcastId") UUID broadcastId, @Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO broadcast_receipts (broadcast_id, user_id, read_at)
+            VALUES (:broadcastId, :userId, :readAt)
+            ON CONFLICT (broadcast_id, user_id)
+            DO UPDATE SET read_at = COALESCE(broadcast_receipts.read_at, EXCLUDED.read_at)
+            """, nativeQuery = true)
+    void markRead(@Param("broadcastId") UUID broadcastId,
+                  @Param("userId") UUID userId,
+                  @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO broadcast_receipts (broadcast_id, user_id, deleted_at)
+            VALUES (:broadcastId, :userId, :deletedAt)
+            ON CONFLICT (broadcast_id, user_id)
+            DO UPDATE SET deleted_at = EXCLUDED.deleted_at
+            """, nativeQuery = true)
+    void markDeleted(@Param("broadcastId") UUID broadcastId,
+                     @Param("userId") UUID userId,
+                     @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO broadcast_watermarks (user_id, read_through)
+            VALUES (:userId, :readThrough)
+            ON CONFLICT (user_id) DO UPDATE SET read_through = EXCLUDED.read_through
+            """, nativeQuery = true)
+    void markAllRead(@Param("userId") UUID userId, @Param("readThrough") LocalDateTime readThrough);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO broadcast_watermarks (user_id, cleared_through)
+            VALUES (:userId, :clearedThrough)
+            ON CONFLICT (user_id) DO UPDATE SET cleared_through = EXCLUDED.cleared_through
+            """, nativeQuery = true)
+    void clearAll(@Param("userId") UUID userId, @Param("clearedThrough") LocalDateTime clearedThrough);
+
+    @Modifying
+    @Query("DELETE FROM BroadcastNotification b WHERE b.createdAt < :expiryDate")
+    void deleteExpiredBroadcasts(@Param("expiryDate") LocalDateTime expiryDate);
+}
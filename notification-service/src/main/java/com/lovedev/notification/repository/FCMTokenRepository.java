@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,10 +26,58 @@ public interface FCMTokenRepository extends JpaRepository<FCMToken, UUID> {
     @Query("SELECT f FROM FCMToken f WHERE f.active = true")
     List<FCMToken> findAllActiveTokens();
 
+    /**
+     * Next page of push-enabled tokens after the (user_id, id) cursor, up to an inclusive user_id bound
+     */
+    @Query(value = """
+            SELECT f.id AS id, f.user_id AS userId, f.token AS token
+            FROM fcm_tokens f
+            LEFT JOIN notification_settings s ON s.user_id = f.user_id
+            WHERE f.active = true
+              AND COALESCE(s.push_enabled, true) = true
+              AND (f.user_id, f.id) > (:cursorUserId, :cursorTokenId)
+              AND f.user_id <= :upperUserId
+            ORDER BY f.user_id, f.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<FanoutTokenRow> findFanoutPage(@Param("cursorUserId") UUID cursorUserId,
+                                        @Param("cursorTokenId") UUID cursorTokenId,
+                                        @Param("upperUserId") UUID upperUserId,
+                                        @Param("limit") int limit);
+
+    /**
+     * Register a token or move it to the given user in one statement. An active token already owned
+     * by the user is only touched when it was last seen before touchBefore, so app launches do not
+     * write a row each time. Returns the number of rows written.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO fcm_tokens (id, user_id, token, device_type, device_id, active, created_at, updated_at)
+            VALUES (gen_random_uuid(), :userId, :token, :deviceType, :deviceId, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            ON CONFLICT (token) DO UPDATE
+            SET user_id = EXCLUDED.user_id,
+                device_type = COALESCE(EXCLUDED.device_type, fcm_tokens.device_type),
+                device_id = COALESCE(EXCLUDED.device_id, fcm_tokens.device_id),
+                active = true,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE fcm_tokens.active = false
+               OR fcm_tokens.user_id <> EXCLUDED.user_id
+               OR fcm_tokens.updated_at < :touchBefore
+            """, nativeQuery = true)
+    int upsertToken(@Param("userId") UUID userId,
+                    @Param("token") String token,
+                    @Param("deviceType") String deviceType,
+                    @Param("deviceId") String deviceId,
+                    @Param("touchBefore") LocalDateTime touchBefore);
+
     @Modifying
     @Query("UPDATE FCMToken f SET f.active = false WHERE f.token = :token")
     void deactivateToken(@Param("token") String token);
 
+    @Modifying
+    @Query("UPDATE FCMToken f SET f.active = false WHERE f.token IN :tokens")
+    int deactivateTokens(@Param("tokens") Collection<String> tokens);
+
     @Modifying
     @Query("UPDATE FCMToken f SET f.active = false WHERE f.userId = :userId")
     void deactivateAllUserTokens(@Param("userId") UUID userId);
@@ -0,0 +1,51 @@
+package com.lovedev.notification.repository;
+
+import com.lovedev.notification.model.entity.FanoutJob;
+import com.lovedev.notification.model.enums.FanoutJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface FanoutJobRepository extends JpaRepository<FanoutJob, UUID> {
+
+    @Modifying
+    @Query("UPDATE FanoutJob j SET j.status = :running, j.startedAt = :now " +
+            "WHERE j.id = :jobId AND j.status = :pending")
+    int markRunning(@Param("jobId") UUID jobId,
+                    @Param("pending") FanoutJobStatus pending,
+                    @Param("running") FanoutJobStatus running,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE FanoutJob j SET j.processedTokens = j.processedTokens + :processed, " +
+            "j.successCount = j.successCount + :success, j.failureCount = j.failureCount + :failure, " +
+            "j.deactivatedCount = j.deactivatedCount + :deactivated, j.notifiedUsers = j.notifiedUsers + :users " +
+            "WHERE j.id = :jobId")
+    void addProgress(@Param("jobId") UUID jobId,
+                     @Param("processed") long processed,
+                     @Param("success") long success,
+                     @Param("failure") long failure,
+                     @Param("deactivated") long deactivated,
+                     @Param("users") long users);
+
+    @Modifying
+    @Query("UPDATE FanoutJob j SET j.status = :completed, j.completedAt = :now " +
+            "WHERE j.id = :jobId AND j.status = :running AND NOT EXISTS " +
+            "(SELECT s FROM FanoutShard s WHERE s.jobId = :jobId AND s.status <> :completed)")
+    int completeIfDone(@Param("jobId") UUID jobId,
+                       @Param("running") FanoutJobStatus running,
+                       @Param("completed") FanoutJobStatus completed,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE FanoutJob j SET j.status = :failed, j.completedAt = :now WHERE j.id = :jobId")
+    void markFailed(@Param("jobId") UUID jobId,
+                    @Param("failed") FanoutJobStatus failed,
+                    @Param("now") LocalDateTime now);
+}
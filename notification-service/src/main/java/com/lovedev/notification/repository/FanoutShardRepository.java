@@ -0,0 +1,58 @@
+package com.lovedev.notification.repository;
+
+import com.lovedev.notification.model.entity.FanoutShard;
+import com.lovedev.notification.model.enums.FanoutJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface FanoutShardRepository extends JpaRepository<FanoutShard, UUID> {
+
+    long countByJobIdAndStatus(UUID jobId, FanoutJobStatus status);
+
+    /**
+     * Open shards that nobody holds, or whose holder stopped heart-beating
+     */
+    @Query("SELECT s FROM FanoutShard s WHERE s.status IN :statuses " +
+            "AND (s.owner IS NULL OR s.heartbeatAt < :staleBefore) ORDER BY s.jobId, s.shardIndex")
+    List<FanoutShard> findClaimable(@Param("statuses") Collection<FanoutJobStatus> statuses,
+                                    @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE FanoutShard s SET s.owner = :owner, s.heartbeatAt = :now, s.status = :running, " +
+            "s.attempts = s.attempts + 1 " +
+            "WHERE s.id = :shardId AND s.status IN :statuses " +
+            "AND (s.owner IS NULL OR s.heartbeatAt < :staleBefore)")
+    int claim(@Param("shardId") UUID shardId,
+              @Param("owner") String owner,
+              @Param("statuses") Collection<FanoutJobStatus> statuses,
+              @Param("running") FanoutJobStatus running,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE FanoutShard s SET s.cursorUserId = :cursorUserId, s.cursorTokenId = :cursorTokenId, " +
+            "s.processedTokens = s.processedTokens + :processed, s.heartbeatAt = :now " +
+            "WHERE s.id = :shardId AND s.owner = :owner")
+    int checkpoint(@Param("shardId") UUID shardId,
+                   @Param("owner") String owner,
+                   @Param("cursorUserId") UUID cursorUserId,
+                   @Param("cursorTokenId") UUID cursorTokenId,
+                   @Param("processed") long processed,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE FanoutShard s SET s.status = :status, s.owner = NULL, s.heartbeatAt = NULL " +
+            "WHERE s.id = :shardId AND s.owner = :owner")
+    int release(@Param("shardId") UUID shardId,
+                @Param("owner") String owner,
+                @Param("status") FanoutJobStatus status);
+}
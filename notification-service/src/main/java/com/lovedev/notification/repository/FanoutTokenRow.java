@@ -0,0 +1,15 @@
+package com.lovedev.notification.repository;
+
+import java.util.UUID;
+
+/**
+ * Slim token row read by the fan-out keyset scan
+ */
+public interface FanoutTokenRow {
+
+    UUID getId();
+
+    UUID getUserId();
+
+    String getToken();
+}
@@ -0,0 +1,33 @@
+package com.lovedev.notification.repository;
+
+import com.lovedev.notification.model.enums.NotificationStatus;
+import com.lovedev.notification.model.enums.NotificationType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of a user's feed, either a personal notification or a broadcast
+ */
+public interface NotificationFeedRow {
+
+    UUID getId();
+
+    String getTitle();
+
+    String getBody();
+
+    NotificationType getType();
+
+    NotificationStatus getStatus();
+
+    String getActionUrl();
+
+    LocalDateTime getReadAt();
+
+    LocalDateTime getSentAt();
+
+    LocalDateTime getCreatedAt();
+
+    Boolean getBroadcast();
+}
@@ -14,26 +14,48 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Inbox queries take the retention cutoff as lower bound on createdAt so the planner only
+ * touches partitions inside the retention window, see NotificationPartitionManager
+ */
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
 
-    Page<Notification> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.createdAt >= :since ORDER BY n.createdAt DESC")
+    Page<Notification> findByUserIdOrderByCreatedAtDesc(@Param("userId") UUID userId,
+                                                        @Param("since") LocalDateTime since,
+                                                        Pageable pageable);
 
-    Page<Notification> findByUserIdAndStatusOrderByCreatedAtDesc(UUID userId, NotificationStatus status, Pageable pageable);
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.status = :status AND n.createdAt >= :since ORDER BY n.createdAt DESC")
+    Page<Notification> findByUserIdAndStatusOrderByCreatedAtDesc(@Param("userId") UUID userId,
+                                                                 @Param("status") NotificationStatus status,
+                                                                 @Param("since") LocalDateTime since,
+                                                                 Pageable pageable);
 
-    @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId AND n.status = :status")
-    Long countByUserIdAndStatus(@Param("userId") UUID userId, @Param("status") NotificationStatus status);
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId AND n.status = :status AND n.createdAt >= :since")
+    Long countByUserIdAndStatus(@Param("userId") UUID userId,
+                                @Param("status") NotificationStatus status,
+                                @Param("since") LocalDateTime since);
 
-    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.status = 'UNREAD' ORDER BY n.createdAt DESC")
-    List<Notification> findUnreadByUserId(@Param("userId") UUID userId);
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.status = 'UNREAD' AND n.createdAt >= :since ORDER BY n.createdAt DESC")
+    List<Notification> findUnreadByUserId(@Param("userId") UUID userId, @Param("since") LocalDateTime since);
 
     @Modifying
-    @Query("UPDATE Notification n SET n.status = 'READ', n.readAt = :readAt WHERE n.userId = :userId AND n.status = 'UNREAD'")
-    void markAllAsReadByUserId(@Param("userId") UUID userId, @Param("readAt") LocalDateTime readAt);
-
-    @Modifying
-    @Query("DELETE FROM Notification n WHERE n.createdAt < :expiryDate")
-    void deleteExpiredNotifications(@Param("expiryDate") LocalDateTime expiryDate);
+    @Query("UPDATE Notification n SET n.status = 'READ', n.readAt = :readAt WHERE n.userId = :userId AND n.status = 'UNREAD' AND n.createdAt >= :since")
+    void markAllAsReadByUserId(@Param("userId") UUID userId,
+                               @Param("since") LocalDateTime since,
+                               @Param("readAt") LocalDateTime readAt);
+
+    /**
+     * Counts of a user's notifications by status, type and day in one pass over their partitions
+     */
+    @Query(value = """
+            SELECT n.status AS status, n.type AS type, CAST(n.created_at AS DATE) AS day, COUNT(*) AS total
+            FROM notifications n
+            WHERE n.user_id = :userId AND n.created_at >= :since
+            GROUP BY n.status, n.type, CAST(n.created_at AS DATE)
+            """, nativeQuery = true)
+    List<NotificationStatsRow> aggregateUserStats(@Param("userId") UUID userId, @Param("since") LocalDateTime since);
 
     @Modifying
     @Query("DELETE FROM Notification n WHERE n.userId = :userId")
@@ -4,6 +4,8 @@ import com.lovedev.notification.model.entity.NotificationSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,5 +14,7 @@ public interface NotificationSettingsRepository extends JpaRepository<Notificati
 
     Optional<NotificationSettings> findByUserId(UUID userId);
 
+    List<NotificationSettings> findByUserIdIn(Collection<UUID> userIds);
+
     boolean existsByUserId(UUID userId);
 }
\ No newline at end of file
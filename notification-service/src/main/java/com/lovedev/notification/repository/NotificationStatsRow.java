@@ -0,0 +1,20 @@
+package com.lovedev.notification.repository;
+
+import com.lovedev.notification.model.enums.NotificationStatus;
+import com.lovedev.notification.model.enums.NotificationType;
+
+import java.time.LocalDate;
+
+/**
+ * Notification count of one (status, type, day) group
+ */
+public interface NotificationStatsRow {
+
+    NotificationStatus getStatus();
+
+    NotificationType getType();
+
+    LocalDate getDay();
+
+    Long getTotal();
+}
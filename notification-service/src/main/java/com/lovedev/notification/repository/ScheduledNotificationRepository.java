@@ -0,0 +1,15 @@
+package com.lovedev.notification.repository;
+
+import com.lovedev.notification.model.entity.ScheduledNotification;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ScheduledNotificationRepository extends JpaRepository<ScheduledNotification, UUID> {
+
+    Page<ScheduledNotification> findAllByOrderBySendAtAsc(Pageable pageable);
+}
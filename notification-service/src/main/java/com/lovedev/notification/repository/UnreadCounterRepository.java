@@ -0,0 +1,60 @@
+package com.lovedev.notification.repository;
+
+import com.lovedev.notification.model.entity.UnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface UnreadCounterRepository extends JpaRepository<UnreadCounter, UUID> {
+
+    /**
+     * Count a user's unread notifications, used for users without a counter row yet
+     */
+    @Query(value = "SELECT COUNT(*) FROM notifications WHERE user_id = :userId AND status = 'UNREAD'",
+            nativeQuery = true)
+    long countUnread(@Param("userId") UUID userId);
+
+    /**
+     * Apply a delta; a user without a counter row gets one from a count, which already sees the
+     * caller's own change
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO notification_unread_counters (user_id, unread_count)
+            SELECT :userId, COUNT(*) FROM notifications WHERE user_id = :userId AND status = 'UNREAD'
+            ON CONFLICT (user_id) DO UPDATE
+            SET unread_count = GREATEST(notification_unread_counters.unread_count + :delta, 0),
+                updated_at = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int add(@Param("userId") UUID userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = """
+            UPDATE notification_unread_counters
+            SET unread_count = 0, updated_at = CURRENT_TIMESTAMP
+            WHERE user_id = :userId
+            """, nativeQuery = true)
+    int reset(@Param("userId") UUID userId);
+
+    /**
+     * Rewrite every counter that drifted from the real unread count
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE notification_unread_counters c
+            SET unread_count = actual.unread_count, updated_at = CURRENT_TIMESTAMP
+            FROM (
+                SELECT u.user_id, COUNT(n.id) AS unread_count
+                FROM notification_unread_counters u
+                LEFT JOIN notifications n ON n.user_id = u.user_id AND n.status = 'UNREAD'
+                GROUP BY u.user_id
+            ) actual
+            WHERE c.user_id = actual.user_id AND c.unread_count <> actual.unread_count
+            """, nativeQuery = true)
+    int reconcile();
+}
@@ -0,0 +1,81 @@
+package com.lovedev.notification.scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hashed timing wheel of scheduled notification ids
+ *
+ * Time is cut into ticks of {@code tickMs}; an id goes into the slot of its due tick modulo the
+ * wheel size, so adding is O(1) and each tick only looks at one slot. Ids due more than one
+ * revolution ahead stay in their slot until the wheel comes round to their tick. Ids already due
+ * go into the current slot and come out on the next advance.
+ */
+final class HashedTimingWheel {
+
+    private record Entry(UUID id, long deadlineTick) {
+    }
+
+    private final long startMs;
+    private final long tickMs;
+    private final int mask;
+    private final List<Entry>[] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(long tickMs, int slotCount, long startMs) {
+        this.startMs = startMs;
+        this.tickMs = Math.max(1, tickMs);
+        // Power of two so the slot is a mask instead of a modulo
+        int capacity = Integer.highestOneBit(Math.max(2, slotCount - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new List[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new ArrayList<>();
+        }
+    }
+
+    synchronized void add(UUID id, long dueAtMs) {
+        long tick = Math.max(currentTick, Math.floorDiv(dueAtMs - startMs, tickMs));
+        slots[(int) (tick & mask)].add(new Entry(id, tick));
+        size++;
+    }
+
+    /**
+     * Wall-clock time at which the next tick not yet advanced over starts
+     */
+    synchronized long nextTickAt() {
+        return startMs + currentTick * tickMs;
+    }
+
+    /**
+     * Move the wheel up to nowMs and take out every id whose tick has passed
+     */
+    synchronized List<UUID> advance(long nowMs) {
+        long target = Math.floorDiv(nowMs - startMs, tickMs);
+        List<UUID> due = new ArrayList<>();
+        while (currentTick <= target) {
+            List<Entry> slot = slots[(int) (currentTick & mask)];
+            if (!slot.isEmpty()) {
+                List<Entry> remaining = new ArrayList<>();
+                for (Entry entry : slot) {
+                    if (entry.deadlineTick() <= currentTick) {
+                        due.add(entry.id());
+                    } else {
+                        remaining.add(entry);
+                    }
+                }
+                slots[(int) (currentTick & mask)] = remaining;
+            }
+            currentTick++;
+        }
+        size -= due.size();
+        return due;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
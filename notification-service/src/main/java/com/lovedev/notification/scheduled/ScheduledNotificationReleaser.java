@@ -0,0 +1,299 @@
+package com.lovedev.notification.scheduled;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.common.messaging.event.NotificationEvent;
+import com.lovedev.notification.fcm.PushDispatcher;
+import com.lovedev.notification.fcm.PushMessage;
+import com.lovedev.notification.ingest.NotificationIngestor;
+import com.lovedev.notification.model.dto.request.SendBulkNotificationRequest;
+import com.lovedev.notification.model.enums.NotificationType;
+import com.lovedev.notification.service.FCMService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Releases scheduled notifications at their send time
+ *
+ * Pending rows sit in scheduled_notifications bucketed by minute. Every
+ * {@code app.scheduled-notifications.load-interval-ms} this replica claims the unclaimed rows of the
+ * buckets starting within {@code lookahead-ms} and keeps only their id and due time in a
+ * {@link HashedTimingWheel}; replicas share buckets through SKIP LOCKED. One thread advances the
+ * wheel per tick and releases due ids in batches: the rows are deleted and their notifications
+ * stored through the {@link NotificationIngestor} in one transaction, the pushes go to the
+ * {@link PushDispatcher} after commit. A broadcast's row and fan-out job are created in the same
+ * transaction, so a released broadcast is never lost between the delete and its job; the job's
+ * shards start after commit.
+ *
+ * Claims are handed back on shutdown; claims of a replica that died are handed back once they are
+ * older than {@code stale-claim-ms}.
+ */
+@Component
+@Slf4j
+public class ScheduledNotificationReleaser {
+
+    private static final String CLAIM_SQL = """
+            UPDATE scheduled_notifications SET loaded_by = ?, loaded_at = ?
+            WHERE id IN (
+                SELECT id FROM scheduled_notifications
+                WHERE loaded_by IS NULL AND due_minute < ?
+                ORDER BY due_minute
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, send_at
+            """;
+
+    private static final String RELEASE_SQL = """
+            DELETE FROM scheduled_notifications
+            WHERE id = ANY(?) AND loaded_by = ?
+            RETURNING id, user_id, title, body, type, data, action_url, send_at, created_by
+            """;
+
+    private record Due(UUID id, LocalDateTime sendAt) {
+    }
+
+    private record Released(UUID id, UUID userId, String title, String body, String type, String data,
+                            String actionUrl, LocalDateTime sendAt, UUID createdBy) {
+    }
+
+    private record Batch(List<PushMessage> pushes, int broadcasts) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationIngestor notificationIngestor;
+    private final PushDispatcher pushDispatcher;
+    private final FCMService fcmService;
+    private final ObjectMapper objectMapper;
+    private final long lookaheadMs;
+    private final long staleClaimMs;
+    private final int loadBatchSize;
+    private final int releaseBatchSize;
+    private final int maxLoaded;
+
+    // Claims made by this process, rows it still holds are handed back on shutdown
+    private final UUID instanceId = UUID.randomUUID();
+    private final HashedTimingWheel wheel;
+    private final Thread ticker;
+    private volatile boolean stopping;
+
+    public ScheduledNotificationReleaser(JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         NotificationIngestor notificationIngestor,
+                                         PushDispatcher pushDispatcher,
+                                         FCMService fcmService,
+                                         ObjectMapper objectMapper,
+                                         @Value("${app.scheduled-notifications.tick-ms:1000}") long tickMs,
+                                         @Value("${app.scheduled-notifications.wheel-size:512}") int wheelSize,
+                                         @Value("${app.scheduled-notifications.lookahead-ms:120000}") long lookaheadMs,
+                                         @Value("${app.scheduled-notifications.stale-claim-ms:600000}") long staleClaimMs,
+                                         @Value("${app.scheduled-notifications.load-batch-size:5000}") int loadBatchSize,
+                                         @Value("${app.scheduled-notifications.release-batch-size:500}") int releaseBatchSize,
+                                         @Value("${app.scheduled-notifications.max-loaded:1000000}") int maxLoaded) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationIngestor = notificationIngestor;
+        this.pushDispatcher = pushDispatcher;
+        this.fcmService = fcmService;
+        this.objectMapper = objectMapper;
+        this.lookaheadMs = lookaheadMs;
+        this.staleClaimMs = staleClaimMs;
+        this.loadBatchSize = Math.max(1, loadBatchSize);
+        this.releaseBatchSize = Math.max(1, releaseBatchSize);
+        this.maxLoaded = maxLoaded;
+        this.wheel = new HashedTimingWheel(tickMs, wheelSize, System.currentTimeMillis());
+        this.ticker = new Thread(this::tick, "notification-scheduled-wheel");
+        this.ticker.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ticker.start();
+    }
+
+    /**
+     * Claim the upcoming minute buckets into the wheel
+     */
+    @Scheduled(fixedDelayString = "${app.scheduled-notifications.load-interval-ms:10000}")
+    public void load() {
+        if (stopping) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int recovered = jdbcTemplate.update("""
+                    UPDATE scheduled_notifications SET loaded_by = NULL, loaded_at = NULL
+                    WHERE loaded_by IS NOT NULL AND loaded_at < ?
+                    """, Timestamp.valueOf(now.minus(staleClaimMs, ChronoUnit.MILLIS)));
+            if (recovered > 0) {
+                log.warn("Handed back {} scheduled notifications claimed by a stopped instance", recovered);
+            }
+
+            Timestamp horizon = Timestamp.valueOf(now.plus(lookaheadMs, ChronoUnit.MILLIS));
+            int loaded = 0;
+            int room = maxLoaded - wheel.size();
+            while (room > 0) {
+                List<Due> claimed = jdbcTemplate.query(CLAIM_SQL,
+                        (rs, rowNum) -> new Due(rs.getObject("id", UUID.class),
+                                rs.getTimestamp("send_at").toLocalDateTime()),
+                        instanceId, Timestamp.valueOf(now), horizon, Math.min(loadBatchSize, room));
+                for (Due due : claimed) {
+                    wheel.add(due.id(), toEpochMilli(due.sendAt()));
+                }
+                loaded += claimed.size();
+                room -= claimed.size();
+                if (claimed.size() < loadBatchSize) {
+                    break;
+                }
+            }
+            if (loaded > 0) {
+                log.debug("Loaded {} scheduled notifications, {} in the wheel", loaded, wheel.size());
+            }
+        } catch (DataAccessException e) {
+            log.error("Could not load scheduled notifications", e);
+        }
+    }
+
+    private void tick() {
+        while (!stopping) {
+            long wait = wheel.nextTickAt() - System.currentTimeMillis();
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            List<UUID> due = wheel.advance(System.currentTimeMillis());
+            for (int start = 0; start < due.size() && !stopping; start += releaseBatchSize) {
+                release(due.subList(start, Math.min(start + releaseBatchSize, due.size())));
+            }
+        }
+    }
+
+    private void release(List<UUID> ids) {
+        Batch batch;
+        try {
+            batch = transactionTemplate.execute(status -> {
+                List<Released> rows = jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(RELEASE_SQL);
+                    ps.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+                    ps.setObject(2, instanceId);
+                    return ps;
+                }, (rs, rowNum) -> new Released(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("user_id", UUID.class),
+                        rs.getString("title"),
+                        rs.getString("body"),
+                        rs.getString("type"),
+                        rs.getString("data"),
+                        rs.getString("action_url"),
+                        rs.getTimestamp("send_at").toLocalDateTime(),
+                        rs.getObject("created_by", UUID.class)));
+
+                List<NotificationEvent> events = new ArrayList<>();
+                int broadcasts = 0;
+                for (Released row : rows) {
+                    if (row.userId() == null) {
+                        fcmService.sendBulkNotification(toBulkRequest(row), row.createdBy());
+                        broadcasts++;
+                    } else {
+                        events.add(toEvent(row));
+                    }
+                }
+                return new Batch(notificationIngestor.ingest(events), broadcasts);
+            });
+        } catch (RuntimeException e) {
+            // The rows stay claimed and are released again once the claim goes stale
+            log.error("Could not release {} scheduled notifications", ids.size(), e);
+            return;
+        }
+        if (batch == null) {
+            return;
+        }
+
+        pushDispatcher.dispatchAll(batch.pushes());
+        log.info("Released {} scheduled notifications: {} pushes, {} broadcasts",
+                ids.size(), batch.pushes().size(), batch.broadcasts());
+    }
+
+    private NotificationEvent toEvent(Released row) {
+        // The scheduled id becomes the notification id
+        return NotificationEvent.builder()
+                .eventId(row.id().toString())
+                .eventType(NotificationEvent.EVENT_TYPE)
+                .timestamp(row.sendAt())
+                .userId(row.userId())
+                .title(row.title())
+                .body(row.body())
+                .notificationType(row.type())
+                .actionUrl(row.actionUrl())
+                .data(parseData(row))
+                .build();
+    }
+
+    private SendBulkNotificationRequest toBulkRequest(Released row) {
+        SendBulkNotificationRequest request = new SendBulkNotificationRequest();
+        request.setTitle(row.title());
+        request.setBody(row.body());
+        request.setType(NotificationType.valueOf(row.type()));
+        request.setData(row.data());
+        request.setActionUrl(row.actionUrl());
+        return request;
+    }
+
+    private Map<String, String> parseData(Released row) {
+        if (row.data() == null || row.data().isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(row.data(), new TypeReference<Map<String, String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            log.warn("Scheduled notification {} has data that is not a string map, sending without it", row.id());
+            return null;
+        }
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        ticker.interrupt();
+        try {
+            int handedBack = jdbcTemplate.update(
+                    "UPDATE scheduled_notifications SET loaded_by = NULL, loaded_at = NULL WHERE loaded_by = ?",
+                    instanceId);
+            if (handedBack > 0) {
+                log.info("Handed back {} scheduled notifications on shutdown", handedBack);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not hand back scheduled notifications, they are picked up once their claim goes stale", e);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.lovedev.notification.service;
 
+import com.lovedev.common.web.dto.PageResponse;
 import com.lovedev.notification.model.dto.request.FCMTokenRequest;
 import com.lovedev.notification.model.dto.request.NotificationSettingsRequest;
+import com.lovedev.notification.model.dto.request.ScheduleNotificationRequest;
 import com.lovedev.notification.model.dto.request.SendBulkNotificationRequest;
 import com.lovedev.notification.model.dto.request.SendNotificationRequest;
+import com.lovedev.notification.model.dto.response.FanoutJobResponse;
 import com.lovedev.notification.model.dto.response.NotificationSettingsResponse;
+import com.lovedev.notification.model.dto.response.NotificationStatsResponse;
+import com.lovedev.notification.model.dto.response.ScheduledNotificationResponse;
 
-import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service interface for Firebase Cloud Messaging (FCM) operations
@@ -34,9 +39,14 @@ public interface FCMService {
     NotificationSettingsResponse getNotificationSettings();
 
     /**
-     * Get notification statistics (unread, read, total counts)
+     * Get notification statistics of the current user: counts by status and type and the last 7 days of activity
      */
-    Map<String, Long> getNotificationStats();
+    NotificationStatsResponse getNotificationStats();
+
+    /**
+     * Get notification statistics over all users, built from daily rollups
+     */
+    NotificationStatsResponse getGlobalNotificationStats();
 
     /**
      * Update user notification settings
@@ -44,14 +54,39 @@ public interface FCMService {
     NotificationSettingsResponse updateNotificationSettings(NotificationSettingsRequest request);
 
     /**
-     * Send notification to specific user
+     * Send notification to specific user, the push is queued and sent asynchronously
      */
     void sendNotification(SendNotificationRequest request);
 
     /**
-     * Send bulk notification to all users
+     * Start a fan-out job sending a notification to all users
+     */
+    FanoutJobResponse sendBulkNotification(SendBulkNotificationRequest request);
+
+    /**
+     * Start a fan-out job on behalf of the given user, for callers without a request context
+     */
+    FanoutJobResponse sendBulkNotification(SendBulkNotificationRequest request, UUID createdBy);
+
+    /**
+     * Get progress and throughput of a bulk notification job
+     */
+    FanoutJobResponse getBulkNotificationStatus(UUID jobId);
+
+    /**
+     * Schedule a notification to one user, or to all users without a user id
+     */
+    ScheduledNotificationResponse scheduleNotification(ScheduleNotificationRequest request);
+
+    /**
+     * Get pending scheduled notifications, soonest first
+     */
+    PageResponse<ScheduledNotificationResponse> getScheduledNotifications(int page, int size);
+
+    /**
+     * Cancel a scheduled notification that was not sent yet
      */
-    void sendBulkNotification(SendBulkNotificationRequest request);
+    void cancelScheduledNotification(UUID id);
 
     /**
      * Cleanup old FCM tokens (scheduled task)
@@ -59,7 +94,7 @@ public interface FCMService {
     void cleanupOldTokens();
 
     /**
-     * Cleanup old notifications (scheduled task)
+     * Cleanup expired broadcast notifications (scheduled task), personal ones expire with their partition
      */
     void cleanupOldNotifications();
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.lovedev.notification.service;
 
 import com.lovedev.notification.model.dto.response.NotificationResponse;
 import com.lovedev.common.web.dto.PageResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -44,4 +45,9 @@ public interface NotificationService {
      * Get unread notification count
      */
     Long getUnreadCount();
+
+    /**
+     * Open a server-sent event stream of notifications and unread-count changes for current user
+     */
+    SseEmitter subscribe();
 }
\ No newline at end of file
@@ -1,33 +1,63 @@
 package com.lovedev.notification.service.impl;
 
-import com.google.firebase.messaging.*;
+import com.lovedev.common.web.dto.PageResponse;
+import com.lovedev.common.web.util.PaginationUtils;
+import com.lovedev.common.web.util.TransactionUtils;
 import com.lovedev.notification.client.UserServiceClient;
+import com.lovedev.notification.dedup.NotificationDeduplicator;
+import com.lovedev.notification.dispatch.PushLane;
+import com.lovedev.notification.dispatch.PushRateLimiter;
+import com.lovedev.notification.fanout.FanoutEngine;
+import com.lovedev.notification.fcm.FCMTokenRegistry;
+import com.lovedev.notification.fcm.PushDispatcher;
+import com.lovedev.notification.fcm.PushMessage;
 import com.lovedev.common.web.exception.ResourceNotFoundException;
+import com.lovedev.notification.mapper.NotificationMapper;
 import com.lovedev.notification.model.dto.request.FCMTokenRequest;
 import com.lovedev.notification.model.dto.request.NotificationSettingsRequest;
+import com.lovedev.notification.model.dto.request.ScheduleNotificationRequest;
 import com.lovedev.notification.model.dto.request.SendBulkNotificationRequest;
 import com.lovedev.notification.model.dto.request.SendNotificationRequest;
+import com.lovedev.notification.model.dto.response.FanoutJobResponse;
+import com.lovedev.notification.model.dto.response.NotificationStatsResponse;
+import com.lovedev.notification.model.dto.response.ScheduledNotificationResponse;
 import com.lovedev.notification.model.dto.response.NotificationSettingsResponse;
-import com.lovedev.notification.model.entity.FCMToken;
+import com.lovedev.notification.model.entity.BroadcastNotification;
+import com.lovedev.notification.model.entity.FanoutJob;
 import com.lovedev.notification.model.entity.Notification;
 import com.lovedev.notification.model.entity.NotificationSettings;
+import com.lovedev.notification.model.entity.ScheduledNotification;
+import com.lovedev.notification.model.enums.FanoutJobStatus;
 import com.lovedev.notification.model.enums.NotificationStatus;
+import com.lovedev.notification.model.enums.NotificationType;
+import com.lovedev.notification.partition.NotificationPartitionManager;
+import com.lovedev.notification.repository.BroadcastNotificationRepository;
 import com.lovedev.notification.repository.FCMTokenRepository;
+import com.lovedev.notification.repository.FanoutJobRepository;
+import com.lovedev.notification.repository.FanoutShardRepository;
 import com.lovedev.notification.repository.NotificationRepository;
+import com.lovedev.notification.realtime.RealtimeNotifier;
 import com.lovedev.notification.repository.NotificationSettingsRepository;
+import com.lovedev.notification.repository.ScheduledNotificationRepository;
 import com.lovedev.notification.service.FCMService;
+import com.lovedev.notification.settings.NotificationSettingsResolver;
+import com.lovedev.notification.stats.NotificationRollups;
+import com.lovedev.notification.stats.NotificationStatsCache;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -38,6 +68,21 @@ public class FCMServiceImpl implements FCMService {
     private final NotificationRepository notificationRepository;
     private final NotificationSettingsRepository notificationSettingsRepository;
     private final UserServiceClient userServiceClient;
+    private final FCMTokenRegistry fcmTokenRegistry;
+    private final PushDispatcher pushDispatcher;
+    private final FanoutEngine fanoutEngine;
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final RealtimeNotifier realtimeNotifier;
+    private final NotificationSettingsResolver notificationSettingsResolver;
+    private final FanoutJobRepository fanoutJobRepository;
+    private final FanoutShardRepository fanoutShardRepository;
+    private final NotificationPartitionManager notificationPartitionManager;
+    private final NotificationStatsCache notificationStatsCache;
+    private final NotificationRollups notificationRollups;
+    private final NotificationDeduplicator notificationDeduplicator;
+    private final ScheduledNotificationRepository scheduledNotificationRepository;
+    private final PushRateLimiter pushRateLimiter;
 
     private UUID getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -55,31 +100,24 @@ public class FCMServiceImpl implements FCMService {
     public void registerFCMToken(FCMTokenRequest request) {
         UUID userId = getCurrentUserId();
 
-        Optional<FCMToken> existingToken = fcmTokenRepository.findByTokenAndActiveTrue(request.getFcmToken());
-
-        if (existingToken.isPresent()) {
-            FCMToken token = existingToken.get();
-            token.setUpdatedAt(LocalDateTime.now());
-            fcmTokenRepository.save(token);
-            log.info("FCM token updated for user: {}", userId);
+        // Refreshing updatedAt once a day keeps the token clear of cleanupOldTokens
+        int written = fcmTokenRepository.upsertToken(userId, request.getFcmToken(),
+                request.getDeviceType(), request.getDeviceId(), LocalDateTime.now().minusDays(1));
+        if (written == 0) {
+            log.debug("FCM token already registered for user: {}", userId);
             return;
         }
 
-        FCMToken fcmToken = FCMToken.builder()
-                .userId(userId)
-                .token(request.getFcmToken())
-                .deviceType(request.getDeviceType())
-                .deviceId(request.getDeviceId())
-                .active(true)
-                .build();
-
-        fcmTokenRepository.save(fcmToken);
+        // The token may have moved from another user
+        fcmTokenRegistry.invalidateTokens(List.of(request.getFcmToken()));
+        fcmTokenRegistry.invalidate(userId);
         log.info("FCM token registered for user: {}", userId);
     }
 
     @Transactional
     public void removeFCMToken(String token) {
         fcmTokenRepository.deactivateToken(token);
+        fcmTokenRegistry.invalidateTokens(List.of(token));
         log.info("FCM token deactivated: {}", token);
     }
 
@@ -87,6 +125,7 @@ public class FCMServiceImpl implements FCMService {
     public void removeAllUserFCMTokens() {
         UUID userId = getCurrentUserId();
         fcmTokenRepository.deactivateAllUserTokens(userId);
+        fcmTokenRegistry.invalidate(userId);
         log.info("All FCM tokens deactivated for user: {}", userId);
     }
 
@@ -109,21 +148,13 @@ public class FCMServiceImpl implements FCMService {
     }
 
     @Transactional(readOnly = true)
-    public Map<String, Long> getNotificationStats() {
-    //    UUID userId = SecurityHelper.getCurrentUserId();
-     //   User user = userRepository.findById(userId)
-       //         .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-    //    Long unreadCount = notificationRepository.countByUserAndStatus(user, NotificationStatus.UNREAD);
-    //    Long readCount = notificationRepository.countByUserAndStatus(user, NotificationStatus.READ);
-  //      Long totalCount = unreadCount + readCount;
-
-        Map<String, Long> stats = new HashMap<>();
-      //  stats.put("unread", unreadCount);
-    //    stats.put("read", readCount);
-  //      stats.put("total", totalCount);
+    public NotificationStatsResponse getNotificationStats() {
+        return notificationStatsCache.get(getCurrentUserId());
+    }
 
-        return stats;
+    @Transactional(readOnly = true)
+    public NotificationStatsResponse getGlobalNotificationStats() {
+        return notificationRollups.globalStats();
     }
 
     @Transactional
@@ -146,6 +177,7 @@ public class FCMServiceImpl implements FCMService {
         }
 
         settings = notificationSettingsRepository.save(settings);
+        notificationSettingsResolver.evict(userId);
         log.info("Notification settings updated for user: {}", userId);
 
         return NotificationSettingsResponse.builder()
@@ -160,145 +192,243 @@ public class FCMServiceImpl implements FCMService {
                 .build();
     }
 
+    /**
+     * Implicit defaults for users without a settings row, only persisted when the user updates them
+     */
     private NotificationSettings createDefaultSettings(UUID userId) {
-        NotificationSettings settings = NotificationSettings.builder()
+        return NotificationSettings.builder()
                 .userId(userId)
                 .pushEnabled(true)
                 .emailEnabled(true)
                 .inAppEnabled(true)
                 .marketingEnabled(false)
                 .build();
-        return notificationSettingsRepository.save(settings);
     }
 
-    @Async
+    /**
+     * Stores the notification and queues the push in the transactional, bulk or marketing lane
+     * of its type once the transaction commits; the lane's room is reserved up front, so a full
+     * lane fails the request with 503 and rolls the notification back.
+     * A repeated dedup key is dropped before anything is written or pushed, in collapse mode it
+     * replaces the key's notification while that is not read yet. Over the user's rate limit for
+     * the type the notification is still stored, only its push is folded into the user's next digest.
+     */
     @Transactional
+    @Timed(value = "lovedev.notification.send", description = "Notification store and push enqueue latency")
     public void sendNotification(SendNotificationRequest request) {
-        try {
-            UUID userId = getCurrentUserId();
+        UUID userId = request.getUserId();
+        String dedupKey = request.getDedupKey() != null && !request.getDedupKey().isBlank()
+                ? request.getDedupKey() : null;
 
-            NotificationSettings settings = notificationSettingsRepository.findByUserId(userId)
-                    .orElseGet(() -> createDefaultSettings(userId));
+        if (dedupKey != null && !request.isCollapse() && notificationDeduplicator.isRecent(userId, dedupKey)) {
+            log.info("Duplicate notification {} for user {} dropped", dedupKey, userId);
+            return;
+        }
 
-            if (!settings.getPushEnabled()) {
-                log.info("Push notifications disabled for user: {}", userId);
-                return;
-            }
+        if (!notificationSettingsResolver.resolve(userId).pushEnabled()) {
+            log.info("Push notifications disabled for user: {}", userId);
+            return;
+        }
 
-            List<FCMToken> tokens = fcmTokenRepository.findActiveTokensByUserId(userId);
-            if (tokens.isEmpty()) {
-                log.warn("No active FCM tokens found for user: {}", userId);
-                return;
-            }
+        if (fcmTokenRegistry.activeTokens(userId).isEmpty()) {
+            log.warn("No active FCM tokens found for user: {}", userId);
+            return;
+        }
 
-            Notification notification = Notification.builder()
-                    .userId(userId)
-                    .title(request.getTitle())
-                    .body(request.getBody())
-                    .type(request.getType())
-                    .status(NotificationStatus.SENT)
-                    .data(request.getData())
-                    .actionUrl(request.getActionUrl())
-                    .sentAt(LocalDateTime.now())
-                    .build();
-            notificationRepository.save(notification);
-
-            com.google.firebase.messaging.Notification fcmNotification = com.google.firebase.messaging.Notification.builder()
-                    .setTitle(request.getTitle())
-                    .setBody(request.getBody())
-                    .build();
-
-            for (FCMToken token : tokens) {
-                try {
-                    Message message = Message.builder()
-                            .setToken(token.getToken())
-                            .setNotification(fcmNotification)
-                            .putData("type", request.getType().toString())
-                            .putData("actionUrl", request.getActionUrl() != null ? request.getActionUrl() : "")
-                            .build();
-
-                    String response = FirebaseMessaging.getInstance().send(message);
-                    log.info("Successfully sent FCM message: {}", response);
-                } catch (FirebaseMessagingException e) {
-                    log.error("Error sending FCM message to token: {}", token.getToken(), e);
-                    if (e.getErrorCode().equals("invalid-registration-token") ||
-                            e.getErrorCode().equals("registration-token-not-registered")) {
-                        fcmTokenRepository.deactivateToken(token.getToken());
-                    }
+        if (dedupKey != null) {
+            NotificationDeduplicator.Claim claim = notificationDeduplicator.claim(userId, dedupKey);
+            if (!claim.claimed()) {
+                if (!request.isCollapse()) {
+                    log.info("Duplicate notification {} for user {} dropped", dedupKey, userId);
+                    return;
+                }
+                if (collapseInto(claim.notificationId(), request)) {
+                    return;
                 }
             }
-        } catch (Exception e) {
-            log.error("Error sending notification", e);
         }
+
+        Notification notification = Notification.builder()
+                .userId(userId)
+                .title(request.getTitle())
+                .body(request.getBody())
+                .type(request.getType())
+                .status(NotificationStatus.SENT)
+                .data(request.getData())
+                .actionUrl(request.getActionUrl())
+                .sentAt(LocalDateTime.now())
+                .build();
+        notification = notificationRepository.save(notification);
+        if (dedupKey != null) {
+            notificationDeduplicator.bind(userId, dedupKey, notification.getId(), notification.getCreatedAt());
+        }
+        notificationStatsCache.created(userId, notification.getStatus(), notification.getType(), notification.getCreatedAt());
+        realtimeNotifier.notificationCreated(userId, notificationMapper.toResponse(notification), 0);
+
+        if (!pushRateLimiter.tryAcquire(userId, request.getType(), request.getTitle())) {
+            log.debug("Push rate limit reached for user {}, folded into the digest", userId);
+            return;
+        }
+        // A rolled back request sent nothing, its token goes back to the user
+        TransactionUtils.afterRollback(() -> pushRateLimiter.refund(userId, request.getType()));
+
+        dispatchPush(request, request.isCollapse() ? dedupKey : null);
+        log.info("FCM notification queued for user: {}", userId);
+    }
+
+    /**
+     * Replace the pending notification of a collapse key in place
+     *
+     * @return false when there is nothing left to replace and a new notification must be created
+     */
+    private boolean collapseInto(UUID notificationId, SendNotificationRequest request) {
+        Notification notification = notificationId != null
+                ? notificationRepository.findById(notificationId).orElse(null) : null;
+        if (notification == null || notification.getStatus() == NotificationStatus.READ
+                || notification.getStatus() == NotificationStatus.ARCHIVED) {
+            return false;
+        }
+
+        UUID userId = notification.getUserId();
+        NotificationType previousType = notification.getType();
+        notification.setTitle(request.getTitle());
+        notification.setBody(request.getBody());
+        notification.setType(request.getType());
+        notification.setData(request.getData());
+        notification.setActionUrl(request.getActionUrl());
+        notification.setSentAt(LocalDateTime.now());
+        notification = notificationRepository.save(notification);
+
+        if (previousType != notification.getType()) {
+            notificationStatsCache.deleted(userId, notification.getStatus(), previousType, notification.getCreatedAt());
+            notificationStatsCache.created(userId, notification.getStatus(), notification.getType(), notification.getCreatedAt());
+        }
+        // Same id as before, clients replace the entry they already show
+        realtimeNotifier.notificationCreated(userId, notificationMapper.toResponse(notification), 0);
+
+        dispatchPush(request, request.getDedupKey());
+        log.info("Notification {} collapsed for user: {}", notificationId, userId);
+        return true;
+    }
+
+    private void dispatchPush(SendNotificationRequest request, String collapseKey) {
+        Map<String, String> data = Map.of(
+                "type", request.getType().toString(),
+                "actionUrl", request.getActionUrl() != null ? request.getActionUrl() : "");
+        pushDispatcher.dispatchAfterCommit(new PushMessage(PushLane.of(request.getType()), request.getUserId(),
+                request.getTitle(), request.getBody(), data, collapseKey));
     }
 
     // ============================================
     // Notification Statistics
     // ============================================
 
-    @Async
     @Transactional
-    public void sendBulkNotification(SendBulkNotificationRequest request) {
-        try {
-            List<FCMToken> allTokens = fcmTokenRepository.findAllActiveTokens();
-            if (allTokens.isEmpty()) {
-                log.warn("No active FCM tokens found for bulk notification");
-                return;
-            }
-
-            com.google.firebase.messaging.Notification fcmNotification = com.google.firebase.messaging.Notification.builder()
-                    .setTitle(request.getTitle())
-                    .setBody(request.getBody())
-                    .build();
+    public FanoutJobResponse sendBulkNotification(SendBulkNotificationRequest request) {
+        return sendBulkNotification(request, getCurrentUserId());
+    }
 
-            Map<UUID, List<FCMToken>> tokensByUser = allTokens.stream()
-                    .collect(Collectors.groupingBy(FCMToken::getUserId));
+    /**
+     * Creates the broadcast row and its fan-out job in one transaction, the job's shards start
+     * once it commits
+     */
+    @Transactional
+    public FanoutJobResponse sendBulkNotification(SendBulkNotificationRequest request, UUID createdBy) {
+        // One row for the in-app copy, users see it through the merged feed
+        BroadcastNotification broadcast = broadcastNotificationRepository.save(BroadcastNotification.builder()
+                .title(request.getTitle())
+                .body(request.getBody())
+                .type(request.getType())
+                .data(request.getData())
+                .actionUrl(request.getActionUrl())
+                .createdBy(createdBy)
+                .build());
+        realtimeNotifier.broadcastCreated(notificationMapper.toBroadcastResponse(broadcast));
+
+        FanoutJob job = fanoutEngine.submit(FanoutJob.builder()
+                .title(request.getTitle())
+                .body(request.getBody())
+                .type(request.getType())
+                .data(request.getData())
+                .actionUrl(request.getActionUrl())
+                .broadcastId(broadcast.getId())
+                .createdBy(createdBy)
+                .build());
+        return toFanoutJobResponse(job);
+    }
 
-            for (Map.Entry<UUID, List<FCMToken>> entry : tokensByUser.entrySet()) {
-                UUID userId = entry.getKey();
-                List<FCMToken> userTokens = entry.getValue();
+    @Transactional(readOnly = true)
+    public FanoutJobResponse getBulkNotificationStatus(UUID jobId) {
+        FanoutJob job = fanoutJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bulk notification job not found"));
+        return toFanoutJobResponse(job);
+    }
 
-                NotificationSettings settings = notificationSettingsRepository.findByUserId(userId)
-                        .orElseGet(() -> createDefaultSettings(userId));
+    /**
+     * Stores the notification for the scheduled releaser, which picks it up shortly before its send time
+     */
+    @Transactional
+    public ScheduledNotificationResponse scheduleNotification(ScheduleNotificationRequest request) {
+        ScheduledNotification scheduled = scheduledNotificationRepository.save(ScheduledNotification.builder()
+                .userId(request.getUserId())
+                .title(request.getTitle())
+                .body(request.getBody())
+                .type(request.getType())
+                .data(request.getData())
+                .actionUrl(request.getActionUrl())
+                .sendAt(request.getSendAt())
+                .createdBy(getCurrentUserId())
+                .build());
+        log.info("Notification {} scheduled for {}", scheduled.getId(), scheduled.getSendAt());
+        return notificationMapper.toScheduledResponse(scheduled);
+    }
 
-                if (!settings.getPushEnabled()) {
-                    continue;
-                }
+    @Transactional(readOnly = true)
+    public PageResponse<ScheduledNotificationResponse> getScheduledNotifications(int page, int size) {
+        Pageable pageable = PaginationUtils.createPageable(page, size);
+        Page<ScheduledNotification> scheduled = scheduledNotificationRepository.findAllByOrderBySendAtAsc(
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        return PageResponse.of(scheduled, notificationMapper::toScheduledResponse);
+    }
 
-                Notification notification = Notification.builder()
-                        .userId(userId)
-                        .title(request.getTitle())
-                        .body(request.getBody())
-                        .type(request.getType())
-                        .status(NotificationStatus.SENT)
-                        .sentAt(LocalDateTime.now())
-                        .build();
-                notificationRepository.save(notification);
-
-                for (FCMToken token : userTokens) {
-                    try {
-                        Message message = Message.builder()
-                                .setToken(token.getToken())
-                                .setNotification(fcmNotification)
-                                .putData("type", request.getType().toString())
-                                .build();
-
-                        String response = FirebaseMessaging.getInstance().send(message);
-                        log.debug("Sent bulk notification to token: {}", token.getToken());
-                    } catch (FirebaseMessagingException e) {
-                        log.error("Error sending bulk FCM message", e);
-                        if (e.getErrorCode().equals("invalid-registration-token") ||
-                                e.getErrorCode().equals("registration-token-not-registered")) {
-                            fcmTokenRepository.deactivateToken(token.getToken());
-                        }
-                    }
-                }
-            }
+    /**
+     * A notification already loaded for release is cancelled too, releasing only sends rows that still exist
+     */
+    @Transactional
+    public void cancelScheduledNotification(UUID id) {
+        if (!scheduledNotificationRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Scheduled notification not found");
+        }
+        scheduledNotificationRepository.deleteById(id);
+        log.info("Scheduled notification {} cancelled", id);
+    }
 
-            log.info("Bulk notification sent to {} users", tokensByUser.size());
-        } catch (Exception e) {
-            log.error("Error sending bulk notification", e);
+    private FanoutJobResponse toFanoutJobResponse(FanoutJob job) {
+        Double tokensPerSecond = null;
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getCompletedAt() != null ? job.getCompletedAt() : LocalDateTime.now();
+            double seconds = Math.max(Duration.between(job.getStartedAt(), end).toMillis(), 1L) / 1000.0;
+            tokensPerSecond = job.getProcessedTokens() / seconds;
         }
+
+        return FanoutJobResponse.builder()
+                .id(job.getId())
+                .title(job.getTitle())
+                .type(job.getType())
+                .broadcastId(job.getBroadcastId())
+                .status(job.getStatus())
+                .shardCount(job.getShardCount())
+                .completedShards(fanoutShardRepository.countByJobIdAndStatus(job.getId(), FanoutJobStatus.COMPLETED))
+                .processedTokens(job.getProcessedTokens())
+                .successCount(job.getSuccessCount())
+                .failureCount(job.getFailureCount())
+                .deactivatedCount(job.getDeactivatedCount())
+                .notifiedUsers(job.getNotifiedUsers())
+                .tokensPerSecond(tokensPerSecond)
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .createdAt(job.getCreatedAt())
+                .build();
     }
 
     @Scheduled(cron = "0 0 2 * * ?")
@@ -306,14 +436,16 @@ public class FCMServiceImpl implements FCMService {
     public void cleanupOldTokens() {
         LocalDateTime expiryDate = LocalDateTime.now().minusDays(90);
         fcmTokenRepository.deactivateOldTokens(expiryDate);
+        fcmTokenRegistry.invalidateAll();
         log.info("Cleaned up FCM tokens older than 90 days");
     }
 
     @Scheduled(cron = "0 0 3 * * ?")
     @Transactional
     public void cleanupOldNotifications() {
-        LocalDateTime expiryDate = LocalDateTime.now().minusDays(30);
-        notificationRepository.deleteExpiredNotifications(expiryDate);
-        log.info("Cleaned up notifications older than 30 days");
+        // Personal notifications expire by dropping whole partitions, see NotificationPartitionManager
+        LocalDateTime expiryDate = notificationPartitionManager.retentionCutoff();
+        broadcastNotificationRepository.deleteExpiredBroadcasts(expiryDate);
+        log.info("Cleaned up broadcast notifications older than {}", expiryDate);
     }
 }
\ No newline at end of file
@@ -3,14 +3,22 @@ package com.lovedev.notification.service.impl;
 import com.lovedev.common.web.util.PaginationUtils;
 import com.lovedev.notification.client.UserServiceClient;
 import com.lovedev.common.web.exception.ResourceNotFoundException;
+import com.lovedev.notification.counter.UnreadCounters;
 import com.lovedev.notification.mapper.NotificationMapper;
 import com.lovedev.notification.model.dto.response.NotificationResponse;
 import com.lovedev.common.web.dto.PageResponse;
+import com.lovedev.notification.model.entity.BroadcastNotification;
 import com.lovedev.notification.model.entity.Notification;
 import com.lovedev.notification.model.enums.NotificationStatus;
 import com.lovedev.notification.model.enums.NotificationType;
+import com.lovedev.notification.partition.NotificationPartitionManager;
+import com.lovedev.notification.realtime.RealtimeNotifier;
+import com.lovedev.notification.realtime.SseSubscriptionRegistry;
+import com.lovedev.notification.repository.BroadcastNotificationRepository;
+import com.lovedev.notification.repository.NotificationFeedRow;
 import com.lovedev.notification.repository.NotificationRepository;
 import com.lovedev.notification.service.NotificationService;
+import com.lovedev.notification.stats.NotificationStatsCache;
 import com.lovedev.common.security.util.SecurityHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,8 +29,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -31,8 +41,14 @@ import java.util.UUID;
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
     private final NotificationMapper notificationMapper;
+    private final UnreadCounters unreadCounters;
+    private final NotificationPartitionManager notificationPartitionManager;
+    private final RealtimeNotifier realtimeNotifier;
+    private final SseSubscriptionRegistry sseSubscriptionRegistry;
     private final UserServiceClient userServiceClient;
+    private final NotificationStatsCache notificationStatsCache;
 
     /**
      * Get current user ID from security context
@@ -54,14 +70,17 @@ public class NotificationServiceImpl implements NotificationService {
     public PageResponse<NotificationResponse> getUserNotifications(int page, int size, String status) {
         UUID userId = getCurrentUserId();
 
-        Pageable pageable = PaginationUtils.createPageable(page, size);
-        Page<Notification> notificationPage;
+        // The feed query orders by created_at itself, only offset and limit come from the pageable
+        Pageable validated = PaginationUtils.createPageable(page, size);
+        Pageable pageable = PageRequest.of(validated.getPageNumber(), validated.getPageSize());
+        LocalDateTime since = notificationPartitionManager.retentionCutoff();
+        Page<NotificationFeedRow> notificationPage;
 
         if (status != null && !status.isEmpty()) {
             NotificationStatus notificationStatus = NotificationStatus.valueOf(status.toUpperCase());
-            notificationPage = notificationRepository.findByUserIdAndStatusOrderByCreatedAtDesc(userId, notificationStatus, pageable);
+            notificationPage = broadcastNotificationRepository.findFeedByStatus(userId, notificationStatus.name(), since, pageable);
         } else {
-            notificationPage = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
+            notificationPage = broadcastNotificationRepository.findFeed(userId, since, pageable);
         }
 
      /*   List<NotificationResponse> responses = notificationMapper.toResponseList(notificationPage.getContent());
@@ -70,44 +89,92 @@ public class NotificationServiceImpl implements NotificationService {
                 .content(responses)
                 .build();*/
 
-        return PageResponse.of(notificationPage, notificationMapper::toResponse);
+        return PageResponse.of(notificationPage, notificationMapper::toFeedResponse);
     }
 
     @Transactional
     public NotificationResponse markAsRead(UUID notificationId) {
         UUID userId = getCurrentUserId();
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
+        Optional<Notification> personal = notificationRepository.findById(notificationId);
+        if (personal.isEmpty()) {
+            return markBroadcastAsRead(notificationId, userId);
+        }
+        Notification notification = personal.get();
 
         if (!notification.getUserId().equals(userId)) {
             throw new ResourceNotFoundException("You don't have permission to access this notification");
         }
 
+        if (notification.getStatus() == NotificationStatus.UNREAD) {
+            unreadCounters.decrement(userId);
+            realtimeNotifier.unreadChanged(userId, -1);
+        }
+        NotificationStatus previous = notification.getStatus();
         notification.markAsRead();
         notification = notificationRepository.save(notification);
+        notificationStatsCache.statusChanged(userId, notification.getType(), previous, notification.getStatus());
 
         log.info("Notification marked as read: {}", notificationId);
         return notificationMapper.toResponse(notification);
     }
 
+    private NotificationResponse markBroadcastAsRead(UUID broadcastId, UUID userId) {
+        BroadcastNotification broadcast = broadcastNotificationRepository.findById(broadcastId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
+
+        LocalDateTime readAt = LocalDateTime.now();
+        if (broadcastNotificationRepository.isUnread(broadcastId, userId)) {
+            realtimeNotifier.unreadChanged(userId, -1);
+        }
+        broadcastNotificationRepository.markRead(broadcastId, userId, readAt);
+
+        NotificationResponse response = notificationMapper.toBroadcastResponse(broadcast);
+        response.setStatus(NotificationStatus.READ);
+        response.setReadAt(readAt);
+        log.info("Broadcast {} marked as read for user: {}", broadcastId, userId);
+        return response;
+    }
+
     @Transactional
     public void markAllAsRead() {
         UUID userId = getCurrentUserId();
-        notificationRepository.markAllAsReadByUserId(userId, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        notificationRepository.markAllAsReadByUserId(userId, notificationPartitionManager.retentionCutoff(), now);
+        unreadCounters.reset(userId);
+        notificationStatsCache.invalidate(userId);
+        broadcastNotificationRepository.markAllRead(userId, now);
+        realtimeNotifier.unreadCountChanged(userId, 0);
         log.info("All notifications marked as read for user: {}", userId);
     }
 
     @Transactional
     public void deleteNotification(UUID notificationId) {
         UUID userId = getCurrentUserId();
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
+        Optional<Notification> personal = notificationRepository.findById(notificationId);
+        if (personal.isEmpty()) {
+            if (!broadcastNotificationRepository.existsById(notificationId)) {
+                throw new ResourceNotFoundException("Notification not found");
+            }
+            if (broadcastNotificationRepository.isUnread(notificationId, userId)) {
+                realtimeNotifier.unreadChanged(userId, -1);
+            }
+            broadcastNotificationRepository.markDeleted(notificationId, userId, LocalDateTime.now());
+            log.info("Broadcast {} deleted for user: {}", notificationId, userId);
+            return;
+        }
+        Notification notification = personal.get();
 
         if (!notification.getUserId().equals(userId)) {
             throw new ResourceNotFoundException("You don't have permission to delete this notification");
         }
 
+        if (notification.getStatus() == NotificationStatus.UNREAD) {
+            unreadCounters.decrement(userId);
+            realtimeNotifier.unreadChanged(userId, -1);
+        }
+
         notificationRepository.delete(notification);
+        notificationStatsCache.deleted(userId, notification.getStatus(), notification.getType(), notification.getCreatedAt());
         log.info("Notification deleted: {}", notificationId);
     }
 
@@ -115,6 +182,10 @@ public class NotificationServiceImpl implements NotificationService {
     public void deleteAllNotifications() {
         UUID userId = getCurrentUserId();
         notificationRepository.deleteAllByUserId(userId);
+        unreadCounters.reset(userId);
+        notificationStatsCache.invalidate(userId);
+        broadcastNotificationRepository.clearAll(userId, LocalDateTime.now());
+        realtimeNotifier.unreadCountChanged(userId, 0);
         log.info("All notifications deleted for user: {}", userId);
     }
 
@@ -131,13 +202,28 @@ public class NotificationServiceImpl implements NotificationService {
                 .sentAt(LocalDateTime.now())
                 .build();
 
-        notificationRepository.save(notification);
+        notification = notificationRepository.save(notification);
+        unreadCounters.increment(userId);
+        notificationStatsCache.created(userId, notification.getStatus(), notification.getType(), notification.getCreatedAt());
+        realtimeNotifier.notificationCreated(userId, notificationMapper.toResponse(notification), 1);
         log.info("Test notification sent to user: {}", userId);
     }
 
     @Transactional(readOnly = true)
     public Long getUnreadCount() {
         UUID userId = getCurrentUserId();
-        return notificationRepository.countByUserIdAndStatus(userId, NotificationStatus.UNREAD);
+        // Personal count from memory, broadcasts are few and counted against their receipts
+        return unreadCounters.get(userId) + broadcastNotificationRepository.countUnread(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe() {
+        UUID userId = getCurrentUserId();
+        SseEmitter emitter = sseSubscriptionRegistry.subscribe(userId);
+
+        // Initial badge state, later changes arrive as deltas
+        long unreadCount = unreadCounters.get(userId) + broadcastNotificationRepository.countUnread(userId);
+        sseSubscriptionRegistry.send(userId, emitter, "unread-count", unreadCount);
+        return emitter;
     }
 }
\ No newline at end of file
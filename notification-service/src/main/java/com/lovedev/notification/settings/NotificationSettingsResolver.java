@@ -0,0 +1,79 @@
+package com.lovedev.notification.settings;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lovedev.notification.model.entity.NotificationSettings;
+import com.lovedev.notification.repository.NotificationSettingsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Read-side resolution of notification settings
+ *
+ * Users without a settings row get implicit defaults, nothing is written on read.
+ * Single-user lookups go through a small bounded TTL cache; bulk lookups load a chunk of
+ * user ids with one IN query. Local updates evict their entry, changes made on other
+ * replicas become visible within {@code app.notification-settings.cache-ttl-ms}.
+ */
+@Component
+public class NotificationSettingsResolver {
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final NotificationSettingsRepository notificationSettingsRepository;
+    private final Cache<UUID, ResolvedNotificationSettings> cache;
+
+    public NotificationSettingsResolver(
+            NotificationSettingsRepository notificationSettingsRepository,
+            @Value("${app.notification-settings.cache-ttl-ms:60000}") long ttlMs,
+            @Value("${app.notification-settings.cache-max-entries:10000}") int maxEntries) {
+        this.notificationSettingsRepository = notificationSettingsRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Resolve settings of one user, cached
+     */
+    public ResolvedNotificationSettings resolve(UUID userId) {
+        return cache.get(userId, id -> notificationSettingsRepository.findByUserId(id)
+                .map(ResolvedNotificationSettings::of)
+                .orElseGet(() -> ResolvedNotificationSettings.defaults(id)));
+    }
+
+    /**
+     * Resolve settings of many users with one query per chunk, bypasses the cache
+     */
+    public Map<UUID, ResolvedNotificationSettings> resolveAll(Collection<UUID> userIds) {
+        Map<UUID, ResolvedNotificationSettings> resolved = new HashMap<>(userIds.size() * 2);
+        List<UUID> ids = new ArrayList<>(userIds);
+
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_QUERY) {
+            List<UUID> chunk = ids.subList(start, Math.min(start + MAX_IDS_PER_QUERY, ids.size()));
+            for (NotificationSettings settings : notificationSettingsRepository.findByUserIdIn(chunk)) {
+                resolved.put(settings.getUserId(), ResolvedNotificationSettings.of(settings));
+            }
+        }
+        for (UUID userId : ids) {
+            resolved.computeIfAbsent(userId, ResolvedNotificationSettings::defaults);
+        }
+        return resolved;
+    }
+
+    /**
+     * Drop the cached settings of a user after they change
+     */
+    public void evict(UUID userId) {
+        cache.invalidate(userId);
+    }
+}
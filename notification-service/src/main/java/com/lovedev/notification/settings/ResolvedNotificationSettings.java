@@ -0,0 +1,31 @@
+package com.lovedev.notification.settings;
+
+import com.lovedev.notification.model.entity.NotificationSettings;
+
+import java.util.UUID;
+
+/**
+ * Immutable view of a user's notification settings, implicit defaults when no row exists
+ */
+public record ResolvedNotificationSettings(
+        UUID userId,
+        boolean pushEnabled,
+        boolean emailEnabled,
+        boolean inAppEnabled,
+        boolean marketingEnabled,
+        boolean persisted) {
+
+    public static ResolvedNotificationSettings defaults(UUID userId) {
+        return new ResolvedNotificationSettings(userId, true, true, true, false, false);
+    }
+
+    public static ResolvedNotificationSettings of(NotificationSettings settings) {
+        return new ResolvedNotificationSettings(
+                settings.getUserId(),
+                Boolean.TRUE.equals(settings.getPushEnabled()),
+                Boolean.TRUE.equals(settings.getEmailEnabled()),
+                Boolean.TRUE.equals(settings.getInAppEnabled()),
+                Boolean.TRUE.equals(settings.getMarketingEnabled()),
+                true);
+    }
+}
@@ -0,0 +1,186 @@
+package com.lovedev.notification.stats;
+
+import com.lovedev.common.web.util.AdvisoryLocks;
+import com.lovedev.notification.model.dto.response.NotificationStatsResponse;
+import com.lovedev.notification.model.enums.NotificationStatus;
+import com.lovedev.notification.model.enums.NotificationType;
+import com.lovedev.notification.partition.NotificationPartitionManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Global notification statistics from per-day rollups
+ *
+ * Every closed day is aggregated once into notification_daily_rollups, so global stats sum a few
+ * hundred rollup rows plus one live aggregate over the days not rolled up yet instead of scanning
+ * every partition. The last {@code app.notification-stats.refresh-days} days are rolled up again
+ * on each run to pick up reads and deletes; older days keep the counts they had then. Only one
+ * replica rolls up at a time, guarded by a session advisory lock.
+ */
+@Component
+@Slf4j
+public class NotificationRollups {
+
+    private static final String LOCK_NAME = "notification-stats-rollup";
+
+    private record Cached(NotificationStatsResponse stats, LocalDate day, long expiresAt) {
+    }
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationPartitionManager notificationPartitionManager;
+    private final int refreshDays;
+    private final long globalTtlMs;
+
+    private volatile Cached global;
+
+    public NotificationRollups(DataSource dataSource,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               NotificationPartitionManager notificationPartitionManager,
+                               @Value("${app.notification-stats.refresh-days:7}") int refreshDays,
+                               @Value("${app.notification-stats.global-ttl-ms:60000}") long globalTtlMs) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationPartitionManager = notificationPartitionManager;
+        this.refreshDays = Math.max(1, refreshDays);
+        this.globalTtlMs = globalTtlMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        CompletableFuture.runAsync(this::rollup);
+    }
+
+    /**
+     * Roll up closed days that are missing or still within the refresh window
+     */
+    @Scheduled(cron = "${app.notification-stats.rollup-cron:0 30 3 * * *}")
+    public void rollup() {
+        try {
+            if (!AdvisoryLocks.runExclusive(dataSource, LOCK_NAME, this::rollupDaysLogged)) {
+                log.info("Notification stats rollup is running on another instance, skipping");
+            }
+        } catch (SQLException e) {
+            log.error("Notification stats rollup could not acquire its lock", e);
+        }
+    }
+
+    private void rollupDaysLogged() {
+        try {
+            rollupDays();
+        } catch (DataAccessException e) {
+            log.error("Notification stats rollup failed", e);
+        }
+    }
+
+    private void rollupDays() {
+        LocalDate cutoff = notificationPartitionManager.retentionCutoff().toLocalDate();
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate refreshFrom = LocalDate.now().minusDays(refreshDays);
+
+        Set<LocalDate> rolledUp = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT day FROM notification_daily_rollups WHERE day >= ?",
+                LocalDate.class, Date.valueOf(cutoff)));
+
+        int days = 0;
+        for (LocalDate day = cutoff; !day.isAfter(yesterday); day = day.plusDays(1)) {
+            if (day.isBefore(refreshFrom) && rolledUp.contains(day)) {
+                continue;
+            }
+            rollupDay(day);
+            days++;
+        }
+
+        int expired = jdbcTemplate.update("DELETE FROM notification_daily_rollups WHERE day < ?", Date.valueOf(cutoff));
+        global = null;
+        log.info("Rolled up notification stats for {} days, removed {} expired rollup rows", days, expired);
+    }
+
+    private void rollupDay(LocalDate day) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM notification_daily_rollups WHERE day = ?", Date.valueOf(day));
+            // Bounded on created_at so only the partition of that day is scanned
+            jdbcTemplate.update("""
+                    INSERT INTO notification_daily_rollups (day, status, type, notification_count, computed_at)
+                    SELECT CAST(? AS DATE), status, type, COUNT(*), CURRENT_TIMESTAMP
+                    FROM notifications
+                    WHERE created_at >= ? AND created_at < ?
+                    GROUP BY status, type
+                    """,
+                    Date.valueOf(day),
+                    Timestamp.valueOf(day.atStartOfDay()),
+                    Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+        });
+    }
+
+    /**
+     * Notification statistics over all users in the retention window
+     */
+    public NotificationStatsResponse globalStats() {
+        long now = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        Cached cached = global;
+        if (cached != null && cached.expiresAt() > now && cached.day().equals(today)) {
+            return cached.stats();
+        }
+
+        LocalDate cutoff = notificationPartitionManager.retentionCutoff().toLocalDate();
+        NotificationStats stats = new NotificationStats(today);
+
+        LocalDate lastRolledUp = jdbcTemplate.queryForObject(
+                "SELECT MAX(day) FROM notification_daily_rollups WHERE day >= ?",
+                LocalDate.class, Date.valueOf(cutoff));
+        LocalDate liveFrom = lastRolledUp != null ? lastRolledUp.plusDays(1) : cutoff;
+
+        jdbcTemplate.query("""
+                SELECT day, status, type, notification_count
+                FROM notification_daily_rollups
+                WHERE day >= ? AND day < ?
+                """,
+                rs -> {
+                    stats.add(NotificationStatus.valueOf(rs.getString("status")),
+                            NotificationType.valueOf(rs.getString("type")),
+                            rs.getDate("day").toLocalDate(),
+                            rs.getLong("notification_count"));
+                },
+                Date.valueOf(cutoff), Date.valueOf(liveFrom));
+
+        jdbcTemplate.query("""
+                SELECT CAST(created_at AS DATE) AS day, status, type, COUNT(*) AS total
+                FROM notifications
+                WHERE created_at >= ?
+                GROUP BY CAST(created_at AS DATE), status, type
+                """,
+                rs -> {
+                    stats.add(NotificationStatus.valueOf(rs.getString("status")),
+                            NotificationType.valueOf(rs.getString("type")),
+                            rs.getDate("day").toLocalDate(),
+                            rs.getLong("total"));
+                },
+                Timestamp.valueOf(liveFrom.atStartOfDay()));
+
+        NotificationStatsResponse response = stats.toResponse();
+        global = new Cached(response, today, now + globalTtlMs);
+        return response;
+    }
+}
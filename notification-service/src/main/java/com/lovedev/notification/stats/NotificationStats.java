@@ -0,0 +1,97 @@
+package com.lovedev.notification.stats;
+
+import com.lovedev.notification.model.dto.response.NotificationStatsResponse;
+import com.lovedev.notification.model.enums.NotificationStatus;
+import com.lovedev.notification.model.enums.NotificationType;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Notification counts by status and type plus per-day activity over the last week
+ *
+ * Built from grouped rows and then adjusted in place as notifications are written.
+ */
+public final class NotificationStats {
+
+    static final int ACTIVITY_DAYS = 7;
+
+    private static final NotificationStatus[] STATUSES = NotificationStatus.values();
+    private static final NotificationType[] TYPES = NotificationType.values();
+
+    private final LocalDate activityStart;
+    private final long[][] counts = new long[STATUSES.length][TYPES.length];
+    private final long[] daily = new long[ACTIVITY_DAYS];
+
+    NotificationStats(LocalDate today) {
+        this.activityStart = today.minusDays(ACTIVITY_DAYS - 1);
+    }
+
+    /**
+     * Day the activity window was computed for, the stats are stale once the date moves on
+     */
+    LocalDate today() {
+        return activityStart.plusDays(ACTIVITY_DAYS - 1);
+    }
+
+    synchronized void add(NotificationStatus status, NotificationType type, LocalDate day, long delta) {
+        if (status != null && type != null) {
+            counts[status.ordinal()][type.ordinal()] += delta;
+        }
+        if (day != null) {
+            long offset = ChronoUnit.DAYS.between(activityStart, day);
+            if (offset >= 0 && offset < ACTIVITY_DAYS) {
+                daily[(int) offset] += delta;
+            }
+        }
+    }
+
+    /**
+     * A notification changed status, its day and type stay the same
+     */
+    synchronized void move(NotificationType type, NotificationStatus from, NotificationStatus to) {
+        if (type == null || from == null || to == null || from == to) {
+            return;
+        }
+        counts[from.ordinal()][type.ordinal()]--;
+        counts[to.ordinal()][type.ordinal()]++;
+    }
+
+    synchronized NotificationStatsResponse toResponse() {
+        Map<NotificationStatus, Long> byStatus = new EnumMap<>(NotificationStatus.class);
+        Map<NotificationType, Long> byType = new EnumMap<>(NotificationType.class);
+        long total = 0;
+        for (NotificationStatus status : STATUSES) {
+            for (NotificationType type : TYPES) {
+                long count = Math.max(counts[status.ordinal()][type.ordinal()], 0L);
+                if (count == 0) {
+                    continue;
+                }
+                byStatus.merge(status, count, Long::sum);
+                byType.merge(type, count, Long::sum);
+                total += count;
+            }
+        }
+
+        Map<LocalDate, Long> dailyActivity = new LinkedHashMap<>();
+        for (int i = 0; i < ACTIVITY_DAYS; i++) {
+            dailyActivity.put(activityStart.plusDays(i), Math.max(daily[i], 0L));
+        }
+
+        long unread = byStatus.getOrDefault(NotificationStatus.UNREAD, 0L);
+        return NotificationStatsResponse.builder()
+                .totalCount(total)
+                .unreadCount(unread)
+                .readCount(byStatus.getOrDefault(NotificationStatus.READ, 0L))
+                .archivedCount(byStatus.getOrDefault(NotificationStatus.ARCHIVED, 0L))
+                .sentCount(byStatus.getOrDefault(NotificationStatus.SENT, 0L))
+                .hasUnread(unread > 0)
+                .byStatus(byStatus)
+                .byType(byType)
+                .dailyActivity(dailyActivity)
+                .build();
+    }
+}
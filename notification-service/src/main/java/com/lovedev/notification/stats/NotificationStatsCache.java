@@ -0,0 +1,105 @@
+package com.lovedev.notification.stats;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lovedev.common.web.util.TransactionUtils;
+import com.lovedev.notification.model.dto.response.NotificationStatsResponse;
+import com.lovedev.notification.model.enums.NotificationStatus;
+import com.lovedev.notification.model.enums.NotificationType;
+import com.lovedev.notification.partition.NotificationPartitionManager;
+import com.lovedev.notification.repository.NotificationRepository;
+import com.lovedev.notification.repository.NotificationStatsRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Per-user notification statistics
+ *
+ * A user's stats come from one grouped query over their partitions in the retention window.
+ * With {@code app.notification-stats.cache-enabled} the result is kept and adjusted after each
+ * committed write instead of being recomputed; entries expire after {@code cache-ttl-ms} and at
+ * the day boundary, bulk operations drop them.
+ */
+@Component
+public class NotificationStatsCache {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationPartitionManager notificationPartitionManager;
+    private final boolean enabled;
+
+    private final Cache<UUID, NotificationStats> cache;
+
+    public NotificationStatsCache(NotificationRepository notificationRepository,
+                                  NotificationPartitionManager notificationPartitionManager,
+                                  @Value("${app.notification-stats.cache-enabled:true}") boolean enabled,
+                                  @Value("${app.notification-stats.cache-ttl-ms:300000}") long ttlMs,
+                                  @Value("${app.notification-stats.cache-max-entries:10000}") int maxEntries) {
+        this.notificationRepository = notificationRepository;
+        this.notificationPartitionManager = notificationPartitionManager;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public NotificationStatsResponse get(UUID userId) {
+        LocalDate today = LocalDate.now();
+        NotificationStats cached = enabled ? cache.getIfPresent(userId) : null;
+        if (cached != null && cached.today().equals(today)) {
+            return cached.toResponse();
+        }
+
+        NotificationStats stats = new NotificationStats(today);
+        LocalDateTime since = notificationPartitionManager.retentionCutoff();
+        for (NotificationStatsRow row : notificationRepository.aggregateUserStats(userId, since)) {
+            stats.add(row.getStatus(), row.getType(), row.getDay(), row.getTotal());
+        }
+        if (enabled) {
+            cache.put(userId, stats);
+        }
+        return stats.toResponse();
+    }
+
+    /**
+     * A notification was created, call inside the creating transaction
+     */
+    public void created(UUID userId, NotificationStatus status, NotificationType type, LocalDateTime createdAt) {
+        update(userId, stats -> stats.add(status, type, createdAt.toLocalDate(), 1));
+    }
+
+    public void statusChanged(UUID userId, NotificationType type, NotificationStatus from, NotificationStatus to) {
+        update(userId, stats -> stats.move(type, from, to));
+    }
+
+    public void deleted(UUID userId, NotificationStatus status, NotificationType type, LocalDateTime createdAt) {
+        update(userId, stats -> stats.add(status, type, createdAt != null ? createdAt.toLocalDate() : null, -1));
+    }
+
+    /**
+     * Drop a user's stats after a change that touched many notifications
+     */
+    public void invalidate(UUID userId) {
+        if (enabled) {
+            TransactionUtils.afterCommit(() -> cache.invalidate(userId));
+        }
+    }
+
+    private void update(UUID userId, Consumer<NotificationStats> change) {
+        if (!enabled) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            NotificationStats cached = cache.getIfPresent(userId);
+            if (cached != null) {
+                change.accept(cached);
+            }
+        });
+    }
+}
@@ -0,0 +1,53 @@
+-- Bulk notification fan-out jobs
+
+CREATE TABLE IF NOT EXISTS fanout_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    title VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    type VARCHAR(20) NOT NULL DEFAULT 'INFO',
+    data TEXT,
+    action_url VARCHAR(500),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    shard_count INTEGER NOT NULL,
+    processed_tokens BIGINT NOT NULL DEFAULT 0,
+    success_count BIGINT NOT NULL DEFAULT 0,
+    failure_count BIGINT NOT NULL DEFAULT 0,
+    deactivated_count BIGINT NOT NULL DEFAULT 0,
+    notified_users BIGINT NOT NULL DEFAULT 0,
+    created_by UUID,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_fanout_job_status ON fanout_jobs(status);
+
+-- One row per user_id range, holding the keyset checkpoint and the worker lease
+CREATE TABLE IF NOT EXISTS fanout_shards (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    job_id UUID NOT NULL REFERENCES fanout_jobs(id) ON DELETE CASCADE,
+    shard_index INTEGER NOT NULL,
+    lower_user_id UUID NOT NULL,
+    upper_user_id UUID NOT NULL,
+    cursor_user_id UUID NOT NULL,
+    cursor_token_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    processed_tokens BIGINT NOT NULL DEFAULT 0,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    owner VARCHAR(100),
+    heartbeat_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_fanout_shard UNIQUE (job_id, shard_index)
+);
+
+CREATE INDEX idx_fanout_shard_open ON fanout_shards(status) WHERE status IN ('PENDING', 'RUNNING');
+
+-- Keyset scan of active tokens ordered by (user_id, id)
+CREATE INDEX idx_fcm_active_user_id ON fcm_tokens(user_id, id) WHERE active = true;
+
+CREATE TRIGGER update_fanout_jobs_updated_at BEFORE UPDATE ON fanout_jobs
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_fanout_shards_updated_at BEFORE UPDATE ON fanout_shards
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
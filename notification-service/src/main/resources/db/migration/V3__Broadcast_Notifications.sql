@@ -0,0 +1,39 @@
+-- System-wide announcements, stored once and merged into each user's feed at read time
+
+CREATE TABLE IF NOT EXISTS broadcast_notifications (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    title VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    type VARCHAR(20) NOT NULL DEFAULT 'INFO',
+    data TEXT,
+    action_url VARCHAR(500),
+    created_by UUID,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_broadcast_created ON broadcast_notifications(created_at DESC);
+
+-- Per-user read/delete state, a row only exists once the user touched the broadcast
+CREATE TABLE IF NOT EXISTS broadcast_receipts (
+    broadcast_id UUID NOT NULL REFERENCES broadcast_notifications(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL,
+    read_at TIMESTAMP,
+    deleted_at TIMESTAMP,
+    PRIMARY KEY (broadcast_id, user_id)
+);
+
+-- "Mark all read" / "delete all" cover every broadcast created up to the watermark
+CREATE TABLE IF NOT EXISTS broadcast_watermarks (
+    user_id UUID PRIMARY KEY,
+    read_through TIMESTAMP,
+    cleared_through TIMESTAMP
+);
+
+ALTER TABLE fanout_jobs ADD COLUMN broadcast_id UUID REFERENCES broadcast_notifications(id) ON DELETE SET NULL;
+
+-- Personal half of the merged feed
+CREATE INDEX idx_notification_user_created ON notifications(user_id, created_at DESC);
+
+CREATE TRIGGER update_broadcast_notifications_updated_at BEFORE UPDATE ON broadcast_notifications
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
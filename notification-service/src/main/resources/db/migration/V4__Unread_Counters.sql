@@ -0,0 +1,10 @@
+-- Per-user unread counters maintained on write, reconciled periodically
+
+CREATE TABLE IF NOT EXISTS notification_unread_counters (
+    user_id UUID PRIMARY KEY,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Counter initialisation and reconcile only look at unread rows
+CREATE INDEX idx_notification_user_unread ON notifications(user_id) WHERE status = 'UNREAD';
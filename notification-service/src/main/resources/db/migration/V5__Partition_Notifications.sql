@@ -0,0 +1,54 @@
+-- Daily range partitions on notifications.created_at, retention drops whole partitions
+-- instead of deleting rows. Partitions are named notifications_pYYYYMMDD and are created
+-- ahead of time by NotificationPartitionManager; the default partition only catches rows
+-- outside every partition (clock skew, a missed maintenance run).
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+
+CREATE TABLE notifications (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    type VARCHAR(20) NOT NULL DEFAULT 'INFO',
+    status VARCHAR(20) NOT NULL DEFAULT 'UNREAD',
+    data TEXT,
+    action_url VARCHAR(500),
+    read_at TIMESTAMP,
+    sent_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- The partition key has to be part of every unique constraint
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+-- The retention window plus a week ahead, maintenance keeps extending it
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN SELECT generate_series(CURRENT_DATE - 31, CURRENT_DATE + 8, INTERVAL '1 day')::DATE LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                       'notifications_p' || to_char(day, 'YYYYMMDD'), day, day + 1);
+    END LOOP;
+END $$;
+
+-- Rows past the 30 day retention would be dropped by the first maintenance run anyway
+INSERT INTO notifications (id, user_id, title, body, type, status, data, action_url,
+                           read_at, sent_at, created_at, updated_at)
+SELECT id, user_id, title, body, type, status, data, action_url,
+       read_at, sent_at, created_at, updated_at
+FROM notifications_legacy
+WHERE created_at >= CURRENT_DATE - 31;
+
+DROP TABLE notifications_legacy;
+
+-- Created on the parent, so every current and future partition gets its own copy.
+-- Inbox, status filter and unread count all lead with user_id, status
+CREATE INDEX idx_notification_user_status_created ON notifications(user_id, status, created_at DESC);
+CREATE INDEX idx_notification_user_created ON notifications(user_id, created_at DESC);
+
+CREATE TRIGGER update_notifications_updated_at BEFORE UPDATE ON notifications
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
@@ -0,0 +1,11 @@
+-- Per-day notification counts by status and type, one rollup per closed partition day.
+-- Global statistics sum these instead of scanning every partition.
+
+CREATE TABLE IF NOT EXISTS notification_daily_rollups (
+    day DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    notification_count BIGINT NOT NULL,
+    computed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (day, status, type)
+);
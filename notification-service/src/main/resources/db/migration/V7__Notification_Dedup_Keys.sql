@@ -0,0 +1,13 @@
+-- Idempotency and collapse keys of single-user notifications.
+-- Kept outside the partitioned notifications table: a unique index there would have to include created_at.
+
+CREATE TABLE IF NOT EXISTS notification_dedup_keys (
+    user_id UUID NOT NULL,
+    dedup_key VARCHAR(128) NOT NULL,
+    notification_id UUID,
+    notification_created_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, dedup_key)
+);
+
+CREATE INDEX idx_notification_dedup_created ON notification_dedup_keys(created_at);
@@ -0,0 +1,26 @@
+-- Notifications waiting for their send time. Rows are deleted once released, so the table only
+-- holds pending items; each replica claims the minute buckets coming up next.
+
+CREATE TABLE IF NOT EXISTS scheduled_notifications (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID,
+    title VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    type VARCHAR(20) NOT NULL DEFAULT 'INFO',
+    data TEXT,
+    action_url VARCHAR(500),
+    send_at TIMESTAMP NOT NULL,
+    due_minute TIMESTAMP NOT NULL,
+    loaded_by UUID,
+    loaded_at TIMESTAMP,
+    created_by UUID,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Loading reads the next buckets of unclaimed rows, never the whole table
+CREATE INDEX idx_scheduled_pending_minute ON scheduled_notifications(due_minute) WHERE loaded_by IS NULL;
+
+-- Rows claimed by a replica that went away are handed back through this one
+CREATE INDEX idx_scheduled_loaded_at ON scheduled_notifications(loaded_at) WHERE loaded_by IS NOT NULL;
+
+CREATE INDEX idx_scheduled_send_at ON scheduled_notifications(send_at);
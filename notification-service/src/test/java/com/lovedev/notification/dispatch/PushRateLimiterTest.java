@@ -0,0 +1,177 @@
+package com.lovedev.notification.dispatch;
+
+import com.lovedev.notification.config.PushRateLimitProperties;
+import com.lovedev.notification.fcm.PushDispatcher;
+import com.lovedev.notification.fcm.PushMessage;
+import com.lovedev.notification.model.enums.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PushRateLimiterTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final PushDispatcher pushDispatcher = mock(PushDispatcher.class);
+    private PushRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        Map<NotificationType, PushRateLimitProperties.Limit> types = new EnumMap<>(NotificationType.class);
+        // Two back to back, then one every ten seconds
+        types.put(NotificationType.MESSAGE, new PushRateLimitProperties.Limit(2, 6));
+        types.put(NotificationType.PROMOTION, new PushRateLimitProperties.Limit(1, 0.1));
+        PushRateLimitProperties properties = new PushRateLimitProperties();
+        properties.setTypes(types);
+        properties.setIdleTimeout(Duration.ofMinutes(10));
+        limiter = new PushRateLimiter(properties, pushDispatcher, new SimpleMeterRegistry(), now::get);
+    }
+
+    @Test
+    void bucketAllowsBurstThenFolds() {
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "a")).isTrue();
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "b")).isTrue();
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "c")).isFalse();
+    }
+
+    @Test
+    void bucketRefillsByPerMinute() {
+        drain(NotificationType.MESSAGE, 2);
+
+        now.addAndGet(9_000);
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "a")).isFalse();
+        now.addAndGet(2_000);
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "b")).isTrue();
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "c")).isFalse();
+    }
+
+    @Test
+    void refillIsCappedAtBurst() {
+        drain(NotificationType.MESSAGE, 2);
+
+        now.addAndGet(Duration.ofMinutes(5).toMillis());
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "a")).isTrue();
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "b")).isTrue();
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "c")).isFalse();
+    }
+
+    @Test
+    void bucketsAreKeptPerType() {
+        drain(NotificationType.MESSAGE, 2);
+
+        assertThat(limiter.tryAcquire(userId, NotificationType.PROMOTION, "a")).isTrue();
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "b")).isFalse();
+    }
+
+    @Test
+    void refundGivesTokenBack() {
+        drain(NotificationType.MESSAGE, 2);
+
+        limiter.refund(userId, NotificationType.MESSAGE);
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "a")).isTrue();
+        assertThat(limiter.tryAcquire(userId, NotificationType.MESSAGE, "b")).isFalse();
+    }
+
+    @Test
+    void foldedPushesGoOutAsOneDigest() {
+        drain(NotificationType.MESSAGE, 2);
+        limiter.tryAcquire(userId, NotificationType.MESSAGE, "first");
+        limiter.tryAcquire(userId, NotificationType.MESSAGE, "second");
+        limiter.tryAcquire(userId, NotificationType.MESSAGE, "latest");
+
+        limiter.flushDigests();
+
+        PushMessage digest = singleDigest();
+        assertThat(digest.userId()).isEqualTo(userId);
+        assertThat(digest.lane()).isEqualTo(PushLane.TRANSACTIONAL);
+        assertThat(digest.title()).isEqualTo("You have 3 new notifications");
+        assertThat(digest.body()).isEqualTo("latest and 2 more");
+        assertThat(digest.data()).containsEntry("digest", "true").containsEntry("count", "3");
+        assertThat(digest.collapseKey()).isEqualTo("digest");
+    }
+
+    @Test
+    void singleFoldedPushKeepsItsTitleAsBody() {
+        drain(NotificationType.MESSAGE, 2);
+        limiter.tryAcquire(userId, NotificationType.MESSAGE, "only");
+
+        limiter.flushDigests();
+
+        PushMessage digest = singleDigest();
+        assertThat(digest.title()).isEqualTo("You have a new notification");
+        assertThat(digest.body()).isEqualTo("only");
+    }
+
+    @Test
+    void digestTakesMostUrgentLaneOfItsFoldedPushes() {
+        drain(NotificationType.PROMOTION, 1);
+        limiter.tryAcquire(userId, NotificationType.PROMOTION, "sale");
+        drain(NotificationType.MESSAGE, 2);
+        limiter.tryAcquire(userId, NotificationType.MESSAGE, "hello");
+
+        limiter.flushDigests();
+
+        assertThat(singleDigest().lane()).isEqualTo(PushLane.TRANSACTIONAL);
+    }
+
+    @Test
+    void digestIsSentOnlyOnce() {
+        drain(NotificationType.MESSAGE, 2);
+        limiter.tryAcquire(userId, NotificationType.MESSAGE, "a");
+
+        limiter.flushDigests();
+        limiter.flushDigests();
+
+        verify(pushDispatcher).dispatchAll(any());
+    }
+
+    @Test
+    void nothingFoldedSendsNoDigest() {
+        drain(NotificationType.MESSAGE, 2);
+
+        limiter.flushDigests();
+
+        verify(pushDispatcher, never()).dispatchAll(any());
+    }
+
+    @Test
+    void idleUserWithFoldedPushesKeepsDigestOnEviction() {
+        drain(NotificationType.MESSAGE, 2);
+        limiter.tryAcquire(userId, NotificationType.MESSAGE, "a");
+
+        now.addAndGet(Duration.ofMinutes(11).toMillis());
+        limiter.flushDigests();
+
+        // Queued by the eviction listener and sent with the same flush
+        assertThat(singleDigest().userId()).isEqualTo(userId);
+    }
+
+    private void drain(NotificationType type, int tokens) {
+        for (int i = 0; i < tokens; i++) {
+            assertThat(limiter.tryAcquire(userId, type, "drain")).isTrue();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private PushMessage singleDigest() {
+        ArgumentCaptor<Collection<PushMessage>> pushes = ArgumentCaptor.forClass(Collection.class);
+        verify(pushDispatcher).dispatchAll(pushes.capture());
+        assertThat(pushes.getValue()).hasSize(1);
+        return List.copyOf(pushes.getValue()).get(0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.lovedev.notification.dispatch;
+
+import com.lovedev.notification.config.PushProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.lovedev.notification.dispatch.PushLane.BULK;
+import static com.lovedev.notification.dispatch.PushLane.MARKETING;
+import static com.lovedev.notification.dispatch.PushLane.TRANSACTIONAL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PushSchedulerTest {
+
+    private final CountDownLatch workerBusy = new CountDownLatch(1);
+    private final CountDownLatch releaseWorker = new CountDownLatch(1);
+    private PushScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        releaseWorker.countDown();
+        scheduler.stop();
+    }
+
+    @Test
+    void nextInterleavesLanesBySmoothWeightedRoundRobin() throws InterruptedException {
+        scheduler = singleWorkerScheduler(100);
+        blockWorker();
+
+        List<PushLane> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(60);
+        for (PushLane lane : List.of(MARKETING, BULK, TRANSACTIONAL)) {
+            for (int i = 0; i < 20; i++) {
+                scheduler.submit(lane, () -> {
+                    order.add(lane);
+                    done.countDown();
+                });
+            }
+        }
+        releaseWorker.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Weights 6:3:1, spread out over the round instead of six transactional picks in a row
+        assertThat(order.subList(0, 10)).containsExactly(
+                TRANSACTIONAL, BULK, TRANSACTIONAL, TRANSACTIONAL, BULK,
+                TRANSACTIONAL, MARKETING, TRANSACTIONAL, BULK, TRANSACTIONAL);
+        // A full round brings every current weight back to zero, the next round repeats it
+        assertThat(order.subList(10, 20)).isEqualTo(order.subList(0, 10));
+    }
+
+    @Test
+    void nextSkipsEmptyLanes() throws InterruptedException {
+        scheduler = singleWorkerScheduler(100);
+        blockWorker();
+
+        List<PushLane> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            scheduler.submit(MARKETING, () -> {
+                order.add(MARKETING);
+                done.countDown();
+            });
+        }
+        releaseWorker.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly(MARKETING, MARKETING, MARKETING);
+    }
+
+    @Test
+    void reservationHoldsRoomUntilSubmittedOrCancelled() throws InterruptedException {
+        scheduler = singleWorkerScheduler(1);
+        blockWorker();
+
+        PushScheduler.Reservation reservation = scheduler.reserve(TRANSACTIONAL);
+        assertThatThrownBy(() -> scheduler.submit(TRANSACTIONAL, () -> { }))
+                .isInstanceOf(PushRejectedException.class);
+        assertThatThrownBy(() -> scheduler.reserve(TRANSACTIONAL))
+                .isInstanceOf(PushRejectedException.class);
+
+        reservation.cancel();
+        CountDownLatch ran = new CountDownLatch(1);
+        scheduler.reserve(TRANSACTIONAL).submit(ran::countDown);
+        releaseWorker.countDown();
+
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private PushScheduler singleWorkerScheduler(int capacity) {
+        Map<PushLane, PushProperties.Lane> lanes = new EnumMap<>(PushLane.class);
+        lanes.put(TRANSACTIONAL, new PushProperties.Lane(6, capacity));
+        lanes.put(BULK, new PushProperties.Lane(3, capacity));
+        lanes.put(MARKETING, new PushProperties.Lane(1, capacity));
+        PushProperties properties = new PushProperties();
+        properties.setWorkers(1);
+        properties.setLanes(lanes);
+        return new PushScheduler(properties, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Park the only worker on a task so the lanes fill up before anything is picked
+     */
+    private void blockWorker() throws InterruptedException {
+        scheduler.submit(TRANSACTIONAL, () -> {
+            workerBusy.countDown();
+            try {
+                releaseWorker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(workerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,69 @@
+package com.lovedev.notification.scheduled;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK_MS = 100;
+
+    @Test
+    void slotCountIsRoundedUpToPowerOfTwo() {
+        // 3 slots become 4, tick 1 and tick 5 share a slot
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK_MS, 3, 0);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        wheel.add(first, 100);
+        wheel.add(second, 500);
+
+        assertThat(wheel.advance(100)).containsExactly(first);
+        assertThat(wheel.advance(499)).isEmpty();
+        assertThat(wheel.advance(500)).containsExactly(second);
+    }
+
+    @Test
+    void entryMoreThanOneRevolutionAheadWaitsForItsTick() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK_MS, 4, 0);
+        UUID later = UUID.randomUUID();
+        // Tick 10 lands in slot 2, which comes round at ticks 2 and 6 first
+        wheel.add(later, 1_050);
+
+        assertThat(wheel.advance(250)).isEmpty();
+        assertThat(wheel.advance(650)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(1_000)).containsExactly(later);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advanceCatchesUpOnEveryMissedTick() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK_MS, 8, 0);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        UUID notYet = UUID.randomUUID();
+        wheel.add(third, 1_200);
+        wheel.add(first, 100);
+        wheel.add(second, 700);
+        wheel.add(notYet, 2_000);
+
+        // Twelve ticks late, more than a full revolution of eight slots
+        assertThat(wheel.advance(1_250)).containsExactly(first, second, third);
+        assertThat(wheel.size()).isEqualTo(1);
+        // Tick 13 is the next one to advance over, it starts at 1300
+        assertThat(wheel.nextTickAt()).isEqualTo(1_300);
+    }
+
+    @Test
+    void entryAlreadyDueComesOutOnNextAdvance() {
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK_MS, 8, 1_000);
+        wheel.advance(1_500);
+        UUID overdue = UUID.randomUUID();
+        wheel.add(overdue, 200);
+
+        assertThat(wheel.advance(1_600)).containsExactly(overdue);
+    }
+}
@@ -0,0 +1,120 @@
+package com.lovedev.notification.service.impl;
+
+import com.lovedev.notification.dedup.NotificationDeduplicator;
+import com.lovedev.notification.dispatch.PushRateLimiter;
+import com.lovedev.notification.fcm.FCMTokenRegistry;
+import com.lovedev.notification.fcm.PushDispatcher;
+import com.lovedev.notification.fcm.PushMessage;
+import com.lovedev.notification.mapper.NotificationMapper;
+import com.lovedev.notification.model.dto.request.SendNotificationRequest;
+import com.lovedev.notification.model.entity.Notification;
+import com.lovedev.notification.model.enums.NotificationType;
+import com.lovedev.notification.realtime.RealtimeNotifier;
+import com.lovedev.notification.repository.NotificationRepository;
+import com.lovedev.notification.settings.NotificationSettingsResolver;
+import com.lovedev.notification.settings.ResolvedNotificationSettings;
+import com.lovedev.notification.stats.NotificationStatsCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FCMServiceImplTest {
+
+    private static final String DEDUP_KEY = "order-42";
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID notificationId = UUID.randomUUID();
+    private final LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private FCMTokenRegistry fcmTokenRegistry;
+    @Mock
+    private PushDispatcher pushDispatcher;
+    @Mock
+    private NotificationMapper notificationMapper;
+    @Mock
+    private RealtimeNotifier realtimeNotifier;
+    @Mock
+    private NotificationSettingsResolver notificationSettingsResolver;
+    @Mock
+    private NotificationStatsCache notificationStatsCache;
+    @Mock
+    private NotificationDeduplicator notificationDeduplicator;
+    @Mock
+    private PushRateLimiter pushRateLimiter;
+
+    @InjectMocks
+    private FCMServiceImpl fcmService;
+
+    @BeforeEach
+    void setUp() {
+        when(notificationSettingsResolver.resolve(userId)).thenReturn(ResolvedNotificationSettings.defaults(userId));
+        when(fcmTokenRegistry.activeTokens(userId)).thenReturn(List.of("token"));
+        when(notificationDeduplicator.claim(userId, DEDUP_KEY)).thenReturn(new NotificationDeduplicator.Claim(true, null, null));
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
+            Notification notification = invocation.getArgument(0);
+            notification.setId(notificationId);
+            notification.setCreatedAt(createdAt);
+            return notification;
+        });
+    }
+
+    @Test
+    void allowedPushIsStoredAndDispatched() {
+        when(pushRateLimiter.tryAcquire(userId, NotificationType.MESSAGE, "Hello")).thenReturn(true);
+
+        fcmService.sendNotification(request());
+
+        verify(notificationRepository).save(any(Notification.class));
+        ArgumentCaptor<PushMessage> push = ArgumentCaptor.forClass(PushMessage.class);
+        verify(pushDispatcher).dispatchAfterCommit(push.capture());
+        assertThat(push.getValue().userId()).isEqualTo(userId);
+        assertThat(push.getValue().title()).isEqualTo("Hello");
+    }
+
+    @Test
+    void rateLimitedPushIsFoldedButNotificationIsStored() {
+        when(pushRateLimiter.tryAcquire(userId, NotificationType.MESSAGE, "Hello")).thenReturn(false);
+
+        fcmService.sendNotification(request());
+
+        ArgumentCaptor<Notification> saved = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationRepository).save(saved.capture());
+        assertThat(saved.getValue().getUserId()).isEqualTo(userId);
+        assertThat(saved.getValue().getTitle()).isEqualTo("Hello");
+        // The claimed key points at the stored row, a retry is recognised as a duplicate
+        verify(notificationDeduplicator).bind(userId, DEDUP_KEY, notificationId, createdAt);
+        verify(notificationStatsCache).created(eq(userId), any(), eq(NotificationType.MESSAGE), eq(createdAt));
+        verify(realtimeNotifier).notificationCreated(eq(userId), any(), anyLong());
+        verify(pushDispatcher, never()).dispatchAfterCommit(any());
+    }
+
+    private SendNotificationRequest request() {
+        SendNotificationRequest request = new SendNotificationRequest();
+        request.setUserId(userId);
+        request.setTitle("Hello");
+        request.setBody("You have a new message");
+        request.setType(NotificationType.MESSAGE);
+        request.setDedupKey(DEDUP_KEY);
+        return request;
+    }
+}
@@ -0,0 +1,178 @@
+package com.lovedev.perf;
+
+import com.lovedev.perf.driver.ApiClient;
+import com.lovedev.perf.driver.RateDriver;
+import com.lovedev.perf.env.LocalEnvironment;
+import com.lovedev.perf.env.ServiceLauncher;
+import com.lovedev.perf.report.LatencyReport;
+import com.lovedev.perf.report.ScenarioResult;
+import com.lovedev.perf.scenario.Scenarios;
+import com.lovedev.perf.scenario.SeededUser;
+import com.lovedev.perf.scenario.UserSeeder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test that runs entirely on one machine, offline
+ *
+ * Starts local stand-ins (Postgres, Kafka, SMTP, FCM), boots user, notification and email services
+ * in-process, seeds verified users and drives each scenario at a fixed rate.
+ * Settings are -Dperf.* system properties, see {@link LoadTestConfig}.
+ */
+@Slf4j
+public class LoadTest {
+
+    private static final String JWT_SECRET = "perf-tests-only-secret-0123456789abcdefghijklmnopqrstuvwxyzABCDEFGH";
+
+    public static void main(String[] args) {
+        int exitCode = 0;
+        try {
+            run(LoadTestConfig.fromSystemProperties());
+        } catch (Throwable e) {
+            log.error("Load test failed", e);
+            exitCode = 1;
+        }
+        // Embedded services keep non-daemon threads alive
+        System.exit(exitCode);
+    }
+
+    private static void run(LoadTestConfig config) throws Exception {
+        try (LocalEnvironment environment = new LocalEnvironment()) {
+            environment.start(config.fcmLatency());
+
+            int userPort = LocalEnvironment.freePort();
+            int notificationPort = LocalEnvironment.freePort();
+            int emailPort = LocalEnvironment.freePort();
+            String userServiceUrl = "http://127.0.0.1:" + userPort;
+            String notificationServiceUrl = "http://127.0.0.1:" + notificationPort;
+
+            ServiceLauncher launcher = new ServiceLauncher(config.servicesDir(), config.workDir());
+            launcher.start("user-service", userPort, userServiceProperties(config, environment));
+            launcher.start("email-service", emailPort, emailServiceProperties(config, environment, userServiceUrl));
+            launcher.start("notification-service", notificationPort,
+                    notificationServiceProperties(config, environment, userServiceUrl));
+
+            ApiClient apiClient = new ApiClient(config.requestTimeout());
+            UserSeeder seeder = new UserSeeder(apiClient, environment, userServiceUrl);
+            List<SeededUser> users = seeder.seed(config.seedUsers());
+            SeededUser admin = seeder.seedAdmin();
+            for (int i = 0; i < config.fcmTokensPerUser(); i++) {
+                apiClient.post(notificationServiceUrl + "/api/v1/notifications/fcm-token", Map.of(
+                        "fcmToken", "perf-token-" + admin.id() + "-" + i,
+                        "deviceType", "android",
+                        "deviceId", "perf-device-" + i,
+                        "deviceName", "Load test device " + i
+                ), admin.accessToken()).join();
+            }
+
+            Scenarios scenarios = new Scenarios(apiClient, seeder, environment.mailSink(),
+                    userServiceUrl, notificationServiceUrl, users, admin, config.requestTimeout());
+            RateDriver driver = new RateDriver(config.maxInFlight(), config.requestTimeout());
+            LatencyReport report = new LatencyReport();
+
+            for (String name : config.scenarios()) {
+                long fcmBefore = environment.fcm().received();
+                long mailsBefore = environment.mailSink().received();
+
+                ScenarioResult result = driver.run(name, scenarios.byName(name),
+                        config.rate(), config.warmup(), config.duration());
+                report.add(result);
+
+                if (name.equals("notification")) {
+                    report.note(String.format("notification: fake FCM accepted %d messages",
+                            environment.fcm().received() - fcmBefore));
+                }
+                if (name.equals("register") || name.equals("email-fanout")) {
+                    report.note(String.format("%s: SMTP sink received %d mails",
+                            name, environment.mailSink().received() - mailsBefore));
+                }
+            }
+
+            System.out.println();
+            System.out.print(report.render());
+            Path file = report.write(config.workDir());
+            log.info("Report written to {}", file.toAbsolutePath());
+        }
+    }
+
+    // ============================================
+    // Service Properties
+    // ============================================
+
+    /**
+     * Settings normally served by the config server; spring.config.name points at a missing file
+     * so the services' own application.yml (and its configserver import) is skipped
+     */
+    private static Map<String, String> commonProperties(String applicationName, LoadTestConfig config,
+                                                        LocalEnvironment environment) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("spring.application.name", applicationName);
+        properties.put("spring.config.name", "perf");
+        properties.put("spring.cloud.config.enabled", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("eureka.client.enabled", "false");
+        properties.put("management.tracing.enabled", "false");
+        properties.put("management.health.redis.enabled", "false");
+        properties.put("management.health.mail.enabled", "false");
+        properties.put("logging.level.root", config.serviceLogLevel());
+        properties.put("logging.level.com.lovedev", config.serviceLogLevel());
+        properties.put("app.jwt.secret", JWT_SECRET);
+        properties.put("app.jwt.expiration", "86400000");
+        properties.put("app.messaging.bootstrap-servers", environment.kafkaBootstrapServers());
+        properties.put("spring.kafka.bootstrap-servers", environment.kafkaBootstrapServers());
+        return properties;
+    }
+
+    private static Map<String, String> userServiceProperties(LoadTestConfig config, LocalEnvironment environment) {
+        Map<String, String> properties = commonProperties("user-service", config, environment);
+        properties.put("spring.datasource.url", environment.jdbcUrl(LocalEnvironment.USER_DATABASE));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.autoconfigure.exclude",
+                "org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration,"
+                        + "org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration");
+        properties.put("spring.mail.host", "127.0.0.1");
+        properties.put("spring.mail.port", String.valueOf(environment.mailSink().port()));
+        properties.put("spring.security.oauth2.client.registration.google.client-id", "perf");
+        properties.put("spring.security.oauth2.client.registration.google.client-secret", "perf");
+        properties.put("app.oauth2.redirect-uri", "http://localhost:3000/oauth2/redirect");
+        properties.put("server.app.base-url-web", "http://localhost:3000");
+        properties.put("app.keycloak.enabled", "false");
+        properties.put("app.file.upload-dir", config.workDir().resolve("uploads").toAbsolutePath().toString());
+        properties.put("app.file.allowed-extensions", "jpg,jpeg,png,gif,webp");
+        properties.put("app.messaging.consumer.group-id", "user-service-group");
+        return properties;
+    }
+
+    private static Map<String, String> emailServiceProperties(LoadTestConfig config, LocalEnvironment environment,
+                                                              String userServiceUrl) {
+        Map<String, String> properties = commonProperties("email-service", config, environment);
+        properties.put("spring.mail.host", "127.0.0.1");
+        properties.put("spring.mail.port", String.valueOf(environment.mailSink().port()));
+        properties.put("spring.mail.username", "perf@lovedev.local");
+        properties.put("spring.mail.password", "perf");
+        properties.put("spring.mail.properties.mail.smtp.auth", "false");
+        properties.put("spring.mail.properties.mail.smtp.starttls.enable", "false");
+        properties.put("server.app.base-url-web", "http://localhost:3000");
+        properties.put("services.user-service.url", userServiceUrl);
+        properties.put("app.messaging.consumer.group-id", "email-service-group");
+        return properties;
+    }
+
+    private static Map<String, String> notificationServiceProperties(LoadTestConfig config, LocalEnvironment environment,
+                                                                     String userServiceUrl) {
+        Map<String, String> properties = commonProperties("notification-service", config, environment);
+        properties.put("spring.datasource.url", environment.jdbcUrl(LocalEnvironment.NOTIFICATION_DATABASE));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("app.firebase.service-account-file", "firebase-service-account.json");
+        properties.put("app.firebase.endpoint-override", environment.fcm().baseUrl());
+        properties.put("services.user-service.url", userServiceUrl);
+        properties.put("app.messaging.consumer.group-id", "notification-service-group");
+        return properties;
+    }
+}
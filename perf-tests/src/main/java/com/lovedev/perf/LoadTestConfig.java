@@ -0,0 +1,52 @@
+package com.lovedev.perf;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load test settings, read from -Dperf.* system properties
+ */
+public record LoadTestConfig(
+        List<String> scenarios,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        int seedUsers,
+        int fcmTokensPerUser,
+        Duration fcmLatency,
+        int maxInFlight,
+        Duration requestTimeout,
+        String serviceLogLevel,
+        Path servicesDir,
+        Path workDir
+) {
+
+    public static final List<String> ALL_SCENARIOS = List.of("register", "login", "me", "notification", "email-fanout");
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Arrays.stream(property("perf.scenarios", String.join(",", ALL_SCENARIOS)).split(","))
+                        .map(String::trim)
+                        .filter(s -> !s.isEmpty())
+                        .toList(),
+                Integer.parseInt(property("perf.rate", "50")),
+                Duration.parse(property("perf.warmup", "PT10S")),
+                Duration.parse(property("perf.duration", "PT60S")),
+                Integer.parseInt(property("perf.seed-users", "200")),
+                Integer.parseInt(property("perf.fcm-tokens-per-user", "3")),
+                Duration.ofMillis(Long.parseLong(property("perf.fcm-latency-ms", "20"))),
+                Integer.parseInt(property("perf.max-in-flight", "2000")),
+                Duration.parse(property("perf.request-timeout", "PT30S")),
+                property("perf.service-log-level", "WARN"),
+                Path.of(property("perf.services-dir", "target/services")),
+                Path.of(property("perf.work-dir", "target/perf"))
+        );
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,89 @@
+package com.lovedev.perf.driver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal async JSON client for the services' REST APIs
+ */
+public class ApiClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration timeout;
+
+    public ApiClient(Duration timeout) {
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(16, r -> {
+                    Thread thread = new Thread(r, "api-client");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+    }
+
+    public CompletableFuture<JsonNode> get(String url, String accessToken) {
+        return send(request(url, accessToken).GET().build());
+    }
+
+    public CompletableFuture<JsonNode> post(String url, Object body, String accessToken) {
+        try {
+            return send(request(url, accessToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String url, String accessToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(timeout);
+        if (accessToken != null) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        return builder;
+    }
+
+    private CompletableFuture<JsonNode> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() >= 300) {
+                        throw new ApiException(request.method() + " " + request.uri().getPath()
+                                + " returned " + response.statusCode() + ": " + new String(response.body()));
+                    }
+                    try {
+                        return response.body().length == 0
+                                ? objectMapper.nullNode()
+                                : objectMapper.readTree(response.body());
+                    } catch (Exception e) {
+                        throw new ApiException("Unreadable response from " + request.uri().getPath(), e);
+                    }
+                });
+    }
+
+    /**
+     * Non-2xx response or unreadable body
+     */
+    public static class ApiException extends RuntimeException {
+
+        public ApiException(String message) {
+            super(message);
+        }
+
+        public ApiException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.lovedev.perf.driver;
+
+import com.lovedev.perf.report.ScenarioResult;
+import com.lovedev.perf.scenario.Scenario;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: issues operations on a fixed schedule regardless of response times
+ *
+ * Latency is measured from each operation's intended start, so a stalled system is charged for the
+ * requests it delayed (no coordinated omission). Operations beyond max in-flight are dropped and reported.
+ */
+@Slf4j
+public class RateDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final int maxInFlight;
+    private final Duration drainTimeout;
+
+    public RateDriver(int maxInFlight, Duration drainTimeout) {
+        this.maxInFlight = maxInFlight;
+        this.drainTimeout = drainTimeout;
+    }
+
+    public ScenarioResult run(String name, Scenario scenario, int rate, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        log.info("Running {} at {} ops/s ({} warmup, {} measured)", name, rate, warmup, duration);
+
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = intended >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    dropped.incrementAndGet();
+                }
+                continue;
+            }
+
+            long intendedStart = intended;
+            try {
+                scenario.execute().whenComplete((result, error) -> {
+                    inFlight.release();
+                    if (!measured) {
+                        return;
+                    }
+                    if (error != null) {
+                        failed.incrementAndGet();
+                        log.debug("{} failed: {}", name, error.getMessage());
+                        return;
+                    }
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                    latencies.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                    succeeded.incrementAndGet();
+                });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                if (measured) {
+                    failed.incrementAndGet();
+                }
+            }
+        }
+
+        // Let the tail finish so slow requests still count
+        if (!inFlight.tryAcquire(maxInFlight, drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("{}: {} operations still in flight after {}", name, maxInFlight - inFlight.availablePermits(), drainTimeout);
+        }
+
+        return new ScenarioResult(name, rate, duration, succeeded.get(), failed.get(), dropped.get(), latencies);
+    }
+}
@@ -0,0 +1,93 @@
+package com.lovedev.perf.env;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the FCM v1 send endpoint
+ * Accepts POST /v1/projects/{project}/messages:send, waits the configured latency and returns a message name
+ */
+@Slf4j
+public class FakeFcmServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Duration latency;
+    private final AtomicLong received = new AtomicLong();
+
+    public FakeFcmServer(Duration latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        this.executor = Executors.newFixedThreadPool(64, r -> {
+            Thread thread = new Thread(r, "fake-fcm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/v1/projects/", this::handleSend);
+    }
+
+    public void start() {
+        server.start();
+        log.info("Fake FCM listening on {} (latency {} ms)", baseUrl(), latency.toMillis());
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Messages accepted so far
+     */
+    public long received() {
+        return received.get();
+    }
+
+    private void handleSend(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            if (!"POST".equals(exchange.getRequestMethod()) || !exchange.getRequestURI().getPath().endsWith("/messages:send")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            sleep();
+            long id = received.incrementAndGet();
+            byte[] response = ("{\"name\":\"projects/lovedev-local/messages/" + id + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    private void sleep() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
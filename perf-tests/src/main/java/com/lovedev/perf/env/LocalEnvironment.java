@@ -0,0 +1,95 @@
+package com.lovedev.perf.env;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Local stand-ins for everything the services need: Postgres, Kafka, SMTP and FCM
+ */
+@Slf4j
+public class LocalEnvironment implements AutoCloseable {
+
+    public static final String USER_DATABASE = "user_db";
+    public static final String NOTIFICATION_DATABASE = "notification_db";
+
+    private EmbeddedPostgres postgres;
+    private EmbeddedKafkaKraftBroker kafka;
+    private MailSink mailSink;
+    private FakeFcmServer fcm;
+
+    public void start(Duration fcmLatency) throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + USER_DATABASE);
+            statement.execute("CREATE DATABASE " + NOTIFICATION_DATABASE);
+        }
+        log.info("Embedded Postgres listening on port {}", postgres.getPort());
+
+        kafka = new EmbeddedKafkaKraftBroker(1, 3);
+        kafka.brokerProperties(Map.of(
+                "auto.create.topics.enable", "true",
+                "num.partitions", "3"
+        ));
+        kafka.afterPropertiesSet();
+        log.info("Embedded Kafka listening on {}", kafka.getBrokersAsString());
+
+        mailSink = new MailSink(freePort());
+        mailSink.start();
+
+        fcm = new FakeFcmServer(fcmLatency);
+        fcm.start();
+    }
+
+    public String jdbcUrl(String database) {
+        return "jdbc:postgresql://127.0.0.1:" + postgres.getPort() + "/" + database;
+    }
+
+    public Connection connect(String database) throws SQLException {
+        return postgres.getDatabase("postgres", database).getConnection();
+    }
+
+    public String kafkaBootstrapServers() {
+        return kafka.getBrokersAsString();
+    }
+
+    public MailSink mailSink() {
+        return mailSink;
+    }
+
+    public FakeFcmServer fcm() {
+        return fcm;
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (fcm != null) {
+            fcm.close();
+        }
+        if (mailSink != null) {
+            mailSink.close();
+        }
+        if (kafka != null) {
+            kafka.destroy();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.lovedev.perf.env;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GreenMail SMTP sink that completes a future when mail for a watched recipient arrives
+ * Arrival is detected by polling, so delivery latency has ~20 ms resolution
+ */
+@Slf4j
+public class MailSink implements AutoCloseable {
+
+    private static final long POLL_INTERVAL_MS = 20;
+
+    private final GreenMail greenMail;
+    private final Map<String, CompletableFuture<Void>> watched = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "mail-sink-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int seen;
+
+    public MailSink(int port) {
+        this.greenMail = new GreenMail(new ServerSetup(port, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+    }
+
+    public void start() {
+        greenMail.start();
+        poller.scheduleWithFixedDelay(this::poll, POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        log.info("SMTP sink listening on 127.0.0.1:{}", port());
+    }
+
+    public int port() {
+        return greenMail.getSmtp().getPort();
+    }
+
+    public int received() {
+        return greenMail.getReceivedMessages().length;
+    }
+
+    /**
+     * Future completed when the next mail to the recipient is received
+     */
+    public CompletableFuture<Void> expect(String recipient) {
+        return watched.computeIfAbsent(recipient.toLowerCase(), key -> new CompletableFuture<>());
+    }
+
+    private void poll() {
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        for (int i = seen; i < messages.length; i++) {
+            try {
+                Address[] recipients = messages[i].getRecipients(Message.RecipientType.TO);
+                if (recipients == null) {
+                    continue;
+                }
+                for (Address address : recipients) {
+                    String email = address instanceof InternetAddress internet ? internet.getAddress() : address.toString();
+                    CompletableFuture<Void> future = watched.remove(email.toLowerCase());
+                    if (future != null) {
+                        future.complete(null);
+                    }
+                }
+            } catch (MessagingException e) {
+                log.debug("Skipping unreadable message", e);
+            }
+        }
+        seen = messages.length;
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        greenMail.stop();
+    }
+}
@@ -0,0 +1,174 @@
+package com.lovedev.perf.env;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Boots a Spring Boot service in-process from its executable jar
+ *
+ * The jar is exploded once and loaded through its own class loader (parent: platform),
+ * so each service keeps its own Spring Boot version, application.yml and Flyway migrations.
+ */
+@Slf4j
+public class ServiceLauncher {
+
+    private static final String BOOT_CLASSES = "BOOT-INF/classes/";
+    private static final String BOOT_LIB = "BOOT-INF/lib/";
+    private static final String CLASSPATH_INDEX = "BOOT-INF/classpath.idx";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final Path servicesDir;
+    private final Path workDir;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    public ServiceLauncher(Path servicesDir, Path workDir) {
+        this.servicesDir = servicesDir;
+        this.workDir = workDir;
+    }
+
+    /**
+     * Start the service and block until its HTTP port answers
+     */
+    public void start(String name, int port, Map<String, String> properties) throws Exception {
+        Path jar = servicesDir.resolve(name + ".jar");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Missing " + jar + ", run 'mvn install -DskipTests' for the services first");
+        }
+
+        Path exploded = explode(name, jar);
+        ClassLoader classLoader = classLoader(name, exploded);
+        String startClass;
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            startClass = jarFile.getManifest().getMainAttributes().getValue("Start-Class");
+        }
+
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=" + port);
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        Thread main = new Thread(() -> {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            try {
+                Method mainMethod = classLoader.loadClass(startClass).getMethod("main", String[].class);
+                mainMethod.invoke(null, (Object) args.toArray(String[]::new));
+            } catch (Throwable e) {
+                failed.completeExceptionally(e);
+            }
+        }, name + "-main");
+        main.start();
+
+        awaitHttp(name, port, failed);
+        log.info("{} started on port {}", name, port);
+    }
+
+    private void awaitHttp(String name, int port, CompletableFuture<Void> failed) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (failed.isCompletedExceptionally()) {
+                failed.join();
+            }
+            try {
+                // Any status means the context refreshed and the connector is accepting requests
+                httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (IOException e) {
+                Thread.sleep(500);
+            }
+        }
+        throw new IllegalStateException(name + " did not start within " + STARTUP_TIMEOUT);
+    }
+
+    private Path explode(String name, Path jar) throws IOException {
+        Path target = workDir.resolve("services").resolve(name);
+        Path marker = target.resolve(".exploded");
+        String stamp = Files.size(jar) + ":" + Files.getLastModifiedTime(jar).toMillis();
+        if (Files.exists(marker) && Files.readString(marker).equals(stamp)) {
+            return target;
+        }
+
+        deleteRecursively(target);
+        Files.createDirectories(target);
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !entry.getName().startsWith("BOOT-INF/")) {
+                    continue;
+                }
+                Path file = target.resolve(entry.getName()).normalize();
+                if (!file.startsWith(target)) {
+                    throw new IOException("Illegal entry in " + jar + ": " + entry.getName());
+                }
+                Files.createDirectories(file.getParent());
+                try (InputStream in = jarFile.getInputStream(entry)) {
+                    Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        Files.writeString(marker, stamp);
+        log.info("Exploded {} into {}", jar.getFileName(), target);
+        return target;
+    }
+
+    private ClassLoader classLoader(String name, Path exploded) throws IOException {
+        List<URL> urls = new ArrayList<>();
+        urls.add(exploded.resolve(BOOT_CLASSES).toUri().toURL());
+
+        // Keep the jar's classpath order when it ships an index
+        Path index = exploded.resolve(CLASSPATH_INDEX);
+        if (Files.exists(index)) {
+            for (String line : Files.readAllLines(index)) {
+                String entry = line.replaceFirst("^- ", "").replace("\"", "").trim();
+                if (!entry.isEmpty()) {
+                    urls.add(exploded.resolve(entry).toUri().toURL());
+                }
+            }
+        } else {
+            try (Stream<Path> libs = Files.list(exploded.resolve(BOOT_LIB))) {
+                for (Path lib : libs.sorted().toList()) {
+                    urls.add(lib.toUri().toURL());
+                }
+            }
+        }
+        return new URLClassLoader(name, urls.toArray(URL[]::new), ClassLoader.getPlatformClassLoader());
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
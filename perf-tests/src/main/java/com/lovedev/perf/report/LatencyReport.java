@@ -0,0 +1,60 @@
+package com.lovedev.perf.report;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput and latency percentiles per scenario, printed and written to the work directory
+ */
+public class LatencyReport {
+
+    private static final String HEADER_FORMAT = "%-14s %8s %10s %9s %7s %8s %10s %10s %10s %10s%n";
+    private static final String ROW_FORMAT = "%-14s %8d %10.1f %9d %7d %8d %10.2f %10.2f %10.2f %10.2f%n";
+
+    private final List<ScenarioResult> results = new ArrayList<>();
+    private final List<String> notes = new ArrayList<>();
+
+    public void add(ScenarioResult result) {
+        results.add(result);
+    }
+
+    public void note(String note) {
+        notes.add(note);
+    }
+
+    public String render() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(HEADER_FORMAT,
+                "scenario", "target/s", "achieved/s", "ok", "errors", "dropped", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (ScenarioResult result : results) {
+            out.append(String.format(ROW_FORMAT,
+                    result.name(),
+                    result.targetRate(),
+                    result.throughput(),
+                    result.succeeded(),
+                    result.failed(),
+                    result.dropped(),
+                    result.percentileMillis(50),
+                    result.percentileMillis(99),
+                    result.percentileMillis(99.9),
+                    result.maxMillis()));
+        }
+        notes.forEach(note -> out.append(note).append(System.lineSeparator()));
+        return out.toString();
+    }
+
+    /**
+     * Write the rendered report, returns the file path
+     */
+    public Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("report-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt");
+        Files.writeString(file, render());
+        return file;
+    }
+}
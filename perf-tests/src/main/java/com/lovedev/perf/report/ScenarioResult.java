@@ -0,0 +1,31 @@
+package com.lovedev.perf.report;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one scenario run, latencies in microseconds
+ */
+public record ScenarioResult(
+        String name,
+        int targetRate,
+        Duration measured,
+        long succeeded,
+        long failed,
+        long dropped,
+        Histogram latencies
+) {
+
+    public double throughput() {
+        return succeeded / (measured.toNanos() / 1_000_000_000d);
+    }
+
+    public double percentileMillis(double percentile) {
+        return latencies.getTotalCount() == 0 ? 0 : latencies.getValueAtPercentile(percentile) / 1000d;
+    }
+
+    public double maxMillis() {
+        return latencies.getTotalCount() == 0 ? 0 : latencies.getMaxValue() / 1000d;
+    }
+}
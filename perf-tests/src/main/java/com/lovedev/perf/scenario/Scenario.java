@@ -0,0 +1,12 @@
+package com.lovedev.perf.scenario;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One load-test operation; must not block the calling thread
+ */
+@FunctionalInterface
+public interface Scenario {
+
+    CompletableFuture<?> execute();
+}
@@ -0,0 +1,100 @@
+package com.lovedev.perf.scenario;
+
+import com.lovedev.perf.driver.ApiClient;
+import com.lovedev.perf.env.MailSink;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scenarios driven by the load test
+ */
+public class Scenarios {
+
+    private final ApiClient apiClient;
+    private final UserSeeder seeder;
+    private final MailSink mailSink;
+    private final String userServiceUrl;
+    private final String notificationServiceUrl;
+    private final List<SeededUser> users;
+    private final SeededUser admin;
+    private final Duration mailTimeout;
+
+    public Scenarios(ApiClient apiClient, UserSeeder seeder, MailSink mailSink,
+                     String userServiceUrl, String notificationServiceUrl,
+                     List<SeededUser> users, SeededUser admin, Duration mailTimeout) {
+        this.apiClient = apiClient;
+        this.seeder = seeder;
+        this.mailSink = mailSink;
+        this.userServiceUrl = userServiceUrl;
+        this.notificationServiceUrl = notificationServiceUrl;
+        this.users = users;
+        this.admin = admin;
+        this.mailTimeout = mailTimeout;
+    }
+
+    public Scenario byName(String name) {
+        return switch (name) {
+            case "register" -> register();
+            case "login" -> login();
+            case "me" -> currentUser();
+            case "notification" -> sendNotification();
+            case "email-fanout" -> emailFanOut();
+            default -> throw new IllegalArgumentException("Unknown scenario: " + name);
+        };
+    }
+
+    /**
+     * POST /auth/register with a fresh address
+     */
+    public Scenario register() {
+        return () -> seeder.register(seeder.nextEmail("register"));
+    }
+
+    /**
+     * POST /auth/login as a random seeded user
+     */
+    public Scenario login() {
+        return () -> seeder.login(randomUser().email());
+    }
+
+    /**
+     * GET /users/me as a random seeded user
+     */
+    public Scenario currentUser() {
+        return () -> apiClient.get(userServiceUrl + "/api/v1/users/me", randomUser().accessToken());
+    }
+
+    /**
+     * POST /notifications/send as admin; FCM delivery is asynchronous and counted by the fake FCM server
+     */
+    public Scenario sendNotification() {
+        return () -> apiClient.post(notificationServiceUrl + "/api/v1/notifications/send", Map.of(
+                "userId", admin.id().toString(),
+                "title", "Load test",
+                "body", "Load test notification",
+                "type", "INFO"
+        ), admin.accessToken());
+    }
+
+    /**
+     * Register, then wait until email-service delivers the verification mail to the SMTP sink
+     * (user-service outbox -> Kafka -> email-service -> SMTP)
+     */
+    public Scenario emailFanOut() {
+        return () -> {
+            String email = seeder.nextEmail("fanout");
+            var delivered = mailSink.expect(email);
+            return seeder.register(email)
+                    .thenCompose(response -> delivered)
+                    .orTimeout(mailTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        };
+    }
+
+    private SeededUser randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.lovedev.perf.scenario;
+
+import java.util.UUID;
+
+/**
+ * Verified user created before the measured run
+ */
+public record SeededUser(UUID id, String email, String password, String accessToken) {
+}
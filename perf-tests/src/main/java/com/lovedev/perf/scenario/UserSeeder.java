@@ -0,0 +1,131 @@
+package com.lovedev.perf.scenario;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lovedev.perf.driver.ApiClient;
+import com.lovedev.perf.env.LocalEnvironment;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates verified users through the public API; the verification token is read from the user database
+ */
+@Slf4j
+public class UserSeeder {
+
+    public static final String PASSWORD = "Perf@12345";
+
+    private static final int SEED_CONCURRENCY = 16;
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final ApiClient apiClient;
+    private final LocalEnvironment environment;
+    private final String userServiceUrl;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    public UserSeeder(ApiClient apiClient, LocalEnvironment environment, String userServiceUrl) {
+        this.apiClient = apiClient;
+        this.environment = environment;
+        this.userServiceUrl = userServiceUrl;
+    }
+
+    /**
+     * Unique address for this run
+     */
+    public String nextEmail(String prefix) {
+        return prefix + "-" + runId + "-" + SEQUENCE.incrementAndGet() + "@perf.lovedev.local";
+    }
+
+    public CompletableFuture<JsonNode> register(String email) {
+        return apiClient.post(userServiceUrl + "/api/v1/auth/register", Map.of(
+                "email", email,
+                "password", PASSWORD,
+                "firstName", "Perf",
+                "lastName", "User"
+        ), null);
+    }
+
+    public CompletableFuture<JsonNode> login(String email) {
+        return apiClient.post(userServiceUrl + "/api/v1/auth/login", Map.of(
+                "email", email,
+                "password", PASSWORD
+        ), null);
+    }
+
+    public List<SeededUser> seed(int count) throws Exception {
+        List<SeededUser> users = new ArrayList<>(count);
+        for (int offset = 0; offset < count; offset += SEED_CONCURRENCY) {
+            List<CompletableFuture<SeededUser>> batch = new ArrayList<>();
+            for (int i = offset; i < Math.min(count, offset + SEED_CONCURRENCY); i++) {
+                batch.add(CompletableFuture.supplyAsync(() -> seedOne(nextEmail("seed"))));
+            }
+            for (CompletableFuture<SeededUser> future : batch) {
+                users.add(future.join());
+            }
+        }
+        log.info("Seeded {} verified users", users.size());
+        return users;
+    }
+
+    /**
+     * Seeded user that also holds ROLE_ADMIN, needed by the notification send endpoint
+     */
+    public SeededUser seedAdmin() throws SQLException {
+        String email = nextEmail("admin");
+        SeededUser user = seedOne(email);
+        try (Connection connection = environment.connect(LocalEnvironment.USER_DATABASE)) {
+            try (PreparedStatement insertRole = connection.prepareStatement(
+                    "INSERT INTO roles (name, description, is_system_role) VALUES ('ROLE_ADMIN', 'Load test admin', false) "
+                            + "ON CONFLICT (name) DO NOTHING")) {
+                insertRole.executeUpdate();
+            }
+            try (PreparedStatement link = connection.prepareStatement(
+                    "INSERT INTO user_roles (user_id, role_id) SELECT ?, id FROM roles WHERE name = 'ROLE_ADMIN'")) {
+                link.setObject(1, user.id());
+                link.executeUpdate();
+            }
+        }
+
+        // Log in again so the access token carries the new role
+        String accessToken = login(email).join().path("data").path("accessToken").asText();
+        return new SeededUser(user.id(), email, PASSWORD, accessToken);
+    }
+
+    private SeededUser seedOne(String email) {
+        JsonNode registered = register(email).join();
+        UUID id = UUID.fromString(registered.path("data").path("user").path("id").asText());
+
+        String token = verificationToken(email);
+        apiClient.get(userServiceUrl + "/api/v1/auth/verify-email?token=" + URLEncoder.encode(token, StandardCharsets.UTF_8), null).join();
+
+        String accessToken = login(email).join().path("data").path("accessToken").asText();
+        return new SeededUser(id, email, PASSWORD, accessToken);
+    }
+
+    private String verificationToken(String email) {
+        try (Connection connection = environment.connect(LocalEnvironment.USER_DATABASE);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT email_verification_token FROM users WHERE email = ?")) {
+            statement.setString(1, email);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getString(1) == null) {
+                    throw new IllegalStateException("No verification token for " + email);
+                }
+                return resultSet.getString(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read verification token for " + email, e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.lovedev.user.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.common.web.dto.ApiResponse;
+import com.lovedev.common.web.dto.PageResponse;
+import com.lovedev.user.mapper.UserMapper;
+import com.lovedev.user.mapper.UserMapperImpl;
+import com.lovedev.user.model.dto.response.UserResponse;
+import com.lovedev.user.model.entity.Permission;
+import com.lovedev.user.model.entity.Role;
+import com.lovedev.user.model.entity.User;
+import com.lovedev.user.model.enums.UserStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User page response path: UserMapper.toResponse, PageResponse.of and ApiResponse serialization
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class UserResponseBenchmark {
+
+    private static final String[] RESOURCES = {"user", "role", "permission", "audit", "file", "notification", "report", "setting"};
+    private static final String[] ACTIONS = {"read", "create", "update", "delete", "manage"};
+
+    @Param({"1", "20", "100"})
+    private int pageSize;
+
+    private UserMapper userMapper;
+    private ObjectMapper objectMapper;
+    private Page<User> page;
+    private PageResponse<UserResponse> mappedPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userMapper = new UserMapperImpl();
+        // Same defaults Spring Boot applies to the MVC ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<Role> roles = buildRoleGraph();
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            users.add(buildUser(i, roles, random));
+        }
+
+        page = new PageImpl<>(users, PageRequest.of(0, pageSize), 10_000);
+        mappedPage = PageResponse.of(page, userMapper::toResponse);
+    }
+
+    @Benchmark
+    public void mapUsers(Blackhole blackhole) {
+        for (User user : page.getContent()) {
+            blackhole.consume(userMapper.toResponse(user));
+        }
+    }
+
+    @Benchmark
+    public PageResponse<UserResponse> mapPage() {
+        return PageResponse.of(page, userMapper::toResponse);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(mappedPage));
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(PageResponse.of(page, userMapper::toResponse)));
+    }
+
+    // ============================================
+    // Fixtures
+    // ============================================
+
+    /**
+     * Seeded role hierarchy: USER < EMPLOYEE < MANAGER < ADMIN, each a superset of the previous
+     */
+    private static List<Role> buildRoleGraph() {
+        List<Permission> permissions = new ArrayList<>();
+        for (String resource : RESOURCES) {
+            for (String action : ACTIONS) {
+                permissions.add(Permission.builder()
+                        .id(UUID.randomUUID())
+                        .name(resource.toUpperCase() + "_" + action.toUpperCase())
+                        .description("Allows " + action + " on " + resource)
+                        .resource(resource)
+                        .action(action)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            }
+        }
+
+        String[] roleNames = {"ROLE_USER", "ROLE_EMPLOYEE", "ROLE_MANAGER", "ROLE_ADMIN"};
+        int[] permissionCounts = {5, 12, 25, permissions.size()};
+        List<Role> roles = new ArrayList<>();
+        for (int i = 0; i < roleNames.length; i++) {
+            roles.add(Role.builder()
+                    .id(UUID.randomUUID())
+                    .name(roleNames[i])
+                    .description(roleNames[i].substring(5) + " role")
+                    .isSystemRole(true)
+                    .permissions(new HashSet<>(permissions.subList(0, permissionCounts[i])))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return roles;
+    }
+
+    /**
+     * Most users only hold ROLE_USER, staff hold two or three roles
+     */
+    private static User buildUser(int index, List<Role> roles, Random random) {
+        Set<Role> userRoles = new HashSet<>();
+        userRoles.add(roles.get(0));
+        int roll = random.nextInt(100);
+        if (roll >= 70) {
+            userRoles.add(roles.get(1));
+        }
+        if (roll >= 90) {
+            userRoles.add(roles.get(2));
+        }
+        if (roll >= 98) {
+            userRoles.add(roles.get(3));
+        }
+
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(random.nextInt(700));
+        return User.builder()
+                .id(UUID.randomUUID())
+                .email("user" + index + "@lovedev.me")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3ZcHYxZjP0jTzVhFpE8Yz1K")
+                .firstName("First" + index)
+                .lastName("Last" + index)
+                .phoneNumber("+85512" + String.format("%06d", index))
+                .address(index + " Norodom Blvd, Phnom Penh")
+                .dateOfBirth(LocalDate.of(1990, 1, 1).plusDays(index))
+                .profilePictureUrl("/api/v1/files/avatars/" + UUID.randomUUID() + ".png")
+                .bio("Bio of user " + index)
+                .status(UserStatus.ACTIVE)
+                .emailVerified(true)
+                .lastLoginAt(LocalDateTime.now().minusHours(random.nextInt(72)))
+                .createdAt(createdAt)
+                .updatedAt(createdAt.plusDays(1))
+                .roles(userRoles)
+                .build();
+    }
+}
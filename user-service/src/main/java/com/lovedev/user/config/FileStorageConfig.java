@@ -0,0 +1,98 @@
+package com.lovedev.user.config;
+
+import com.lovedev.user.storage.LocalStorageBackend;
+import com.lovedev.user.storage.S3StorageBackend;
+import com.lovedev.user.storage.StorageBackend;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * File storage backend configuration
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class FileStorageConfig {
+
+    // S3 rejects non-final parts smaller than 5 MB
+    private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+
+    private final FileStorageProperties properties;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.file.storage.type", havingValue = "local", matchIfMissing = true)
+    public StorageBackend localStorageBackend(@Value("${app.file.upload-dir:./uploads}") String uploadDir) {
+        return new LocalStorageBackend(Paths.get(uploadDir), properties.getLocalHashCacheSize());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.file.storage.type", havingValue = "s3")
+    public S3Client s3Client() {
+        FileStorageProperties.S3 s3 = properties.getS3();
+
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(s3.getRegion()))
+                .forcePathStyle(s3.isPathStyleAccess());
+
+        if (StringUtils.hasText(s3.getEndpoint())) {
+            builder.endpointOverride(URI.create(s3.getEndpoint()));
+        }
+
+        if (StringUtils.hasText(s3.getAccessKey())) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(
+                    AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey())));
+        } else {
+            builder.credentialsProvider(DefaultCredentialsProvider.create());
+        }
+
+        return builder.build();
+    }
+
+    @Bean(name = "storageTransferExecutor")
+    @ConditionalOnProperty(name = "app.file.storage.type", havingValue = "s3")
+    public Executor storageTransferExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getS3().getTransferThreads());
+        executor.setMaxPoolSize(properties.getS3().getTransferThreads());
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("storage-transfer-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.file.storage.type", havingValue = "s3")
+    public StorageBackend s3StorageBackend(S3Client s3Client,
+                                           @Qualifier("storageTransferExecutor") Executor storageTransferExecutor) {
+        FileStorageProperties.S3 s3 = properties.getS3();
+        log.info("Using S3 file storage: bucket={}, endpoint={}", s3.getBucket(),
+                StringUtils.hasText(s3.getEndpoint()) ? s3.getEndpoint() : "aws");
+
+        return new S3StorageBackend(s3Client,
+                s3.getBucket(),
+                s3.getMultipartThreshold().toBytes(),
+                (int) Math.max(s3.getPartSize().toBytes(), MIN_PART_SIZE),
+                Math.max(1, s3.getUploadConcurrency()),
+                storageTransferExecutor);
+    }
+}
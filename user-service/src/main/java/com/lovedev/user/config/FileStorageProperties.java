@@ -0,0 +1,86 @@
+package com.lovedev.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * File storage backend configuration properties
+ * Local disk by default; set type to "s3" for an S3-compatible object store
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.file.storage")
+@Data
+public class FileStorageProperties {
+
+    /**
+     * Storage backend: local or s3
+     */
+    private String type = "local";
+
+    /**
+     * Content hashes of local files kept in memory, the least recently used are hashed again on demand
+     */
+    private long localHashCacheSize = 100000;
+
+    /**
+     * S3-compatible object store settings
+     */
+    private S3 s3 = new S3();
+
+    @Data
+    public static class S3 {
+
+        /**
+         * Endpoint override (e.g. http://localhost:9000 for MinIO), empty for AWS
+         */
+        private String endpoint;
+
+        /**
+         * Region
+         */
+        private String region = "us-east-1";
+
+        /**
+         * Bucket name
+         */
+        private String bucket = "lovedev-uploads";
+
+        /**
+         * Access key, falls back to the default AWS credentials chain when empty
+         */
+        private String accessKey;
+
+        /**
+         * Secret key
+         */
+        private String secretKey;
+
+        /**
+         * Use path-style URLs (required by MinIO and most S3 stand-ins)
+         */
+        private boolean pathStyleAccess = false;
+
+        /**
+         * Uploads at or above this size use parallel multipart upload
+         * Above app.file.max-size, so only internal files (storePrivateFile, e.g. exports) reach it
+         */
+        private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+
+        /**
+         * Multipart part size (S3 minimum is 5 MB)
+         */
+        private DataSize partSize = DataSize.ofMegabytes(8);
+
+        /**
+         * Parts of a single upload in flight at once
+         */
+        private int uploadConcurrency = 4;
+
+        /**
+         * Threads shared by all uploads for part transfers
+         */
+        private int transferThreads = 8;
+    }
+}
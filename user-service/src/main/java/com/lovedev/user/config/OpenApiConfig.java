@@ -82,7 +82,10 @@ public class OpenApiConfig {
                                 .description("User profile management endpoints"),
                         new Tag()
                                 .name("Admin")
-                                .description("Admin user management endpoints (Admin only)")))
+                                .description("Admin user management endpoints (Admin only)"),
+                        new Tag()
+                                .name("Files")
+                                .description("Uploaded file serving endpoints")))
                 .addSecurityItem(new SecurityRequirement().addList(securitySchemeName))
                 .components(new Components()
                         .addSecuritySchemes(securitySchemeName,
@@ -0,0 +1,47 @@
+package com.lovedev.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Purge engine configuration properties
+ * Controls how expired/revoked rows are removed in bounded chunks
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.purge")
+@Data
+public class PurgeProperties {
+
+    /**
+     * Enable scheduled purging
+     */
+    private boolean enabled = true;
+
+    /**
+     * Rows per chunk (one short transaction each)
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Upper bound on rows processed per second, 0 for unlimited
+     */
+    private int maxRowsPerSecond = 5000;
+
+    /**
+     * Minimum pause between chunks
+     */
+    private Duration pauseBetweenChunks = Duration.ofMillis(100);
+
+    /**
+     * Stop a run after this long, the rest is picked up next time
+     */
+    private Duration maxRunDuration = Duration.ofMinutes(30);
+
+    /**
+     * How long revoked refresh tokens are kept before purging
+     */
+    private Duration revokedTokenRetention = Duration.ofDays(1);
+}
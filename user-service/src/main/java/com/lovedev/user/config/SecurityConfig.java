@@ -4,8 +4,10 @@ import com.lovedev.user.security.CustomUserDetailsService;
 import com.lovedev.common.security.jwt.JwtAuthenticationFilter;
 import com.lovedev.user.security.OAuth2AuthenticationSuccessHandler;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -18,8 +20,10 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.util.Arrays;
 import java.util.List;
 
 @Configuration
@@ -34,7 +38,11 @@ public class SecurityConfig {
     private final PasswordEncoder passwordEncoder; // Inject instead of
     private final CorsConfigurationSource corsConfigurationSource;
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            @Value("${app.metrics.scrape-networks:127.0.0.1/32,::1/128,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+            String[] scrapeNetworks) throws Exception {
+        List<IpAddressMatcher> scrapers = Arrays.stream(scrapeNetworks).map(IpAddressMatcher::new).toList();
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
@@ -54,6 +62,11 @@ public class SecurityConfig {
                                 "/oauth2/**"
                         ).permitAll()
 
+                        // Metrics scrape, only from the monitoring network
+                        .requestMatchers("/actuator/prometheus").access((authentication, context) ->
+                                new AuthorizationDecision(scrapers.stream()
+                                        .anyMatch(network -> network.matches(context.getRequest()))))
+
                         // Admin endpoints
                         .requestMatchers("/api/v1/admin/**").hasAuthority("ROLE_SUPER_ADMIN")
 
@@ -3,15 +3,20 @@ package com.lovedev.user.controller;
 import com.lovedev.user.model.dto.request.*;
 import com.lovedev.common.web.dto.ApiResponse;
 import com.lovedev.common.web.dto.PageResponse;
+import com.lovedev.user.model.dto.response.UserImportJobResponse;
 import com.lovedev.user.model.dto.response.UserResponse;
+import com.lovedev.user.service.UserImportService;
 import com.lovedev.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +29,7 @@ import java.util.UUID;
 public class AdminController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @Operation(summary = "Search users", description = "Search and filter users with pagination")
     @GetMapping("/users")
@@ -124,4 +130,28 @@ public class AdminController {
         UserResponse response = userService.updateRoles(id, request.getRoleNames());
         return ResponseEntity.ok(ApiResponse.success("User roles updated successfully", response));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Bulk import users",
+            description = "Import users from a CSV (header: email,password,firstName,lastName[,phoneNumber]) or NDJSON file. Runs as a background job")
+    @PostMapping(value = "/users/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<UserImportJobResponse>> importUsers(@RequestParam("file") MultipartFile file) {
+        UserImportJobResponse response = userImportService.startImport(file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("User import started", response));
+    }
+
+    @Operation(summary = "Get user import job", description = "Get progress of a bulk user import job")
+    @GetMapping("/users/import/{jobId}")
+    public ResponseEntity<ApiResponse<UserImportJobResponse>> getImportJob(@PathVariable UUID jobId) {
+        UserImportJobResponse response = userImportService.getJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "Resume user import job", description = "Resume a failed or stalled import job from its last checkpoint")
+    @PostMapping("/users/import/{jobId}/resume")
+    public ResponseEntity<ApiResponse<UserImportJobResponse>> resumeImportJob(@PathVariable UUID jobId) {
+        UserImportJobResponse response = userImportService.resumeJob(jobId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("User import resumed", response));
+    }
+}
@@ -0,0 +1,39 @@
+package com.lovedev.user.controller;
+
+import com.lovedev.user.service.FileServingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/files")
+@RequiredArgsConstructor
+@Tag(name = "Files", description = "Uploaded file serving endpoints")
+public class FileController {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final FileServingService fileServingService;
+
+    @Operation(
+            summary = "Get file",
+            description = "Serve an uploaded file (avatars, documents). Supports HEAD, Range requests and ETag revalidation"
+    )
+    @RequestMapping(value = "/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void getFile(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String fileName = PATH_MATCHER.extractPathWithinPattern(pattern, path);
+
+        fileServingService.serveFile(fileName, request, response);
+    }
+}
@@ -0,0 +1,380 @@
+package com.lovedev.user.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.user.purge.PurgeEngine;
+import com.lovedev.user.purge.PurgeTarget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relays event_outbox rows to Kafka
+ *
+ * Each batch is claimed in one short statement that sets a lease
+ * ({@code app.outbox.lease-ms}) on rows picked with FOR UPDATE SKIP LOCKED, so
+ * replicas relay disjoint rows without coordination and no transaction is open
+ * while Kafka is waited on. The whole batch is handed to the producer and
+ * acknowledged against one deadline, then results are written back in a second
+ * short transaction. Rows of a replica that died are picked up again once their
+ * lease runs out; delivery is at-least-once.
+ *
+ * Rows of one topic and key keep their order: a batch sends them one wave at a
+ * time, a failed row holds back the rest of its key, and a row is not claimed while
+ * an earlier row of its key waits for a retry. A failed send is retried with
+ * exponential backoff from {@code app.outbox.backoff-initial-ms} up to
+ * {@code app.outbox.backoff-max-ms}, however long the broker is down. Only rows
+ * that can never be sent (unreadable payload, serialization failure, record too
+ * large) are marked dead: they are no longer polled, counted in
+ * {@code outbox.events.dead} and purged after {@code app.outbox.dead-retention}.
+ * Commits nudge the relay so delivery latency stays well below the poll interval.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String CLAIM_BATCH_SQL = """
+            UPDATE event_outbox SET claimed_until = ?
+            WHERE id IN (
+                SELECT o.id FROM event_outbox o
+                WHERE o.published_at IS NULL AND o.dead_at IS NULL
+                  AND (o.claimed_until IS NULL OR o.claimed_until < ?)
+                  AND (o.next_attempt_at IS NULL OR o.next_attempt_at <= ?)
+                  AND NOT EXISTS (
+                      SELECT 1 FROM event_outbox e
+                      WHERE e.topic = o.topic AND e.message_key = o.message_key
+                        AND e.published_at IS NULL AND e.dead_at IS NULL
+                        AND (e.created_at, e.id) < (o.created_at, o.id)
+                        AND (e.next_attempt_at > ? OR e.claimed_until >= ?))
+                ORDER BY o.created_at, o.id
+                LIMIT ?
+                FOR UPDATE OF o SKIP LOCKED)
+            RETURNING id, topic, message_key, payload_type, payload, created_at
+            """;
+
+    private static final String MARK_PUBLISHED_SQL = """
+            UPDATE event_outbox SET published_at = ?, claimed_until = NULL, next_attempt_at = NULL, last_error = NULL
+            WHERE id = ANY(?)
+            """;
+
+    private static final String MARK_RETRY_SQL = """
+            UPDATE event_outbox
+            SET attempts = attempts + 1,
+                last_error = ?,
+                claimed_until = NULL,
+                next_attempt_at = CAST(? AS TIMESTAMP)
+                    + LEAST(? * POWER(2, LEAST(attempts, 20)), ?) * INTERVAL '1 millisecond'
+            WHERE id = ANY(?)
+            """;
+
+    private static final String MARK_DEAD_SQL = """
+            UPDATE event_outbox
+            SET attempts = attempts + 1, last_error = ?, claimed_until = NULL, dead_at = ?
+            WHERE id = ANY(?)
+            """;
+
+    private static final String RELEASE_SQL = "UPDATE event_outbox SET claimed_until = NULL WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final PurgeEngine purgeEngine;
+    private final Executor outboxRelayExecutor;
+    private final Counter deadEvents;
+
+    private final Map<String, Class<?>> payloadTypes = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.outbox.backoff-initial-ms:1000}")
+    private long backoffInitialMs;
+
+    @Value("${app.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${app.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${app.outbox.retention:P7D}")
+    private Duration retention;
+
+    @Value("${app.outbox.dead-retention:P30D}")
+    private Duration deadRetention;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       PurgeEngine purgeEngine,
+                       @Qualifier("outboxRelayExecutor") Executor outboxRelayExecutor,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.purgeEngine = purgeEngine;
+        this.outboxRelayExecutor = outboxRelayExecutor;
+        this.deadEvents = meterRegistry.counter("outbox.events.dead");
+    }
+
+    /**
+     * Trigger a relay pass without waiting for the next poll
+     */
+    public void requestRelay() {
+        outboxRelayExecutor.execute(this::relayPending);
+    }
+
+    /**
+     * Relay pending rows batch by batch until the outbox is drained
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void relayPending() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            int batches = 0;
+            Integer relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed != null && relayed >= batchSize && ++batches < maxBatchesPerRun);
+        } catch (Exception e) {
+            log.error("Outbox relay failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTs = Timestamp.valueOf(now);
+        // The lease outlives the send deadline, so a live replica never loses its rows mid-batch
+        long lease = Math.max(leaseMs, 2 * sendTimeoutMs);
+        List<OutboxRow> rows = new ArrayList<>(jdbcTemplate.query(CLAIM_BATCH_SQL, (rs, rowNum) -> new OutboxRow(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("topic"),
+                        rs.getString("message_key"),
+                        rs.getString("payload_type"),
+                        rs.getString("payload"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                Timestamp.valueOf(now.plus(lease, ChronoUnit.MILLIS)), nowTs, nowTs, nowTs, nowTs, batchSize));
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        // RETURNING has no order, records of a key must go out in creation order
+        rows.sort(Comparator.comparing(OutboxRow::createdAt).thenComparing(OutboxRow::id));
+
+        Map<String, Deque<OutboxRow>> byKey = new LinkedHashMap<>();
+        for (OutboxRow row : rows) {
+            byKey.computeIfAbsent(orderingKey(row), key -> new ArrayDeque<>()).add(row);
+        }
+
+        List<UUID> published = new ArrayList<>(rows.size());
+        List<UUID> retry = new ArrayList<>();
+        List<UUID> dead = new ArrayList<>();
+        List<UUID> released = new ArrayList<>();
+        String retryError = null;
+        String deadError = null;
+
+        // One deadline for the batch, a slow broker costs at most sendTimeoutMs per batch
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        while (!byKey.isEmpty() && System.nanoTime() < deadline) {
+            // The oldest row of every key, handed to the producer together so they are batched on the wire
+            List<String> keys = new ArrayList<>(byKey.keySet());
+            List<CompletableFuture<?>> sends = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                sends.add(send(byKey.get(key).peekFirst()));
+            }
+            kafkaTemplate.flush();
+
+            for (int i = 0; i < keys.size(); i++) {
+                Deque<OutboxRow> queue = byKey.get(keys.get(i));
+                OutboxRow row = queue.pollFirst();
+                Throwable failure = await(sends.get(i), deadline);
+                if (failure == null) {
+                    published.add(row.id());
+                    if (queue.isEmpty()) {
+                        byKey.remove(keys.get(i));
+                    }
+                    continue;
+                }
+
+                String error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+                if (isRetryable(failure)) {
+                    retry.add(row.id());
+                    retryError = error;
+                    log.warn("Failed to relay outbox event {} to topic {}, retrying with backoff",
+                            row.id(), row.topic(), failure);
+                } else {
+                    dead.add(row.id());
+                    deadError = error;
+                    log.error("Outbox event {} to topic {} can never be relayed", row.id(), row.topic(), failure);
+                }
+                // Later rows of the key wait until this one went out
+                queue.forEach(held -> released.add(held.id()));
+                byKey.remove(keys.get(i));
+            }
+        }
+        byKey.values().forEach(queue -> queue.forEach(row -> released.add(row.id())));
+
+        String retryMessage = truncate(retryError);
+        String deadMessage = truncate(deadError);
+        transactionTemplate.executeWithoutResult(status -> {
+            Timestamp finishedAt = Timestamp.valueOf(LocalDateTime.now());
+            if (!published.isEmpty()) {
+                updateByIds(MARK_PUBLISHED_SQL, published, finishedAt);
+            }
+            if (!retry.isEmpty()) {
+                updateByIds(MARK_RETRY_SQL, retry, retryMessage, finishedAt, backoffInitialMs, backoffMaxMs);
+            }
+            if (!dead.isEmpty()) {
+                updateByIds(MARK_DEAD_SQL, dead, deadMessage, finishedAt);
+            }
+            if (!released.isEmpty()) {
+                updateByIds(RELEASE_SQL, released);
+            }
+        });
+
+        log.debug("Outbox batch relayed: {} published, {} to retry, {} held back",
+                published.size(), retry.size(), released.size());
+        if (!dead.isEmpty()) {
+            deadEvents.increment(dead.size());
+            log.error("{} outbox events were marked dead, last error: {}", dead.size(), deadMessage);
+        }
+        return rows.size();
+    }
+
+    private CompletableFuture<?> send(OutboxRow row) {
+        try {
+            Object payload = objectMapper.readValue(row.payload(), payloadType(row.payloadType()));
+            return kafkaTemplate.send(row.topic(), row.messageKey(), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Wait for a send until the batch deadline
+     *
+     * @return the failure, null when the record was acknowledged
+     */
+    private static Throwable await(CompletableFuture<?> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        } catch (ExecutionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (TimeoutException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Whether a later attempt can succeed, a payload that cannot be read or serialized never will
+     */
+    private static boolean isRetryable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException
+                    || cause instanceof IllegalArgumentException
+                    || cause instanceof SerializationException
+                    || cause instanceof RecordTooLargeException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rows sharing this key must be published in order, rows without a message key have no order
+     */
+    private static String orderingKey(OutboxRow row) {
+        return row.messageKey() != null ? row.topic() + '\u0000' + row.messageKey() : row.id().toString();
+    }
+
+    /**
+     * Purge relayed rows and dead rows past their retention
+     */
+    @Scheduled(cron = "${app.outbox.purge-cron:0 30 2 * * *}")
+    public void purgePublished() {
+        purgeEngine.run("outbox-purge", List.of(
+                PurgeTarget.delete("published-outbox-events", "event_outbox",
+                        "published_at < ?", retention),
+                PurgeTarget.delete("dead-outbox-events", "event_outbox",
+                        "dead_at < ?", deadRetention)
+        ));
+    }
+
+    private void updateByIds(String sql, List<UUID> ids, Object... params) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            ps.setArray(params.length + 1, connection.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        });
+    }
+
+    private Class<?> payloadType(String className) {
+        return payloadTypes.computeIfAbsent(className, name -> {
+            try {
+                return Class.forName(name);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("Unknown outbox payload type: " + name, e);
+            }
+        });
+    }
+
+    private String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private record OutboxRow(UUID id, String topic, String messageKey, String payloadType, String payload,
+                             LocalDateTime createdAt) {
+    }
+}
@@ -1,29 +1,43 @@
 package com.lovedev.user.kafka;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lovedev.common.messaging.constant.KafkaTopics;
+import com.lovedev.common.web.util.TransactionUtils;
 import com.lovedev.user.model.dto.request.UserEventRequest;
+import com.lovedev.user.model.entity.OutboxEvent;
+import com.lovedev.user.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * Kafka Producer for User Events
  * Publishes user-related events to Kafka topics
  *
  * Updated to use messaging-starter infrastructure
+ * Events go through the transactional outbox (event_outbox + OutboxRelay)
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserEventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;  // ✅ From messaging-starter
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO event_outbox (id, topic, message_key, payload_type, payload, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
 
     /**
      * Publish user verify email event
@@ -65,29 +79,62 @@ public class UserEventProducer {
     }
 
     /**
-     * Generic method to publish events to Kafka
+     * Write the event to the outbox in the caller's transaction
+     * OutboxRelay publishes it once the transaction commits; a rollback discards it.
      */
     private void publishEvent(String topic, String key, UserEventRequest event) {
         try {
-            log.info("Publishing event to topic: {} with key: {}, eventType: {}",
+            log.info("Queueing event for topic: {} with key: {}, eventType: {}",
                     topic, key, event.getEventType());
 
-            CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(topic, key, event);  // ✅ Simple send
-
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    log.info("Successfully published event to topic: {} with key: {} - Partition: {}, Offset: {}",
-                            topic, key,
-                            result.getRecordMetadata().partition(),
-                            result.getRecordMetadata().offset());
-                } else {
-                    log.error("Failed to publish event to topic: {} with key: {}", topic, key, ex);
-                }
-            });
-        } catch (Exception e) {
-            log.error("Exception while publishing event to topic: {}", topic, e);
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .topic(topic)
+                    .messageKey(key)
+                    .payloadType(event.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+
+            relayAfterCommit();
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize event for topic: {}", topic, e);
+            throw new RuntimeException("Failed to publish event", e);
+        }
+    }
+
+    /**
+     * Publish verify email events for many users with one batched outbox insert
+     */
+    public void publishUserVerifyEmails(Map<UUID, Map<String, Object>> usersData) {
+        if (usersData.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(usersData.size());
+        try {
+            for (Map.Entry<UUID, Map<String, Object>> entry : usersData.entrySet()) {
+                UserEventRequest event = UserEventRequest.builder()
+                        .userId(entry.getKey())
+                        .eventType("USER_VERIFY_EMAIL")
+                        .data(entry.getValue())
+                        .build();
+                rows.add(new Object[]{UUID.randomUUID(), KafkaTopics.EMAIL_VERIFY, entry.getKey().toString(),
+                        UserEventRequest.class.getName(), objectMapper.writeValueAsString(event), now});
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize verify email events", e);
             throw new RuntimeException("Failed to publish event", e);
         }
+
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, rows);
+        log.info("Queued {} verify email events", rows.size());
+        relayAfterCommit();
+    }
+
+    /**
+     * Nudge the relay once the surrounding transaction commits
+     */
+    private void relayAfterCommit() {
+        TransactionUtils.afterCommit(outboxRelay::requestRelay);
     }
-}
\ No newline at end of file
+}
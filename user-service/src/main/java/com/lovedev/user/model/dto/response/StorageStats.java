@@ -5,6 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+
 /**
  * Storage Statistics DTO
  */
@@ -16,4 +19,19 @@ public class StorageStats {
     private long totalSize;
     private String totalSizeReadable;
     private long fileCount;
-}
\ No newline at end of file
+    private Map<String, DirectoryStats> directories;
+    private LocalDateTime lastReconciledAt;
+
+    /**
+     * Per-subdirectory breakdown (avatars, documents, ...)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DirectoryStats {
+        private long totalSize;
+        private String totalSizeReadable;
+        private long fileCount;
+    }
+}
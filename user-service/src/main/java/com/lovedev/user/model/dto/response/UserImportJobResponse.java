@@ -0,0 +1,32 @@
+package com.lovedev.user.model.dto.response;
+
+import com.lovedev.user.model.enums.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Bulk user import job progress
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportJobResponse {
+    private UUID id;
+    private String format;
+    private ImportJobStatus status;
+    private long processedRows;
+    private long importedCount;
+    private long skippedCount;
+    private long failedCount;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
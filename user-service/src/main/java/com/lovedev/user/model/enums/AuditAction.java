@@ -11,5 +11,6 @@ public enum AuditAction {
     RESET_PASSWORD,
     CHANGE_ROLE,
     CHANGE_STATUS,
-    UPLOAD_AVATAR
+    UPLOAD_AVATAR,
+    IMPORT_USERS
 }
\ No newline at end of file
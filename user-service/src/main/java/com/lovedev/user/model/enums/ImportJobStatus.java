@@ -0,0 +1,8 @@
+package com.lovedev.user.model.enums;
+
+public enum ImportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
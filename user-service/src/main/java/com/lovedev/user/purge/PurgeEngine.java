@@ -0,0 +1,201 @@
+package com.lovedev.user.purge;
+
+import com.lovedev.common.web.util.AdvisoryLocks;
+import com.lovedev.user.config.PurgeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chunked, throttled purge engine
+ *
+ * Rows are processed in id-ordered chunks of {@code app.purge.chunk-size}, each
+ * in its own short transaction, so a large backlog never holds long locks or
+ * produces one huge WAL burst. Between chunks the engine sleeps for at least
+ * {@code pause-between-chunks} and long enough to stay under
+ * {@code max-rows-per-second}.
+ *
+ * Only one replica runs a given job: a PostgreSQL session advisory lock keyed
+ * on the job name is held on a dedicated connection for the whole run and is
+ * released automatically if that replica dies.
+ */
+@Component
+@Slf4j
+public class PurgeEngine {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PurgeProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicLong> progress = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> lastSuccess = new ConcurrentHashMap<>();
+    private volatile boolean stopping;
+
+    public PurgeEngine(DataSource dataSource,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       PurgeProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a purge job if this replica wins the job lock
+     *
+     * @return false when another replica holds the lock
+     */
+    public boolean run(String jobName, List<PurgeTarget> targets) {
+        try {
+            if (!AdvisoryLocks.runExclusive(dataSource, jobName, () -> runTargets(jobName, targets))) {
+                log.info("Purge job {} is running on another instance, skipping", jobName);
+                return false;
+            }
+            return true;
+        } catch (SQLException e) {
+            log.error("Purge job {} could not acquire its lock", jobName, e);
+            return false;
+        }
+    }
+
+    private void runTargets(String jobName, List<PurgeTarget> targets) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long deadline = System.nanoTime() + properties.getMaxRunDuration().toNanos();
+        String outcome = "completed";
+
+        log.info("Starting purge job {}", jobName);
+        try {
+            for (PurgeTarget target : targets) {
+                if (!purgeTarget(jobName, target, deadline)) {
+                    outcome = "stopped";
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            log.error("Purge job {} failed", jobName, e);
+        } finally {
+            sample.stop(meterRegistry.timer("purge.run", "job", jobName, "outcome", outcome));
+            log.info("Purge job {} {}", jobName, outcome);
+        }
+    }
+
+    /**
+     * Purge one target chunk by chunk
+     *
+     * @return false when the run was cut short (deadline or shutdown)
+     */
+    private boolean purgeTarget(String jobName, PurgeTarget target, long deadline) {
+        Tags tags = Tags.of("job", jobName, "target", target.name());
+        Counter rowsCounter = meterRegistry.counter("purge.rows", tags);
+        Counter chunksCounter = meterRegistry.counter("purge.chunks", tags);
+        String key = jobName + "/" + target.name();
+        AtomicLong runProgress = gauge("purge.progress.rows", tags, progress, key);
+        AtomicLong successGauge = gauge("purge.last.success.seconds", tags, lastSuccess, key);
+
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(target.retention()));
+        String selectSql = target.selectSql();
+        String applySql = target.applySql();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+
+        runProgress.set(0);
+        UUID cursor = MIN_UUID;
+        long total = 0;
+
+        while (true) {
+            if (stopping || System.nanoTime() > deadline) {
+                log.warn("Purge {}/{} stopped after {} rows, remainder is left for the next run",
+                        jobName, target.name(), total);
+                return false;
+            }
+
+            long chunkStart = System.nanoTime();
+            List<UUID> ids = jdbcTemplate.queryForList(selectSql, UUID.class, cutoff, cursor, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            cursor = ids.get(ids.size() - 1);
+
+            Integer affected = transactionTemplate.execute(status -> jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(applySql);
+                ps.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+                ps.setTimestamp(2, cutoff);
+                return ps;
+            }));
+
+            int rows = affected != null ? affected : 0;
+            total += rows;
+            rowsCounter.increment(rows);
+            chunksCounter.increment();
+            runProgress.set(total);
+
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            if (!throttle(rows, chunkStart)) {
+                return false;
+            }
+        }
+
+        successGauge.set(System.currentTimeMillis() / 1000);
+        log.info("Purge {}/{} completed: {} rows", jobName, target.name(), total);
+        return true;
+    }
+
+    /**
+     * Sleep for the configured pause, or longer to honour the rate limit
+     */
+    private boolean throttle(int rows, long chunkStartNanos) {
+        long pauseMillis = properties.getPauseBetweenChunks().toMillis();
+        if (properties.getMaxRowsPerSecond() > 0) {
+            long budgetMillis = rows * 1000L / properties.getMaxRowsPerSecond();
+            long elapsedMillis = (System.nanoTime() - chunkStartNanos) / 1_000_000;
+            pauseMillis = Math.max(pauseMillis, budgetMillis - elapsedMillis);
+        }
+
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private AtomicLong gauge(String name, Tags tags, Map<String, AtomicLong> holders, String key) {
+        return holders.computeIfAbsent(key, k -> meterRegistry.gauge(name, tags, new AtomicLong()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+}
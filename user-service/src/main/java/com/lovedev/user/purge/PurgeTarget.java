@@ -0,0 +1,57 @@
+package com.lovedev.user.purge;
+
+import java.time.Duration;
+
+/**
+ * A set of rows to purge
+ *
+ * The predicate is plain SQL with a single {@code ?} bound to the cutoff
+ * (run start minus retention). Rows are deleted, updated in place (e.g.
+ * clearing expired token columns) or moved to another table. The table must
+ * have a UUID primary key named {@code id}.
+ *
+ * @param name      target name, used in logs and metric tags
+ * @param table     table name
+ * @param predicate rows eligible for purging
+ * @param applySql  statement applied to each chunk, binds the id array then the cutoff;
+ *                  the predicate is re-checked so rows changed since the select are left alone
+ * @param retention how far behind now the cutoff is
+ */
+public record PurgeTarget(
+        String name,
+        String table,
+        String predicate,
+        String applySql,
+        Duration retention
+) {
+
+    public static PurgeTarget delete(String name, String table, String predicate, Duration retention) {
+        return new PurgeTarget(name, table, predicate,
+                "DELETE FROM " + table + chunkWhere(predicate), retention);
+    }
+
+    public static PurgeTarget update(String name, String table, String setClause, String predicate, Duration retention) {
+        return new PurgeTarget(name, table, predicate,
+                "UPDATE " + table + " SET " + setClause + chunkWhere(predicate), retention);
+    }
+
+    /**
+     * Delete rows and insert them elsewhere in the same statement
+     *
+     * @param insertFromMoved INSERT ... SELECT ... FROM moved, where moved holds the deleted rows;
+     *                        other tables read in it still show their pre-delete state (cascades included)
+     */
+    public static PurgeTarget move(String name, String table, String predicate, String insertFromMoved, Duration retention) {
+        return new PurgeTarget(name, table, predicate,
+                "WITH moved AS (DELETE FROM " + table + chunkWhere(predicate) + " RETURNING *) " + insertFromMoved,
+                retention);
+    }
+
+    String selectSql() {
+        return "SELECT id FROM " + table + " WHERE (" + predicate + ") AND id > ? ORDER BY id LIMIT ?";
+    }
+
+    private static String chunkWhere(String predicate) {
+        return " WHERE id = ANY(?) AND (" + predicate + ")";
+    }
+}
@@ -0,0 +1,55 @@
+package com.lovedev.user.purge;
+
+import com.lovedev.user.config.PurgeProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Moves users soft-deleted more than app.user-archive.after-days ago to users_archive
+ *
+ * Keeps the live users table and its indexes small. Role links are captured as
+ * role_ids and removed by the FK cascade; refresh tokens cascade too and audit
+ * logs keep their rows with user_id set to NULL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserArchiveJob {
+
+    private static final String INSERT_ARCHIVE_SQL = """
+            INSERT INTO users_archive (id, email, password, first_name, last_name, phone_number, address,
+                                       date_of_birth, profile_picture_url, bio, status, email_verified,
+                                       last_login_at, created_at, updated_at, deleted_at, role_ids)
+            SELECT m.id, m.email, m.password, m.first_name, m.last_name, m.phone_number, m.address,
+                   m.date_of_birth, m.profile_picture_url, m.bio, m.status, m.email_verified,
+                   m.last_login_at, m.created_at, m.updated_at, m.deleted_at,
+                   COALESCE((SELECT array_agg(ur.role_id) FROM user_roles ur WHERE ur.user_id = m.id), '{}')
+            FROM moved m
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private final PurgeEngine purgeEngine;
+    private final PurgeProperties purgeProperties;
+
+    @Value("${app.user-archive.after-days:30}")
+    private int archiveAfterDays;
+
+    @Scheduled(cron = "${app.user-archive.cron:0 0 3 * * *}")
+    public void archiveDeletedUsers() {
+        if (!purgeProperties.isEnabled()) {
+            return;
+        }
+
+        purgeEngine.run("user-archive", List.of(
+                PurgeTarget.move("soft-deleted-users", "users",
+                        "deleted_at IS NOT NULL AND deleted_at < ?",
+                        INSERT_ARCHIVE_SQL, Duration.ofDays(archiveAfterDays))
+        ));
+    }
+}
@@ -0,0 +1,45 @@
+package com.lovedev.user.repository;
+
+import com.lovedev.user.model.entity.StorageStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface StorageStatRepository extends JpaRepository<StorageStat, String> {
+
+    /**
+     * Add a replica's counted changes to a directory, so replicas never overwrite each other
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO storage_stats (directory, total_size, file_count, updated_at)
+            VALUES (:directory, :bytes, :files, CURRENT_TIMESTAMP)
+            ON CONFLICT (directory) DO UPDATE
+            SET total_size = storage_stats.total_size + EXCLUDED.total_size,
+                file_count = storage_stats.file_count + EXCLUDED.file_count,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int addDelta(String directory, long bytes, long files);
+
+    /**
+     * Replace a directory's totals with the ones observed by a reconcile walk
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO storage_stats (directory, total_size, file_count, reconciled_at, updated_at)
+            VALUES (:directory, :bytes, :files, :reconciledAt, CURRENT_TIMESTAMP)
+            ON CONFLICT (directory) DO UPDATE
+            SET total_size = EXCLUDED.total_size,
+                file_count = EXCLUDED.file_count,
+                reconciled_at = EXCLUDED.reconciled_at,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int replaceTotals(String directory, long bytes, long files, LocalDateTime reconciledAt);
+}
@@ -0,0 +1,26 @@
+package com.lovedev.user.repository;
+
+import com.lovedev.user.model.entity.UserImportJob;
+import com.lovedev.user.model.enums.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface UserImportJobRepository extends JpaRepository<UserImportJob, UUID> {
+
+    /**
+     * Claim a job for this instance; a RUNNING job whose heartbeat is stale can be taken over
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserImportJob j SET j.status = :running, j.updatedAt = :now, " +
+            "j.startedAt = COALESCE(j.startedAt, :now), j.lastError = NULL " +
+            "WHERE j.id = :id AND (j.status IN :claimable OR (j.status = :running AND j.updatedAt < :staleBefore))")
+    int claim(UUID id, ImportJobStatus running, Collection<ImportJobStatus> claimable,
+              LocalDateTime now, LocalDateTime staleBefore);
+}
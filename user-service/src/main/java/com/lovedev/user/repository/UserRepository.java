@@ -33,7 +33,8 @@ public interface UserRepository extends JpaRepository<User, UUID> {
             "u.lastName LIKE CONCAT('%', :keyword, '%') OR " +
             "u.email LIKE CONCAT('%', :keyword, '%')) AND " +
             "(:status IS NULL OR u.status = :status) AND " +
-            "(:emailVerified IS NULL OR u.emailVerified = :emailVerified)")
+            "(:emailVerified IS NULL OR u.emailVerified = :emailVerified) AND " +
+            "u.deletedAt IS NULL")
     Page<User> searchUsers(@Param("keyword") String keyword,
                            @Param("status") UserStatus status,
                            @Param("emailVerified") Boolean emailVerified,
@@ -0,0 +1,18 @@
+package com.lovedev.user.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Service interface for serving stored files over HTTP
+ */
+public interface FileServingService {
+
+    /**
+     * Write stored file to the response
+     * Handles conditional requests (ETag), single byte ranges and HEAD
+     */
+    void serveFile(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException;
+}
@@ -0,0 +1,27 @@
+package com.lovedev.user.service;
+
+import com.lovedev.user.model.dto.response.UserImportJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+
+/**
+ * Service interface for bulk user import
+ */
+public interface UserImportService {
+
+    /**
+     * Start a bulk import from an uploaded CSV or NDJSON file
+     */
+    UserImportJobResponse startImport(MultipartFile file);
+
+    /**
+     * Get import job progress
+     */
+    UserImportJobResponse getJob(UUID jobId);
+
+    /**
+     * Resume a failed or stalled import job from its last checkpoint
+     */
+    UserImportJobResponse resumeJob(UUID jobId);
+}
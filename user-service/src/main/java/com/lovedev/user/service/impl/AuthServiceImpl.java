@@ -20,6 +20,8 @@ import com.lovedev.common.security.jwt.JwtTokenProvider;
 import com.lovedev.user.service.AuditService;
 import com.lovedev.user.service.AuthService;
 import com.lovedev.user.service.TokenService;
+import com.lovedev.user.util.UserActivityTracker;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -48,6 +50,7 @@ public class AuthServiceImpl implements AuthService {
     private final UserEventProducer userEventProducer;
     private final AuditService auditService;
     private final UserMapper userMapper;
+    private final UserActivityTracker userActivityTracker;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -129,6 +132,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Transactional
+    @Timed(value = "lovedev.auth.login", description = "Password login latency")
     public AuthResponse login(LoginRequest request) {
         // Authenticate user
         Authentication authentication = authenticationManager.authenticate(
@@ -152,9 +156,8 @@ public class AuthServiceImpl implements AuthService {
         String accessToken = jwtTokenProvider.generateAccessToken(authentication);
         RefreshToken refreshToken = tokenService.createRefreshToken(user);
 
-        // Update last login
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        // Update last login (write-behind, no row update on the login path)
+        LocalDateTime lastLoginAt = userActivityTracker.recordLogin(user.getId());
 
         log.info("User logged in: {}", user.getEmail());
 
@@ -162,6 +165,7 @@ public class AuthServiceImpl implements AuthService {
         auditService.logAction(user, AuditAction.LOGIN, "User logged in successfully");
 
         UserResponse userResponse = userMapper.toResponse(user);
+        userResponse.setLastLoginAt(lastLoginAt);
 
         return AuthResponse.of(
                 accessToken,
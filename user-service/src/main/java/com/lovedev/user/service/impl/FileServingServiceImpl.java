@@ -0,0 +1,199 @@
+package com.lovedev.user.service.impl;
+
+import com.lovedev.common.web.exception.ResourceNotFoundException;
+import com.lovedev.user.service.FileServingService;
+import com.lovedev.user.storage.StoredObject;
+import com.lovedev.user.util.FileUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service implementation for serving stored files
+ *
+ * On Tomcat local files are handed to the connector's sendfile support, so the bytes
+ * go from the page cache to the socket without a heap copy and the request thread
+ * returns immediately. On other containers FileChannel.transferTo copies into the
+ * servlet output stream through a small heap buffer. Remote backends are streamed
+ * with a ranged read, never buffered whole.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileServingServiceImpl implements FileServingService {
+
+    // Tomcat sendfile request attributes (org.apache.coyote.Constants)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final FileUtil fileUtil;
+
+    @Value("${app.file.cache-max-age:31536000}")
+    private long cacheMaxAgeSeconds;
+
+    @Override
+    public void serveFile(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (fileUtil.isPrivateFile(fileName)) {
+            throw new ResourceNotFoundException("File not found: " + fileName);
+        }
+
+        StoredObject storedFile = fileUtil.getStoredFile(fileName)
+                .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileName));
+
+        long fileLength = storedFile.size();
+        long lastModified = storedFile.lastModified();
+        String eTag = "\"" + storedFile.contentHash() + "\"";
+
+        // Stored names are random UUIDs and never rewritten, so content is immutable
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + cacheMaxAgeSeconds + ", immutable");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesIfNoneMatch(request, eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(resolveContentType(storedFile));
+
+        long start = 0;
+        long end = fileLength - 1;
+        HttpRange range = resolveRange(request, eTag, lastModified);
+
+        if (range != null) {
+            try {
+                start = range.getRangeStart(fileLength);
+                end = range.getRangeEnd(fileLength);
+            } catch (IllegalArgumentException ex) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileLength);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileLength);
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+
+        long contentLength = fileLength == 0 ? 0 : end - start + 1;
+        response.setContentLengthLong(contentLength);
+
+        if (HttpMethod.HEAD.matches(request.getMethod()) || contentLength == 0) {
+            return;
+        }
+
+        Optional<Path> localPath = fileUtil.getLocalPath(fileName);
+        if (localPath.isEmpty()) {
+            try (InputStream inputStream = fileUtil.openFile(fileName, start, contentLength)) {
+                inputStream.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+
+        Path filePath = localPath.get();
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, filePath.toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            log.debug("Serving file via sendfile: {} [{}-{}]", fileName, start, end);
+            return;
+        }
+
+        transfer(filePath, start, contentLength, response);
+    }
+
+    /**
+     * Copy a file region to the response with FileChannel.transferTo
+     */
+    private void transfer(Path filePath, long start, long length, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    /**
+     * Check If-None-Match against the current ETag
+     */
+    private boolean matchesIfNoneMatch(HttpServletRequest request, String eTag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolve the requested byte range
+     * Returns null (serve the whole file) when there is no Range header, the
+     * If-Range validator no longer matches, the header is malformed or it asks
+     * for multiple ranges.
+     */
+    private HttpRange resolveRange(HttpServletRequest request, String eTag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            if (ifRangeDate == -1 || lastModified / 1000 > ifRangeDate / 1000) {
+                return null;
+            }
+        }
+
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            log.debug("Ignoring malformed Range header: {}", rangeHeader);
+            return null;
+        }
+    }
+
+    private String resolveContentType(StoredObject storedFile) {
+        if (storedFile.contentType() != null) {
+            return storedFile.contentType();
+        }
+        return MediaTypeFactory.getMediaType(storedFile.key())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+    }
+}
@@ -3,16 +3,20 @@ package com.lovedev.user.service.impl;
 import com.lovedev.common.web.exception.ResourceNotFoundException;
 import com.lovedev.user.model.dto.response.StorageStats;
 import com.lovedev.user.service.FileStorageService;
+import com.lovedev.user.storage.StoredObject;
 import com.lovedev.user.util.FileUtil;
+import com.lovedev.user.util.StorageStatsIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Optional;
 
 /**
  * Service implementation for file storage operations
@@ -22,7 +26,10 @@ import java.nio.file.Path;
 @Slf4j
 public class FileStorageServiceImpl implements FileStorageService {
 
+    private static final String FILE_URL_PREFIX = "/api/v1/files/";
+
     private final FileUtil fileUtil;
+    private final StorageStatsIndex storageStatsIndex;
 
     /**
      * Store avatar file
@@ -30,7 +37,9 @@ public class FileStorageServiceImpl implements FileStorageService {
     @Override
     public String storeAvatar(MultipartFile file) {
         log.info("Storing avatar file: {}", file.getOriginalFilename());
-        return fileUtil.storeFile(file, "avatars");
+        String fileName = fileUtil.storeFile(file, "avatars");
+        storageStatsIndex.recordStored(fileName, file.getSize());
+        return fileName;
     }
 
     /**
@@ -39,7 +48,9 @@ public class FileStorageServiceImpl implements FileStorageService {
     @Override
     public String storeDocument(MultipartFile file) {
         log.info("Storing document file: {}", file.getOriginalFilename());
-        return fileUtil.storeFile(file, "documents");
+        String fileName = fileUtil.storeFile(file, "documents");
+        storageStatsIndex.recordStored(fileName, file.getSize());
+        return fileName;
     }
 
     /**
@@ -47,16 +58,20 @@ public class FileStorageServiceImpl implements FileStorageService {
      */
     @Override
     public Resource loadFileAsResource(String fileName) {
+        if (fileUtil.isPrivateFile(fileName)) {
+            throw new ResourceNotFoundException("File not found: " + fileName);
+        }
+
         try {
-            Path filePath = fileUtil.getFilePath(fileName);
-            Resource resource = new UrlResource(filePath.toUri());
+            StoredObject storedFile = fileUtil.getStoredFile(fileName)
+                    .orElseThrow(() -> new ResourceNotFoundException("File not found: " + fileName));
 
-            if (resource.exists() && resource.isReadable()) {
-                return resource;
-            } else {
-                throw new ResourceNotFoundException("File not found: " + fileName);
+            Optional<Path> localPath = fileUtil.getLocalPath(fileName);
+            if (localPath.isPresent()) {
+                return new UrlResource(localPath.get().toUri());
             }
-        } catch (MalformedURLException ex) {
+            return new InputStreamResource(fileUtil.openFile(fileName, 0, storedFile.size()));
+        } catch (IOException ex) {
             throw new ResourceNotFoundException("File not found: " + fileName);
         }
     }
@@ -67,9 +82,17 @@ public class FileStorageServiceImpl implements FileStorageService {
     @Override
     public void deleteFile(String fileName) {
         if (fileName != null && !fileName.isEmpty()) {
+            // Callers may pass the public URL returned by getFileUrl
+            if (fileName.startsWith(FILE_URL_PREFIX)) {
+                fileName = fileName.substring(FILE_URL_PREFIX.length());
+            }
+
+            long size = fileUtil.getFileSize(fileName);
             boolean deleted = fileUtil.deleteFile(fileName);
             if (!deleted) {
                 log.warn("Failed to delete file: {}", fileName);
+            } else if (size >= 0) {
+                storageStatsIndex.recordDeleted(fileName, size);
             }
         }
     }
@@ -91,18 +114,14 @@ public class FileStorageServiceImpl implements FileStorageService {
             return null;
         }
         // This should match your server configuration
-        return "/api/v1/files/" + fileName;
+        return FILE_URL_PREFIX + fileName;
     }
 
     /**
-     * Get storage statistics
+     * Get storage statistics (served from the incremental index)
      */
     @Override
     public StorageStats getStorageStats() {
-        return StorageStats.builder()
-                .totalSize(fileUtil.getTotalStorageSize())
-                .totalSizeReadable(fileUtil.getReadableFileSize(fileUtil.getTotalStorageSize()))
-                .fileCount(fileUtil.getFileCount())
-                .build();
+        return storageStatsIndex.getStats();
     }
 }
\ No newline at end of file
@@ -15,6 +15,7 @@ import com.lovedev.common.security.jwt.JwtTokenProvider;
 import com.lovedev.user.service.AuditService;
 import com.lovedev.user.service.OAuth2Service;
 import com.lovedev.user.service.TokenService;
+import com.lovedev.user.util.UserActivityTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -43,6 +44,7 @@ public class OAuth2ServiceImpl implements OAuth2Service {
     private final JwtTokenProvider jwtTokenProvider;
     private final TokenService tokenService;
     private final AuditService auditService;
+    private final UserActivityTracker userActivityTracker;
 
     /**
      * Process OAuth2 login/registration
@@ -95,16 +97,15 @@ public class OAuth2ServiceImpl implements OAuth2Service {
 
         // ✅ All checks passed - proceed with login
 
-        // Update last login
-        user.setLastLoginAt(LocalDateTime.now());
+        // Update last login (write-behind, no row update on the login path)
+        userActivityTracker.recordLogin(user.getId());
 
         // Update profile picture if available and user doesn't have one
         if (profilePictureUrl != null && user.getProfilePictureUrl() == null) {
             user.setProfilePictureUrl(profilePictureUrl);
+            user = userRepository.save(user);
         }
 
-        user = userRepository.save(user);
-
         // Generate tokens
         CustomUserDetails userDetails = CustomUserDetails.build(user);
         Authentication authentication = new UsernamePasswordAuthenticationToken(
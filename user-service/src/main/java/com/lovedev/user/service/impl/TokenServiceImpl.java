@@ -1,10 +1,13 @@
 package com.lovedev.user.service.impl;
 
 import com.lovedev.common.web.exception.BadRequestException;
+import com.lovedev.user.config.PurgeProperties;
 import com.lovedev.user.model.entity.RefreshToken;
 import com.lovedev.user.model.entity.User;
 import com.lovedev.user.repository.RefreshTokenRepository;
 import com.lovedev.common.security.jwt.JwtTokenProvider;
+import com.lovedev.user.purge.PurgeEngine;
+import com.lovedev.user.purge.PurgeTarget;
 import com.lovedev.user.service.TokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,7 +15,9 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +26,8 @@ public class TokenServiceImpl implements TokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final PurgeEngine purgeEngine;
+    private final PurgeProperties purgeProperties;
 
     @Transactional
     public RefreshToken createRefreshToken(User user) {
@@ -63,12 +70,24 @@ public class TokenServiceImpl implements TokenService {
         refreshTokenRepository.revokeAllUserTokens(user, LocalDateTime.now());
     }
 
-    // Clean up expired tokens daily at 2 AM
-    @Scheduled(cron = "0 0 2 * * *")
-    @Transactional
+    // Clean up expired tokens daily at 2 AM (chunked, one replica only)
+    @Scheduled(cron = "${app.purge.cron:0 0 2 * * *}")
     public void cleanupExpiredTokens() {
-        log.info("Starting cleanup of expired refresh tokens");
-        refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
-        log.info("Completed cleanup of expired refresh tokens");
+        if (!purgeProperties.isEnabled()) {
+            return;
+        }
+
+        purgeEngine.run("token-purge", List.of(
+                PurgeTarget.delete("expired-refresh-tokens", "refresh_tokens",
+                        "expires_at < ?", Duration.ZERO),
+                PurgeTarget.delete("revoked-refresh-tokens", "refresh_tokens",
+                        "revoked = true AND revoked_at < ?", purgeProperties.getRevokedTokenRetention()),
+                PurgeTarget.update("expired-verification-tokens", "users",
+                        "email_verification_token = NULL, email_verification_expires_at = NULL",
+                        "email_verification_token IS NOT NULL AND email_verification_expires_at < ?", Duration.ZERO),
+                PurgeTarget.update("expired-reset-tokens", "users",
+                        "password_reset_token = NULL, password_reset_expires_at = NULL",
+                        "password_reset_token IS NOT NULL AND password_reset_expires_at < ?", Duration.ZERO)
+        ));
     }
 }
\ No newline at end of file
@@ -0,0 +1,420 @@
+package com.lovedev.user.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.common.security.util.SecurityHelper;
+import com.lovedev.common.web.exception.BadRequestException;
+import com.lovedev.common.web.exception.ConflictException;
+import com.lovedev.common.web.exception.ResourceNotFoundException;
+import com.lovedev.user.kafka.UserEventProducer;
+import com.lovedev.user.model.dto.response.UserImportJobResponse;
+import com.lovedev.user.model.entity.Role;
+import com.lovedev.user.model.entity.User;
+import com.lovedev.user.model.entity.UserImportJob;
+import com.lovedev.user.model.enums.AuditAction;
+import com.lovedev.user.model.enums.ImportJobStatus;
+import com.lovedev.user.repository.RoleRepository;
+import com.lovedev.user.repository.UserImportJobRepository;
+import com.lovedev.user.repository.UserRepository;
+import com.lovedev.user.service.AuditService;
+import com.lovedev.user.service.UserImportService;
+import com.lovedev.user.util.FileUtil;
+import com.lovedev.user.util.UserImportReader;
+import com.lovedev.user.util.UserImportReader.ImportRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+/**
+ * Service implementation for bulk user import
+ *
+ * The uploaded file is staged in private storage and processed in batches by a
+ * background job. Per batch: rows are validated and de-duplicated (in-batch, then
+ * against the database with one query), passwords are hashed in parallel on the
+ * bounded password-hash pool, and users, role links, verification events and the
+ * job checkpoint are written with JDBC batches in a single short transaction.
+ * Since the checkpoint commits with the data, a resumed job continues exactly
+ * after the last committed batch.
+ */
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO users (id, email, password, first_name, last_name, phone_number, status, email_verified,
+                               email_verification_token, email_verification_expires_at, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, 'INACTIVE', false, ?, ?, ?, ?)
+            ON CONFLICT (email) DO NOTHING
+            """;
+
+    private static final String INSERT_USER_ROLE_SQL =
+            "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String EXISTING_EMAILS_SQL = "SELECT email FROM users WHERE email = ANY(?)";
+
+    private static final String UPDATE_PROGRESS_SQL = """
+            UPDATE user_import_jobs
+            SET processed_rows = processed_rows + ?, imported_count = imported_count + ?,
+                skipped_count = skipped_count + ?, failed_count = failed_count + ?,
+                last_error = COALESCE(?, last_error), updated_at = ?
+            WHERE id = ?
+            """;
+
+    // Same rules as RegisterRequest
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PASSWORD_PATTERN =
+            Pattern.compile("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,100}$");
+
+    // A RUNNING job without progress for this long is considered abandoned
+    private static final Duration STALE_AFTER = Duration.ofMinutes(5);
+
+    private final UserImportJobRepository userImportJobRepository;
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final FileUtil fileUtil;
+    private final PasswordEncoder passwordEncoder;
+    private final UserEventProducer userEventProducer;
+    private final AuditService auditService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Executor userImportExecutor;
+    private final Executor passwordHashExecutor;
+
+    @Value("${app.user-import.batch-size:500}")
+    private int batchSize;
+
+    public UserImportServiceImpl(UserImportJobRepository userImportJobRepository,
+                                 UserRepository userRepository,
+                                 RoleRepository roleRepository,
+                                 FileUtil fileUtil,
+                                 PasswordEncoder passwordEncoder,
+                                 UserEventProducer userEventProducer,
+                                 AuditService auditService,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Qualifier("userImportExecutor") Executor userImportExecutor,
+                                 @Qualifier("passwordHashExecutor") Executor passwordHashExecutor) {
+        this.userImportJobRepository = userImportJobRepository;
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.fileUtil = fileUtil;
+        this.passwordEncoder = passwordEncoder;
+        this.userEventProducer = userEventProducer;
+        this.auditService = auditService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.userImportExecutor = userImportExecutor;
+        this.passwordHashExecutor = passwordHashExecutor;
+    }
+
+    /**
+     * Stage the file and queue the import job
+     */
+    @Override
+    public UserImportJobResponse startImport(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("Import file is empty");
+        }
+
+        String format = UserImportReader.detectFormat(file.getOriginalFilename());
+        UUID createdBy = SecurityHelper.getCurrentUserId();
+
+        String fileKey;
+        try (InputStream inputStream = file.getInputStream()) {
+            fileKey = fileUtil.storePrivateFile("imports/" + UUID.randomUUID() + "." + format,
+                    inputStream, file.getSize(), file.getContentType());
+        } catch (IOException ex) {
+            throw new BadRequestException("Could not store import file. Please try again!", ex);
+        }
+
+        UserImportJob job = transactionTemplate.execute(status -> {
+            UserImportJob saved = userImportJobRepository.save(UserImportJob.builder()
+                    .fileKey(fileKey)
+                    .format(format)
+                    .createdBy(createdBy)
+                    .build());
+            auditService.logAction(findUser(createdBy), AuditAction.IMPORT_USERS,
+                    "Bulk user import started: job " + saved.getId());
+            return saved;
+        });
+
+        log.info("User import job {} created ({}, {} bytes)", job.getId(), format, file.getSize());
+        submit(job.getId());
+        return toResponse(job);
+    }
+
+    /**
+     * Get import job progress
+     */
+    @Override
+    public UserImportJobResponse getJob(UUID jobId) {
+        return toResponse(findJob(jobId));
+    }
+
+    /**
+     * Resume from the last committed checkpoint
+     */
+    @Override
+    public UserImportJobResponse resumeJob(UUID jobId) {
+        UserImportJob job = findJob(jobId);
+
+        if (job.getStatus() == ImportJobStatus.COMPLETED) {
+            throw new BadRequestException("Import job is already completed");
+        }
+        if (job.getStatus() == ImportJobStatus.RUNNING
+                && job.getUpdatedAt().isAfter(LocalDateTime.now().minus(STALE_AFTER))) {
+            throw new ConflictException("Import job is already running");
+        }
+
+        submit(jobId);
+        return toResponse(job);
+    }
+
+    // ============================================
+    // Job execution
+    // ============================================
+
+    private void submit(UUID jobId) {
+        try {
+            userImportExecutor.execute(() -> runJob(jobId));
+        } catch (TaskRejectedException ex) {
+            log.warn("User import job {} could not be queued, resume it later", jobId);
+        }
+    }
+
+    private void runJob(UUID jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status -> userImportJobRepository.claim(jobId,
+                ImportJobStatus.RUNNING, List.of(ImportJobStatus.PENDING, ImportJobStatus.FAILED),
+                now, now.minus(STALE_AFTER)));
+        if (claimed == null || claimed == 0) {
+            log.info("User import job {} is not claimable, skipping", jobId);
+            return;
+        }
+
+        UserImportJob job = findJob(jobId);
+        log.info("User import job {} running from row {}", jobId, job.getProcessedRows());
+
+        try {
+            UUID roleId = roleRepository.findByName("ROLE_USER")
+                    .map(Role::getId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Default USER role not found"));
+
+            long size = fileUtil.getFileSize(job.getFileKey());
+            if (size < 0) {
+                throw new ResourceNotFoundException("Import file is no longer available");
+            }
+
+            try (InputStream inputStream = fileUtil.openFile(job.getFileKey(), 0, size);
+                 UserImportReader reader = new UserImportReader(inputStream, job.getFormat(), objectMapper)) {
+
+                reader.skip(job.getProcessedRows());
+
+                List<ImportRow> batch = new ArrayList<>(batchSize);
+                while (reader.hasNext()) {
+                    batch.add(reader.next());
+                    if (batch.size() >= batchSize) {
+                        processBatch(jobId, batch, roleId);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    processBatch(jobId, batch, roleId);
+                }
+            }
+
+            completeJob(jobId);
+        } catch (Exception ex) {
+            log.error("User import job {} failed", jobId, ex);
+            failJob(jobId, ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+        }
+    }
+
+    private void processBatch(UUID jobId, List<ImportRow> rows, UUID roleId) {
+        int failed = 0;
+        int skipped = 0;
+        String lastError = null;
+
+        // Validate and de-duplicate within the batch
+        Map<String, ImportRow> candidates = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            String error = validate(row);
+            if (error != null) {
+                failed++;
+                lastError = error;
+            } else if (candidates.putIfAbsent(row.email(), row) != null) {
+                skipped++;
+            }
+        }
+
+        // De-duplicate against existing users (including soft-deleted ones) in one query
+        if (!candidates.isEmpty()) {
+            List<String> existing = jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(EXISTING_EMAILS_SQL);
+                ps.setArray(1, connection.createArrayOf("varchar", candidates.keySet().toArray()));
+                return ps;
+            }, (rs, rowNum) -> rs.getString(1));
+            existing.forEach(email -> candidates.remove(email));
+            skipped += existing.size();
+        }
+
+        // Hash in parallel outside the transaction
+        List<ImportRow> toInsert = new ArrayList<>(candidates.values());
+        List<CompletableFuture<String>> hashes = toInsert.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.password()), passwordHashExecutor))
+                .toList();
+        CompletableFuture.allOf(hashes.toArray(CompletableFuture[]::new)).join();
+
+        int batchFailed = failed;
+        int batchSkipped = skipped;
+        String batchError = lastError;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Timestamp verificationExpiresAt = Timestamp.valueOf(LocalDateTime.now().plusHours(24));
+
+            List<UUID> ids = new ArrayList<>(toInsert.size());
+            List<String> tokens = new ArrayList<>(toInsert.size());
+            List<Object[]> userParams = new ArrayList<>(toInsert.size());
+            for (int i = 0; i < toInsert.size(); i++) {
+                ImportRow row = toInsert.get(i);
+                UUID id = UUID.randomUUID();
+                String token = UUID.randomUUID().toString();
+                ids.add(id);
+                tokens.add(token);
+                userParams.add(new Object[]{id, row.email(), hashes.get(i).join(), row.firstName(), row.lastName(),
+                        row.phoneNumber(), token, verificationExpiresAt, now, now});
+            }
+
+            int[] counts = toInsert.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(INSERT_USER_SQL, userParams);
+
+            // A zero count means the email was taken concurrently (ON CONFLICT DO NOTHING)
+            List<Object[]> roleParams = new ArrayList<>(toInsert.size());
+            Map<UUID, Map<String, Object>> events = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+                ImportRow row = toInsert.get(i);
+                roleParams.add(new Object[]{ids.get(i), roleId});
+                events.put(ids.get(i), Map.of(
+                        "userId", ids.get(i),
+                        "email", row.email(),
+                        "firstName", row.firstName(),
+                        "verificationToken", tokens.get(i)
+                ));
+            }
+
+            if (!roleParams.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, roleParams);
+            }
+            userEventProducer.publishUserVerifyEmails(events);
+
+            int imported = events.size();
+            jdbcTemplate.update(UPDATE_PROGRESS_SQL, rows.size(), imported,
+                    batchSkipped + (toInsert.size() - imported), batchFailed, batchError, now, jobId);
+        });
+
+        log.debug("User import job {}: batch of {} rows committed", jobId, rows.size());
+    }
+
+    private String validate(ImportRow row) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        if (row.email() == null || row.email().length() > 100 || !EMAIL_PATTERN.matcher(row.email()).matches()) {
+            return "Invalid email: " + row.email();
+        }
+        if (row.password() == null || !PASSWORD_PATTERN.matcher(row.password()).matches()) {
+            return "Password does not meet requirements for " + row.email();
+        }
+        if (row.firstName() == null || row.firstName().length() > 50
+                || row.lastName() == null || row.lastName().length() > 50) {
+            return "First and last name are required (max 50 characters) for " + row.email();
+        }
+        if (row.phoneNumber() != null && row.phoneNumber().length() > 20) {
+            return "Phone number too long for " + row.email();
+        }
+        return null;
+    }
+
+    private void completeJob(UUID jobId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            UserImportJob job = findJob(jobId);
+            job.setStatus(ImportJobStatus.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            userImportJobRepository.save(job);
+
+            auditService.logAction(findUser(job.getCreatedBy()), AuditAction.IMPORT_USERS,
+                    String.format("Bulk user import completed: job %s, %d imported, %d skipped, %d failed",
+                            jobId, job.getImportedCount(), job.getSkippedCount(), job.getFailedCount()));
+
+            log.info("User import job {} completed: {} imported, {} skipped, {} failed",
+                    jobId, job.getImportedCount(), job.getSkippedCount(), job.getFailedCount());
+            fileUtil.deleteFile(job.getFileKey());
+        });
+    }
+
+    private void failJob(UUID jobId, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                UserImportJob job = findJob(jobId);
+                job.setStatus(ImportJobStatus.FAILED);
+                job.setLastError(error);
+                userImportJobRepository.save(job);
+            });
+        } catch (Exception ex) {
+            log.error("Could not mark user import job {} as failed", jobId, ex);
+        }
+    }
+
+    // ============================================
+    // Helpers
+    // ============================================
+
+    private UserImportJob findJob(UUID jobId) {
+        return userImportJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found: " + jobId));
+    }
+
+    private User findUser(UUID userId) {
+        return userId != null ? userRepository.findById(userId).orElse(null) : null;
+    }
+
+    private UserImportJobResponse toResponse(UserImportJob job) {
+        return UserImportJobResponse.builder()
+                .id(job.getId())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .processedRows(job.getProcessedRows())
+                .importedCount(job.getImportedCount())
+                .skippedCount(job.getSkippedCount())
+                .failedCount(job.getFailedCount())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
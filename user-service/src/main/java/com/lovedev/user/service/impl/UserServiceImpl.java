@@ -17,6 +17,7 @@ import com.lovedev.user.repository.UserRepository;
 import com.lovedev.user.service.AuditService;
 import com.lovedev.user.service.FileStorageService;
 import com.lovedev.user.service.UserService;
+import com.lovedev.user.util.UserActivityTracker;
 import com.lovedev.common.security.util.SecurityHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -42,6 +43,7 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final AuditService auditService;
     private final FileStorageService fileStorageService;
+    private final UserActivityTracker userActivityTracker;
 
     // ============================================
     // Profile Management (Current User)
@@ -50,7 +52,10 @@ public class UserServiceImpl implements UserService {
     @Transactional(readOnly = true)
     public UserResponse getCurrentUser() {
         User user = getCurrentUserEntity();
-        return userMapper.toResponse(user);
+        UserResponse response = userMapper.toResponse(user);
+        // Last login may not be flushed yet
+        userActivityTracker.getPendingLastLogin(user.getId()).ifPresent(response::setLastLoginAt);
+        return response;
     }
 
     @Transactional
@@ -0,0 +1,167 @@
+package com.lovedev.user.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lovedev.common.web.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Storage backend on the local filesystem (app.file.upload-dir)
+ */
+@Slf4j
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path rootLocation;
+
+    /**
+     * Content hashes keyed by absolute path. Stored files are never rewritten
+     * in place (names are random UUIDs), so an entry stays valid until the file
+     * is deleted; size and mtime are kept to detect out-of-band changes.
+     * Bounded, an evicted entry is hashed again on its next stat.
+     */
+    private final Cache<Path, ContentHash> contentHashes;
+
+    public LocalStorageBackend(Path rootLocation, long maxCachedHashes) {
+        this.rootLocation = rootLocation.toAbsolutePath().normalize();
+        this.contentHashes = Caffeine.newBuilder()
+                .maximumSize(maxCachedHashes)
+                .build();
+
+        try {
+            Files.createDirectories(this.rootLocation);
+            log.info("File storage location created/verified: {}", this.rootLocation);
+        } catch (Exception ex) {
+            throw new BadRequestException("Could not create the directory where the uploaded files will be stored.", ex);
+        }
+    }
+
+    @Override
+    public StoredObject put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+
+        // Copy file to target location, hashing the bytes on the way through
+        MessageDigest digest = newDigest();
+        try (InputStream inputStream = new DigestInputStream(content, digest)) {
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        String hash = HexFormat.of().formatHex(digest.digest());
+        long size = Files.size(target);
+        long lastModified = Files.getLastModifiedTime(target).toMillis();
+        contentHashes.put(target, new ContentHash(hash, size, lastModified));
+
+        return new StoredObject(key, size, lastModified, hash, contentType);
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        Path filePath = resolve(key);
+        if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+            return Optional.empty();
+        }
+
+        long size = Files.size(filePath);
+        long lastModified = Files.getLastModifiedTime(filePath).toMillis();
+        return Optional.of(new StoredObject(key, size, lastModified,
+                contentHash(filePath, size, lastModified), contentType(filePath)));
+    }
+
+    @Override
+    public InputStream open(String key, long start, long length) throws IOException {
+        SeekableByteChannel channel = Files.newByteChannel(resolve(key));
+        channel.position(start);
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Path filePath = resolve(key);
+        Files.deleteIfExists(filePath);
+        contentHashes.invalidate(filePath);
+    }
+
+    @Override
+    public void forEach(Consumer<StoredObject> visitor) throws IOException {
+        try (Stream<Path> paths = Files.walk(rootLocation)) {
+            paths.filter(Files::isRegularFile).forEach(path -> {
+                try {
+                    String key = rootLocation.relativize(path).toString().replace('\\', '/');
+                    visitor.accept(new StoredObject(key, Files.size(path),
+                            Files.getLastModifiedTime(path).toMillis(), null, null));
+                } catch (IOException e) {
+                    log.debug("Skipping unreadable file: {}", path);
+                }
+            });
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    /**
+     * Resolve a key and make sure it stays inside the storage location
+     */
+    private Path resolve(String key) {
+        Path filePath = rootLocation.resolve(key).normalize();
+        if (!filePath.startsWith(rootLocation) || filePath.equals(rootLocation)) {
+            throw new BadRequestException("Invalid file path: " + key);
+        }
+        return filePath;
+    }
+
+    /**
+     * SHA-256 of a file, served from cache when size and mtime are unchanged
+     */
+    private String contentHash(Path filePath, long size, long lastModified) throws IOException {
+        ContentHash cached = contentHashes.getIfPresent(filePath);
+        if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+            return cached.hash();
+        }
+
+        MessageDigest digest = newDigest();
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(filePath), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        contentHashes.put(filePath, new ContentHash(hash, size, lastModified));
+        return hash;
+    }
+
+    private String contentType(Path filePath) {
+        return MediaTypeFactory.getMediaType(filePath.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private record ContentHash(String hash, long size, long lastModified) {
+    }
+}
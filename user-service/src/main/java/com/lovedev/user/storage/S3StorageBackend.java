@@ -0,0 +1,222 @@
+package com.lovedev.user.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Storage backend for S3-compatible object stores (AWS S3, MinIO, ...)
+ *
+ * Large uploads are split into parts that are uploaded in parallel on the
+ * transfer executor; at most {@code uploadConcurrency} parts per upload are
+ * buffered at once. Downloads are streamed with ranged GETs.
+ */
+@Slf4j
+public class S3StorageBackend implements StorageBackend {
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final long multipartThreshold;
+    private final int partSize;
+    private final int uploadConcurrency;
+    private final Executor transferExecutor;
+
+    public S3StorageBackend(S3Client s3Client,
+                            String bucket,
+                            long multipartThreshold,
+                            int partSize,
+                            int uploadConcurrency,
+                            Executor transferExecutor) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.multipartThreshold = multipartThreshold;
+        this.partSize = partSize;
+        this.uploadConcurrency = uploadConcurrency;
+        this.transferExecutor = transferExecutor;
+    }
+
+    @Override
+    public StoredObject put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        if (contentLength >= 0 && contentLength < multipartThreshold) {
+            try {
+                PutObjectResponse response = s3Client.putObject(
+                        builder -> builder.bucket(bucket).key(key).contentType(contentType).contentLength(contentLength),
+                        RequestBody.fromInputStream(content, contentLength));
+                return new StoredObject(key, contentLength, System.currentTimeMillis(),
+                        unquote(response.eTag()), contentType);
+            } catch (SdkException ex) {
+                throw new IOException("Could not upload object: " + key, ex);
+            }
+        }
+        return putMultipart(key, content, contentType);
+    }
+
+    /**
+     * Upload in parts: the calling thread reads the next part while previous
+     * parts are in flight on the transfer executor
+     */
+    private StoredObject putMultipart(String key, InputStream content, String contentType) throws IOException {
+        String uploadId;
+        try {
+            uploadId = s3Client.createMultipartUpload(
+                    builder -> builder.bucket(bucket).key(key).contentType(contentType)).uploadId();
+        } catch (SdkException ex) {
+            throw new IOException("Could not start multipart upload: " + key, ex);
+        }
+
+        Semaphore inFlight = new Semaphore(uploadConcurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        long totalSize = 0;
+
+        try {
+            int partNumber = 1;
+            while (failure.get() == null) {
+                inFlight.acquire();
+                byte[] buffer = content.readNBytes(partSize);
+                if (buffer.length == 0 && partNumber > 1) {
+                    inFlight.release();
+                    break;
+                }
+
+                totalSize += buffer.length;
+                int number = partNumber++;
+                parts.add(CompletableFuture
+                        .supplyAsync(() -> uploadPart(key, uploadId, number, buffer), transferExecutor)
+                        .whenComplete((part, ex) -> {
+                            if (ex != null) {
+                                failure.compareAndSet(null, ex);
+                            }
+                            inFlight.release();
+                        }));
+
+                if (buffer.length < partSize) {
+                    break;
+                }
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completedParts.add(part.join());
+            }
+
+            CompleteMultipartUploadResponse response = s3Client.completeMultipartUpload(builder -> builder
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(upload -> upload.parts(completedParts)));
+
+            log.debug("Multipart upload completed: {} ({} parts, {} bytes)", key, completedParts.size(), totalSize);
+            return new StoredObject(key, totalSize, System.currentTimeMillis(), unquote(response.eTag()), contentType);
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abortMultipart(key, uploadId);
+            throw new InterruptedIOException("Multipart upload interrupted: " + key);
+        } catch (IOException | SdkException | CompletionException ex) {
+            abortMultipart(key, uploadId);
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            throw new IOException("Multipart upload failed: " + key, cause);
+        }
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, int partNumber, byte[] buffer) {
+        String eTag = s3Client.uploadPart(
+                builder -> builder.bucket(bucket).key(key).uploadId(uploadId)
+                        .partNumber(partNumber).contentLength((long) buffer.length),
+                RequestBody.fromBytes(buffer)).eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private void abortMultipart(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(builder -> builder.bucket(bucket).key(key).uploadId(uploadId));
+        } catch (SdkException ex) {
+            log.warn("Could not abort multipart upload {} for {}", uploadId, key, ex);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        try {
+            HeadObjectResponse head = s3Client.headObject(builder -> builder.bucket(bucket).key(key));
+            return Optional.of(new StoredObject(key,
+                    head.contentLength(),
+                    head.lastModified().toEpochMilli(),
+                    unquote(head.eTag()),
+                    head.contentType()));
+        } catch (NoSuchKeyException ex) {
+            return Optional.empty();
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("Could not read object metadata: " + key, ex);
+        } catch (SdkException ex) {
+            throw new IOException("Could not read object metadata: " + key, ex);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long start, long length) throws IOException {
+        try {
+            return s3Client.getObject(builder -> builder
+                    .bucket(bucket)
+                    .key(key)
+                    .range("bytes=" + start + "-" + (start + length - 1)));
+        } catch (SdkException ex) {
+            throw new IOException("Could not open object: " + key, ex);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3Client.deleteObject(builder -> builder.bucket(bucket).key(key));
+        } catch (SdkException ex) {
+            throw new IOException("Could not delete object: " + key, ex);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<StoredObject> visitor) throws IOException {
+        try {
+            s3Client.listObjectsV2Paginator(builder -> builder.bucket(bucket))
+                    .contents()
+                    .forEach(object -> visitor.accept(new StoredObject(object.key(),
+                            object.size(),
+                            object.lastModified().toEpochMilli(),
+                            unquote(object.eTag()),
+                            null)));
+        } catch (SdkException ex) {
+            throw new IOException("Could not list bucket: " + bucket, ex);
+        }
+    }
+
+    private String unquote(String eTag) {
+        if (eTag != null && eTag.length() >= 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+            return eTag.substring(1, eTag.length() - 1);
+        }
+        return eTag;
+    }
+}
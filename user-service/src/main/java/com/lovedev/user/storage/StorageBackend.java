@@ -0,0 +1,52 @@
+package com.lovedev.user.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage SPI for uploaded files
+ *
+ * Keys are normalized relative paths such as "avatars/uuid.png". Validation,
+ * naming and statistics stay in FileUtil/FileStorageService; implementations
+ * only move bytes.
+ */
+public interface StorageBackend {
+
+    /**
+     * Write an object, consuming the stream
+     *
+     * @param contentLength length in bytes, or -1 when unknown
+     */
+    StoredObject put(String key, InputStream content, long contentLength, String contentType) throws IOException;
+
+    /**
+     * Get object metadata, empty when the key does not exist
+     */
+    Optional<StoredObject> stat(String key) throws IOException;
+
+    /**
+     * Open a stream over {@code length} bytes starting at {@code start}
+     */
+    InputStream open(String key, long start, long length) throws IOException;
+
+    /**
+     * Delete an object, a missing key is not an error
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * Visit every stored object (content hash may be null in listings)
+     */
+    void forEach(Consumer<StoredObject> visitor) throws IOException;
+
+    /**
+     * Local filesystem path of an object, for zero-copy serving
+     * Empty for remote backends.
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,15 @@
+package com.lovedev.user.storage;
+
+/**
+ * Metadata of a stored object
+ *
+ * @param contentHash strong validator for the content (SHA-256 locally, ETag on S3)
+ */
+public record StoredObject(
+        String key,
+        long size,
+        long lastModified,
+        String contentHash,
+        String contentType
+) {
+}
@@ -1,6 +1,8 @@
 package com.lovedev.user.util;
 
 import com.lovedev.common.web.exception.BadRequestException;
+import com.lovedev.user.storage.StorageBackend;
+import com.lovedev.user.storage.StoredObject;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -9,13 +11,13 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class for file operations
@@ -24,25 +26,23 @@ import java.util.UUID;
 @Slf4j
 public class FileUtil {
 
-    private final Path fileStorageLocation;
+    /**
+     * Top-level directory for internal files that must never be served publicly
+     */
+    public static final String PRIVATE_DIRECTORY = "private";
+
+    private final StorageBackend storageBackend;
     private final List<String> allowedExtensions;
     private final long maxFileSize;
 
     public FileUtil(
-            @Value("${app.file.upload-dir:./uploads}") String uploadDir,
+            StorageBackend storageBackend,
             @Value("${app.file.allowed-extensions:}") List<String> allowedExtensions,
             @Value("${app.file.max-size:5242880}") long maxFileSize) {
 
-        this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.storageBackend = storageBackend;
         this.allowedExtensions = allowedExtensions;
         this.maxFileSize = maxFileSize;
-
-        try {
-            Files.createDirectories(this.fileStorageLocation);
-            log.info("File storage location created/verified: {}", this.fileStorageLocation);
-        } catch (Exception ex) {
-            throw new BadRequestException("Could not create the directory where the uploaded files will be stored.", ex);
-        }
     }
 
     /**
@@ -72,53 +72,89 @@ public class FileUtil {
             String fileExtension = getFileExtension(originalFileName);
             String newFileName = generateUniqueFileName(fileExtension);
 
-            // Determine target location
-            Path targetLocation;
-            if (subDirectory != null && !subDirectory.isEmpty()) {
-                Path subDirPath = this.fileStorageLocation.resolve(subDirectory);
-                Files.createDirectories(subDirPath);
-                targetLocation = subDirPath.resolve(newFileName);
-            } else {
-                targetLocation = this.fileStorageLocation.resolve(newFileName);
-            }
+            // Determine target key
+            String key = subDirectory != null && !subDirectory.isEmpty()
+                    ? toKey(subDirectory + "/" + newFileName)
+                    : newFileName;
 
-            // Copy file to target location
             try (InputStream inputStream = file.getInputStream()) {
-                Files.copy(inputStream, targetLocation, StandardCopyOption.REPLACE_EXISTING);
+                storageBackend.put(key, inputStream, file.getSize(), file.getContentType());
             }
 
             log.info("File stored successfully: {}", newFileName);
 
             // Return relative path
-            return subDirectory != null
-                    ? subDirectory + "/" + newFileName
-                    : newFileName;
+            return key;
 
         } catch (IOException ex) {
             throw new BadRequestException("Could not store file " + originalFileName + ". Please try again!", ex);
         }
     }
 
+    /**
+     * Store an internal file under the private directory, returns its key
+     */
+    public String storePrivateFile(String name, InputStream inputStream, long size, String contentType) throws IOException {
+        String key = toKey(PRIVATE_DIRECTORY + "/" + name);
+        storageBackend.put(key, inputStream, size, contentType);
+        return key;
+    }
+
+    /**
+     * Check if a file lives under the private directory
+     */
+    public boolean isPrivateFile(String fileName) {
+        try {
+            return toKey(fileName).startsWith(PRIVATE_DIRECTORY + "/");
+        } catch (BadRequestException ex) {
+            return false;
+        }
+    }
+
     /**
      * Delete file
      */
     public boolean deleteFile(String fileName) {
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Files.deleteIfExists(filePath);
+            storageBackend.delete(toKey(fileName));
             log.info("File deleted successfully: {}", fileName);
             return true;
-        } catch (IOException ex) {
+        } catch (IOException | BadRequestException ex) {
             log.error("Could not delete file: {}", fileName, ex);
             return false;
         }
     }
 
     /**
-     * Get file path
+     * Get stored file metadata
      */
-    public Path getFilePath(String fileName) {
-        return this.fileStorageLocation.resolve(fileName).normalize();
+    public Optional<StoredObject> getStoredFile(String fileName) throws IOException {
+        return storageBackend.stat(toKey(fileName));
+    }
+
+    /**
+     * Open a byte range of a stored file
+     */
+    public InputStream openFile(String fileName, long start, long length) throws IOException {
+        return storageBackend.open(toKey(fileName), start, length);
+    }
+
+    /**
+     * Get local path of a stored file, empty when storage is remote
+     */
+    public Optional<Path> getLocalPath(String fileName) {
+        return storageBackend.localPath(toKey(fileName));
+    }
+
+    /**
+     * Get size of a stored file, or -1 if it does not exist
+     */
+    public long getFileSize(String fileName) {
+        try {
+            return getStoredFile(fileName).map(StoredObject::size).orElse(-1L);
+        } catch (Exception ex) {
+            return -1L;
+        }
     }
 
     /**
@@ -126,13 +162,26 @@ public class FileUtil {
      */
     public boolean fileExists(String fileName) {
         try {
-            Path filePath = getFilePath(fileName);
-            return Files.exists(filePath);
+            return getStoredFile(fileName).isPresent();
         } catch (Exception ex) {
             return false;
         }
     }
 
+    /**
+     * Normalize a file name into a storage key, rejecting paths that escape the storage root
+     */
+    private String toKey(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new BadRequestException("Invalid file path: " + fileName);
+        }
+        Path normalized = Paths.get(fileName).normalize();
+        if (normalized.isAbsolute() || normalized.startsWith("..") || normalized.toString().isEmpty()) {
+            throw new BadRequestException("Invalid file path: " + fileName);
+        }
+        return normalized.toString().replace('\\', '/');
+    }
+
     /**
      * Validate file
      */
@@ -229,26 +278,19 @@ public class FileUtil {
      * Clean up old files (files older than specified days)
      */
     public void cleanupOldFiles(int daysOld) {
+        long cutoffTime = System.currentTimeMillis() - (daysOld * 24L * 60L * 60L * 1000L);
+
         try {
-            long cutoffTime = System.currentTimeMillis() - (daysOld * 24L * 60L * 60L * 1000L);
-
-            Files.walk(fileStorageLocation)
-                    .filter(Files::isRegularFile)
-                    .filter(path -> {
-                        try {
-                            return Files.getLastModifiedTime(path).toMillis() < cutoffTime;
-                        } catch (IOException e) {
-                            return false;
-                        }
-                    })
-                    .forEach(path -> {
-                        try {
-                            Files.delete(path);
-                            log.info("Deleted old file: {}", path.getFileName());
-                        } catch (IOException e) {
-                            log.error("Could not delete old file: {}", path.getFileName(), e);
-                        }
-                    });
+            storageBackend.forEach(object -> {
+                if (object.lastModified() < cutoffTime) {
+                    try {
+                        storageBackend.delete(object.key());
+                        log.info("Deleted old file: {}", object.key());
+                    } catch (IOException e) {
+                        log.error("Could not delete old file: {}", object.key(), e);
+                    }
+                }
+            });
 
             log.info("Cleanup completed for files older than {} days", daysOld);
         } catch (IOException ex) {
@@ -260,17 +302,10 @@ public class FileUtil {
      * Get total storage size
      */
     public long getTotalStorageSize() {
+        AtomicLong totalSize = new AtomicLong();
         try {
-            return Files.walk(fileStorageLocation)
-                    .filter(Files::isRegularFile)
-                    .mapToLong(path -> {
-                        try {
-                            return Files.size(path);
-                        } catch (IOException e) {
-                            return 0L;
-                        }
-                    })
-                    .sum();
+            storageBackend.forEach(object -> totalSize.addAndGet(object.size()));
+            return totalSize.get();
         } catch (IOException ex) {
             log.error("Error calculating storage size", ex);
             return 0L;
@@ -281,13 +316,13 @@ public class FileUtil {
      * Get file count
      */
     public long getFileCount() {
+        AtomicLong fileCount = new AtomicLong();
         try {
-            return Files.walk(fileStorageLocation)
-                    .filter(Files::isRegularFile)
-                    .count();
+            storageBackend.forEach(object -> fileCount.incrementAndGet());
+            return fileCount.get();
         } catch (IOException ex) {
             log.error("Error counting files", ex);
             return 0L;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,275 @@
+package com.lovedev.user.util;
+
+import com.lovedev.user.model.dto.response.StorageStats;
+import com.lovedev.user.model.entity.StorageStat;
+import com.lovedev.user.repository.StorageStatRepository;
+import com.lovedev.user.storage.StorageBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incrementally maintained storage statistics
+ *
+ * Counters are updated on every store/delete so reading stats is O(1) in the
+ * number of files. Each replica periodically adds the changes it counted since the
+ * last run to storage_stats and reloads the totals, so replicas sharing a store
+ * never overwrite each other. A low-priority background listing of the storage
+ * backend corrects any drift (files removed out-of-band, cleanup jobs, crashes
+ * between write and count). Private files are internal staging and not counted.
+ */
+@Component
+@Slf4j
+public class StorageStatsIndex {
+
+    /**
+     * Bucket for files stored directly in the upload root
+     */
+    public static final String ROOT_DIRECTORY = "_root";
+
+    private final FileUtil fileUtil;
+    private final StorageBackend storageBackend;
+    private final StorageStatRepository storageStatRepository;
+    private final Executor storageStatsExecutor;
+
+    private final Map<String, DirectoryCounter> counters = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicBoolean reconciling = new AtomicBoolean(false);
+    private volatile LocalDateTime lastReconciledAt;
+
+    public StorageStatsIndex(FileUtil fileUtil,
+                             StorageBackend storageBackend,
+                             StorageStatRepository storageStatRepository,
+                             @Qualifier("storageStatsExecutor") Executor storageStatsExecutor) {
+        this.fileUtil = fileUtil;
+        this.storageBackend = storageBackend;
+        this.storageStatRepository = storageStatRepository;
+        this.storageStatsExecutor = storageStatsExecutor;
+    }
+
+    /**
+     * Seed counters from the last persisted snapshot
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        try {
+            List<StorageStat> snapshot = storageStatRepository.findAll();
+            for (StorageStat stat : snapshot) {
+                if (FileUtil.PRIVATE_DIRECTORY.equals(stat.getDirectory())) {
+                    continue;
+                }
+                counter(stat.getDirectory()).set(stat.getTotalSize(), stat.getFileCount());
+                if (stat.getReconciledAt() != null
+                        && (lastReconciledAt == null || stat.getReconciledAt().isAfter(lastReconciledAt))) {
+                    lastReconciledAt = stat.getReconciledAt();
+                }
+            }
+            log.info("Storage stats loaded from snapshot: {} directories", snapshot.size());
+
+            if (snapshot.isEmpty()) {
+                requestReconcile();
+            }
+        } catch (Exception e) {
+            log.error("Failed to load storage stats snapshot, scheduling reconcile", e);
+            requestReconcile();
+        }
+    }
+
+    /**
+     * Record a newly stored file
+     */
+    public void recordStored(String fileName, long size) {
+        counter(directoryOf(fileName)).add(size, 1);
+        dirty.set(true);
+    }
+
+    /**
+     * Record a deleted file
+     */
+    public void recordDeleted(String fileName, long size) {
+        counter(directoryOf(fileName)).add(-size, -1);
+        dirty.set(true);
+    }
+
+    /**
+     * Current statistics, computed from counters only
+     */
+    public StorageStats getStats() {
+        long totalSize = 0;
+        long fileCount = 0;
+        Map<String, StorageStats.DirectoryStats> directories = new TreeMap<>();
+
+        for (Map.Entry<String, DirectoryCounter> entry : counters.entrySet()) {
+            long size = entry.getValue().bytes();
+            long files = entry.getValue().files();
+            totalSize += size;
+            fileCount += files;
+            directories.put(entry.getKey(), StorageStats.DirectoryStats.builder()
+                    .totalSize(size)
+                    .totalSizeReadable(fileUtil.getReadableFileSize(size))
+                    .fileCount(files)
+                    .build());
+        }
+
+        return StorageStats.builder()
+                .totalSize(totalSize)
+                .totalSizeReadable(fileUtil.getReadableFileSize(totalSize))
+                .fileCount(fileCount)
+                .directories(directories)
+                .lastReconciledAt(lastReconciledAt)
+                .build();
+    }
+
+    /**
+     * Add the changes counted since the last run to the snapshot and reload the totals of all replicas
+     */
+    @Scheduled(fixedDelayString = "${app.file.stats.persist-interval-ms:60000}")
+    public void persistSnapshot() {
+        if (dirty.getAndSet(false)) {
+            int flushed = 0;
+            for (Map.Entry<String, DirectoryCounter> entry : counters.entrySet()) {
+                DirectoryCounter counter = entry.getValue();
+                long bytes = counter.pendingBytes.sumThenReset();
+                long files = counter.pendingFiles.sumThenReset();
+                if (bytes == 0 && files == 0) {
+                    continue;
+                }
+                try {
+                    storageStatRepository.addDelta(entry.getKey(), bytes, files);
+                    counter.base(bytes, files);
+                    flushed++;
+                } catch (Exception e) {
+                    // Kept pending for the next run
+                    counter.add(bytes, files);
+                    dirty.set(true);
+                    log.error("Failed to persist storage stats of directory {}", entry.getKey(), e);
+                }
+            }
+            log.debug("Storage stats persisted: {} directories changed", flushed);
+        }
+
+        try {
+            for (StorageStat stat : storageStatRepository.findAll()) {
+                if (!FileUtil.PRIVATE_DIRECTORY.equals(stat.getDirectory())) {
+                    counter(stat.getDirectory()).set(stat.getTotalSize(), stat.getFileCount());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to reload storage stats snapshot", e);
+        }
+    }
+
+    /**
+     * Schedule a reconcile walk on the low-priority storage executor
+     */
+    @Scheduled(
+            fixedDelayString = "${app.file.stats.reconcile-interval-ms:21600000}",
+            initialDelayString = "${app.file.stats.reconcile-initial-delay-ms:21600000}"
+    )
+    public void requestReconcile() {
+        storageStatsExecutor.execute(this::reconcile);
+    }
+
+    /**
+     * List the storage backend and replace the persisted totals with the observed ones
+     * Changes racing with the walk, on this or another replica, may be off by a file until the next run.
+     */
+    private void reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        try {
+            Map<String, long[]> observed = new HashMap<>();
+
+            // Changes counted so far are on disk already and seen by the walk
+            counters.values().forEach(DirectoryCounter::discardPending);
+            storageBackend.forEach(object -> {
+                if (fileUtil.isPrivateFile(object.key())) {
+                    return;
+                }
+                long[] totals = observed.computeIfAbsent(directoryOf(object.key()), key -> new long[2]);
+                totals[0] += object.size();
+                totals[1]++;
+            });
+
+            LocalDateTime reconciledAt = LocalDateTime.now();
+            for (String directory : counters.keySet()) {
+                observed.putIfAbsent(directory, new long[2]);
+            }
+            observed.forEach((directory, totals) -> {
+                storageStatRepository.replaceTotals(directory, totals[0], totals[1], reconciledAt);
+                counter(directory).set(totals[0], totals[1]);
+            });
+
+            lastReconciledAt = reconciledAt;
+            log.info("Storage stats reconciled in {} ms: {} directories",
+                    System.currentTimeMillis() - startedAt, observed.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Storage stats reconcile failed", e);
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    private DirectoryCounter counter(String directory) {
+        return counters.computeIfAbsent(directory, key -> new DirectoryCounter());
+    }
+
+    private String directoryOf(String fileName) {
+        Path relativePath = Path.of(fileName).normalize();
+        return relativePath.getNameCount() > 1 ? relativePath.getName(0).toString() : ROOT_DIRECTORY;
+    }
+
+    /**
+     * Totals as last persisted plus the changes this replica has not persisted yet
+     */
+    private static class DirectoryCounter {
+        private final AtomicLong baseBytes = new AtomicLong();
+        private final AtomicLong baseFiles = new AtomicLong();
+        private final LongAdder pendingBytes = new LongAdder();
+        private final LongAdder pendingFiles = new LongAdder();
+
+        long bytes() {
+            return baseBytes.get() + pendingBytes.sum();
+        }
+
+        long files() {
+            return baseFiles.get() + pendingFiles.sum();
+        }
+
+        void add(long size, long count) {
+            pendingBytes.add(size);
+            pendingFiles.add(count);
+        }
+
+        void base(long size, long count) {
+            baseBytes.addAndGet(size);
+            baseFiles.addAndGet(count);
+        }
+
+        void set(long size, long count) {
+            baseBytes.set(size);
+            baseFiles.set(count);
+        }
+
+        void discardPending() {
+            pendingBytes.reset();
+            pendingFiles.reset();
+        }
+    }
+}
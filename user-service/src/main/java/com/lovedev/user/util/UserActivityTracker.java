@@ -0,0 +1,120 @@
+package com.lovedev.user.util;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind tracker for users.last_login_at
+ *
+ * Logins only record a timestamp in memory; a scheduled flush writes all pending
+ * timestamps with one UPDATE ... FROM (VALUES ...) per chunk, touching just that
+ * column (no @PreUpdate, no updated_at churn). Repeated logins between flushes
+ * coalesce into a single write. A crash loses at most one flush interval.
+ */
+@Component
+@Slf4j
+public class UserActivityTracker {
+
+    private static final String FLUSH_SQL_PREFIX = "UPDATE users u SET last_login_at = v.last_login_at FROM (VALUES ";
+
+    private static final String FLUSH_SQL_SUFFIX = ") AS v(id, last_login_at) " +
+            "WHERE u.id = v.id AND (u.last_login_at IS NULL OR u.last_login_at < v.last_login_at)";
+
+    private static final String VALUES_ROW = "(CAST(? AS uuid), CAST(? AS timestamp))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    @Value("${app.activity.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    public UserActivityTracker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record a login, returns the recorded timestamp
+     */
+    public LocalDateTime recordLogin(UUID userId) {
+        LocalDateTime now = LocalDateTime.now();
+        pending.merge(userId, now, (current, latest) -> latest.isAfter(current) ? latest : current);
+        return now;
+    }
+
+    /**
+     * Login timestamp not yet written to the database, if any
+     */
+    public Optional<LocalDateTime> getPendingLastLogin(UUID userId) {
+        return Optional.ofNullable(pending.get(userId));
+    }
+
+    /**
+     * Flush pending timestamps in chunks
+     */
+    @Scheduled(fixedDelayString = "${app.activity.flush-interval-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Drain entries; an entry updated concurrently stays for the next flush
+        List<Map.Entry<UUID, LocalDateTime>> drained = new ArrayList<>(pending.size());
+        for (Map.Entry<UUID, LocalDateTime> entry : pending.entrySet()) {
+            UUID userId = entry.getKey();
+            LocalDateTime lastLoginAt = entry.getValue();
+            if (pending.remove(userId, lastLoginAt)) {
+                drained.add(Map.entry(userId, lastLoginAt));
+            }
+        }
+
+        int chunkSize = Math.max(1, flushBatchSize);
+        for (int from = 0; from < drained.size(); from += chunkSize) {
+            List<Map.Entry<UUID, LocalDateTime>> chunk = drained.subList(from, Math.min(from + chunkSize, drained.size()));
+            try {
+                writeChunk(chunk);
+            } catch (Exception e) {
+                log.error("Failed to flush {} last-login timestamps, will retry", chunk.size(), e);
+                chunk.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(),
+                        (current, failed) -> current.isAfter(failed) ? current : failed));
+            }
+        }
+
+        log.debug("Flushed {} last-login timestamps", drained.size());
+    }
+
+    private void writeChunk(List<Map.Entry<UUID, LocalDateTime>> chunk) {
+        StringBuilder sql = new StringBuilder(FLUSH_SQL_PREFIX.length() + chunk.size() * (VALUES_ROW.length() + 2) + 100);
+        Object[] params = new Object[chunk.size() * 2];
+
+        sql.append(FLUSH_SQL_PREFIX);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(VALUES_ROW);
+            params[i * 2] = chunk.get(i).getKey();
+            params[i * 2 + 1] = Timestamp.valueOf(chunk.get(i).getValue());
+        }
+        sql.append(FLUSH_SQL_SUFFIX);
+
+        jdbcTemplate.update(sql.toString(), params);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,220 @@
+package com.lovedev.user.util;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.common.web.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming reader for bulk user import files
+ *
+ * Reads one record at a time so memory use does not depend on file size.
+ * CSV needs a header row (email,password,firstName,lastName[,phoneNumber]);
+ * NDJSON is one JSON object per line with the same field names.
+ */
+public class UserImportReader implements Iterator<UserImportReader.ImportRow>, Closeable {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    /**
+     * One input record; {@code error} is set when the record could not be parsed
+     */
+    public record ImportRow(String email, String password, String firstName, String lastName,
+                            String phoneNumber, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final MappingIterator<Map<String, Object>> jsonRows;
+    private final Map<String, Integer> csvColumns;
+    private ImportRow next;
+
+    public UserImportReader(InputStream inputStream, String format, ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        if (FORMAT_NDJSON.equals(format)) {
+            this.jsonRows = objectMapper.readerForMapOf(Object.class).readValues(reader);
+            this.csvColumns = null;
+        } else if (FORMAT_CSV.equals(format)) {
+            this.jsonRows = null;
+            this.csvColumns = readHeader();
+        } else {
+            throw new BadRequestException("Unsupported import format: " + format);
+        }
+    }
+
+    /**
+     * Resolve the format from a file name, defaulting to CSV
+     */
+    public static String detectFormat(String fileName) {
+        if (fileName != null) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl") || lower.endsWith(".json")) {
+                return FORMAT_NDJSON;
+            }
+        }
+        return FORMAT_CSV;
+    }
+
+    /**
+     * Skip records already processed by an earlier run
+     */
+    public void skip(long count) {
+        for (long i = 0; i < count && hasNext(); i++) {
+            next();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = jsonRows != null ? readJson() : readCsv();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public ImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (jsonRows != null) {
+            jsonRows.close();
+        }
+        reader.close();
+    }
+
+    // ============================================
+    // NDJSON
+    // ============================================
+
+    private ImportRow readJson() {
+        if (!jsonRows.hasNext()) {
+            return null;
+        }
+        try {
+            Map<String, Object> values = jsonRows.next();
+            return new ImportRow(text(values.get("email")), text(values.get("password")),
+                    text(values.get("firstName")), text(values.get("lastName")),
+                    text(values.get("phoneNumber")), null);
+        } catch (RuntimeException e) {
+            return new ImportRow(null, null, null, null, null, "Malformed JSON record: " + e.getMessage());
+        }
+    }
+
+    private String text(Object value) {
+        return value != null ? value.toString().trim() : null;
+    }
+
+    // ============================================
+    // CSV
+    // ============================================
+
+    private Map<String, Integer> readHeader() throws IOException {
+        List<String> header = readCsvRecord();
+        if (header == null) {
+            throw new BadRequestException("Import file is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("\uFEFF", ""), i);
+        }
+        if (!columns.containsKey("email")) {
+            throw new BadRequestException("CSV header must contain an 'email' column");
+        }
+        return columns;
+    }
+
+    private ImportRow readCsv() throws IOException {
+        List<String> record;
+        do {
+            record = readCsvRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        return new ImportRow(column(record, "email"), column(record, "password"),
+                column(record, "firstName"), column(record, "lastName"),
+                column(record, "phoneNumber"), null);
+    }
+
+    private String column(List<String> record, String name) {
+        Integer index = csvColumns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Read one RFC 4180 record; quoted fields may contain commas, quotes ("") and newlines
+     */
+    private List<String> readCsvRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int peek = reader.read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
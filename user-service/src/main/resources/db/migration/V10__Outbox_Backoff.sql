@@ -0,0 +1,15 @@
+-- ============================================
+-- EVENT_OUTBOX RETRY BACKOFF
+-- Failed sends are retried with exponential backoff instead of on the next poll;
+-- only rows that can never be sent are marked dead
+-- ============================================
+ALTER TABLE event_outbox ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
+
+-- Rows marked dead for running out of attempts were mostly broker outages, retry them
+UPDATE event_outbox SET dead_at = NULL, attempts = 0
+WHERE published_at IS NULL AND dead_at IS NOT NULL;
+
+-- Claim checks for an earlier pending row of the same topic and key
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending_key
+    ON event_outbox(topic, message_key, created_at, id)
+    WHERE published_at IS NULL AND dead_at IS NULL AND message_key IS NOT NULL;
@@ -0,0 +1,11 @@
+-- ============================================
+-- STORAGE_STATS TABLE
+-- Snapshot of incrementally maintained upload counters, one row per subdirectory
+-- ============================================
+CREATE TABLE IF NOT EXISTS storage_stats (
+                                             directory VARCHAR(100) PRIMARY KEY,
+    total_size BIGINT NOT NULL DEFAULT 0,
+    file_count BIGINT NOT NULL DEFAULT 0,
+    reconciled_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    );
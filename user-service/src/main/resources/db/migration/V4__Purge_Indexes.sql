@@ -0,0 +1,12 @@
+-- ============================================
+-- PURGE SUPPORT INDEXES
+-- Keep the purge engine's chunk selects off full table scans
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_refresh_token_revoked_at
+    ON refresh_tokens(revoked_at) WHERE revoked = true;
+
+CREATE INDEX IF NOT EXISTS idx_user_email_verification_expires
+    ON users(email_verification_expires_at) WHERE email_verification_token IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_user_password_reset_expires
+    ON users(password_reset_expires_at) WHERE password_reset_token IS NOT NULL;
@@ -0,0 +1,23 @@
+-- ============================================
+-- EVENT_OUTBOX TABLE
+-- Kafka events written in the business transaction, relayed after commit
+-- ============================================
+CREATE TABLE IF NOT EXISTS event_outbox (
+                                            id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload_type VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000)
+    );
+
+-- Relay polls only pending rows, in creation order
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending
+    ON event_outbox(created_at, id) WHERE published_at IS NULL;
+
+-- Retention purge of relayed rows
+CREATE INDEX IF NOT EXISTS idx_event_outbox_published_at
+    ON event_outbox(published_at) WHERE published_at IS NOT NULL;
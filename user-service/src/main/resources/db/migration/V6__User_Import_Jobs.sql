@@ -0,0 +1,23 @@
+-- ============================================
+-- USER_IMPORT_JOBS TABLE
+-- Bulk user import progress; processed_rows is the resume checkpoint
+-- ============================================
+CREATE TABLE IF NOT EXISTS user_import_jobs (
+                                                id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    file_key VARCHAR(500) NOT NULL,
+    format VARCHAR(10) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    processed_rows BIGINT NOT NULL DEFAULT 0,
+    imported_count BIGINT NOT NULL DEFAULT 0,
+    skipped_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_by UUID,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    CONSTRAINT chk_import_status CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'))
+    );
+
+CREATE INDEX IF NOT EXISTS idx_user_import_jobs_status ON user_import_jobs(status);
@@ -0,0 +1,59 @@
+-- ============================================
+-- USERS HOT/COLD SPLIT
+-- Live-row partial indexes and an archive for long soft-deleted users
+-- ============================================
+
+-- Hot lookups only ever read live rows (User has @SQLRestriction("deleted_at IS NULL")).
+-- Email uniqueness is still enforced by the unique constraint over all rows.
+DROP INDEX IF EXISTS idx_user_email;
+DROP INDEX IF EXISTS idx_user_status;
+DROP INDEX IF EXISTS idx_user_deleted;
+DROP INDEX IF EXISTS idx_user_email_verification;
+DROP INDEX IF EXISTS idx_user_password_reset;
+
+CREATE INDEX IF NOT EXISTS idx_user_email_live
+    ON users(email) WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_user_status_live
+    ON users(status) WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_user_created_at_live
+    ON users(created_at) WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_user_email_verification_live
+    ON users(email_verification_token) WHERE email_verification_token IS NOT NULL AND deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_user_password_reset_live
+    ON users(password_reset_token) WHERE password_reset_token IS NOT NULL AND deleted_at IS NULL;
+
+-- Archive mover scans only soft-deleted rows
+CREATE INDEX IF NOT EXISTS idx_user_deleted_at
+    ON users(deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- ============================================
+-- USERS_ARCHIVE TABLE
+-- Users soft-deleted longer than app.user-archive.after-days, with their role ids
+-- ============================================
+CREATE TABLE IF NOT EXISTS users_archive (
+                                             id UUID PRIMARY KEY,
+    email VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    phone_number VARCHAR(20),
+    address VARCHAR(255),
+    date_of_birth DATE,
+    profile_picture_url VARCHAR(500),
+    bio TEXT,
+    status VARCHAR(20) NOT NULL,
+    email_verified BOOLEAN NOT NULL,
+    last_login_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    role_ids UUID[] NOT NULL DEFAULT '{}',
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    );
+
+CREATE INDEX IF NOT EXISTS idx_users_archive_email ON users_archive(email);
+CREATE INDEX IF NOT EXISTS idx_users_archive_archived_at ON users_archive(archived_at);
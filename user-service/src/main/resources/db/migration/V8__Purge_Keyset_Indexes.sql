@@ -0,0 +1,30 @@
+-- ============================================
+-- PURGE KEYSET INDEXES
+-- The purge engine selects chunks with WHERE (predicate) AND id > ? ORDER BY id LIMIT ?,
+-- so its indexes lead with id and carry the cutoff column: each chunk is an ordered
+-- index walk that stops after LIMIT matches instead of collecting and sorting every match.
+-- Replaces the V4 indexes, which lead with the cutoff column.
+-- ============================================
+DROP INDEX IF EXISTS idx_refresh_token_revoked_at;
+DROP INDEX IF EXISTS idx_user_email_verification_expires;
+DROP INDEX IF EXISTS idx_user_password_reset_expires;
+DROP INDEX IF EXISTS idx_user_deleted_at;
+DROP INDEX IF EXISTS idx_event_outbox_published_at;
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_purge_expired
+    ON refresh_tokens(id, expires_at);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_purge_revoked
+    ON refresh_tokens(id, revoked_at) WHERE revoked = true;
+
+CREATE INDEX IF NOT EXISTS idx_user_purge_email_verification
+    ON users(id, email_verification_expires_at) WHERE email_verification_token IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_user_purge_password_reset
+    ON users(id, password_reset_expires_at) WHERE password_reset_token IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_user_purge_deleted
+    ON users(id, deleted_at) WHERE deleted_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_event_outbox_purge_published
+    ON event_outbox(id, published_at) WHERE published_at IS NOT NULL;
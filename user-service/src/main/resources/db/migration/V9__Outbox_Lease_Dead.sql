@@ -0,0 +1,20 @@
+-- ============================================
+-- EVENT_OUTBOX LEASES AND DEAD ROWS
+-- The relay claims a batch with a lease and sends it outside any transaction;
+-- rows out of attempts are marked dead instead of lingering as pending
+-- ============================================
+ALTER TABLE event_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP;
+ALTER TABLE event_outbox ADD COLUMN IF NOT EXISTS dead_at TIMESTAMP;
+
+-- Rows that already used up the default app.outbox.max-attempts
+UPDATE event_outbox SET dead_at = CURRENT_TIMESTAMP
+WHERE published_at IS NULL AND dead_at IS NULL AND attempts >= 10;
+
+-- Relay polls only pending rows, in creation order
+DROP INDEX IF EXISTS idx_event_outbox_pending;
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending
+    ON event_outbox(created_at, id) WHERE published_at IS NULL AND dead_at IS NULL;
+
+-- Retention purge of dead rows, keyed like the other purge indexes
+CREATE INDEX IF NOT EXISTS idx_event_outbox_purge_dead
+    ON event_outbox(id, dead_at) WHERE dead_at IS NOT NULL;
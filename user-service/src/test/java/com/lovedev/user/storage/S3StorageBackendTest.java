@@ -0,0 +1,137 @@
+package com.lovedev.user.storage;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class S3StorageBackendTest {
+
+    private static final String BUCKET = "lovedev-test";
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-08-17T01-24-54Z");
+
+    private static S3Client s3Client;
+    private static ExecutorService transferExecutor;
+    private static S3StorageBackend backend;
+
+    @BeforeAll
+    static void setUp() {
+        s3Client = S3Client.builder()
+                .endpointOverride(URI.create(MINIO.getS3URL()))
+                .region(Region.US_EAST_1)
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(MINIO.getUserName(), MINIO.getPassword())))
+                .build();
+        s3Client.createBucket(builder -> builder.bucket(BUCKET));
+
+        transferExecutor = Executors.newFixedThreadPool(2);
+        backend = new S3StorageBackend(s3Client, BUCKET, 2L * PART_SIZE, PART_SIZE, 2, transferExecutor);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        transferExecutor.shutdownNow();
+        s3Client.close();
+    }
+
+    @Test
+    void putStoresSmallObjectInOneRequest() throws IOException {
+        byte[] content = randomBytes(1024);
+
+        StoredObject stored = backend.put("avatars/small.png", new ByteArrayInputStream(content),
+                content.length, "image/png");
+
+        assertThat(stored.size()).isEqualTo(content.length);
+        assertThat(stored.contentHash()).isNotBlank();
+        assertThat(backend.stat("avatars/small.png")).hasValueSatisfying(object -> {
+            assertThat(object.size()).isEqualTo(content.length);
+            assertThat(object.contentType()).isEqualTo("image/png");
+            assertThat(object.contentHash()).isEqualTo(stored.contentHash());
+        });
+        assertThat(read("avatars/small.png", 0, content.length)).isEqualTo(content);
+    }
+
+    @Test
+    void putUploadsLargeObjectInParts() throws IOException {
+        // Two full parts and a short last one
+        byte[] content = randomBytes(2 * PART_SIZE + 12345);
+
+        StoredObject stored = backend.put("private/export.csv", new ByteArrayInputStream(content),
+                content.length, "text/csv");
+
+        assertThat(stored.size()).isEqualTo(content.length);
+        // Multipart ETags end with the part count
+        assertThat(stored.contentHash()).endsWith("-3");
+        assertThat(backend.stat("private/export.csv")).hasValueSatisfying(
+                object -> assertThat(object.size()).isEqualTo(content.length));
+        assertThat(read("private/export.csv", 0, content.length)).isEqualTo(content);
+    }
+
+    @Test
+    void putUploadsStreamOfUnknownLengthInParts() throws IOException {
+        byte[] content = randomBytes(PART_SIZE + 1);
+
+        StoredObject stored = backend.put("private/unknown.bin", new ByteArrayInputStream(content),
+                -1, "application/octet-stream");
+
+        assertThat(stored.size()).isEqualTo(content.length);
+        assertThat(read("private/unknown.bin", 0, content.length)).isEqualTo(content);
+    }
+
+    @Test
+    void openReadsRequestedRange() throws IOException {
+        byte[] content = randomBytes(PART_SIZE + 4096);
+        backend.put("private/ranged.bin", new ByteArrayInputStream(content), content.length, "application/octet-stream");
+
+        // Across the boundary of the first part
+        int start = PART_SIZE - 100;
+        byte[] range = read("private/ranged.bin", start, 200);
+
+        assertThat(range).isEqualTo(Arrays.copyOfRange(content, start, start + 200));
+    }
+
+    @Test
+    void deleteRemovesObjectAndIgnoresMissingKey() throws IOException {
+        byte[] content = randomBytes(10);
+        backend.put("avatars/deleted.png", new ByteArrayInputStream(content), content.length, "image/png");
+
+        backend.delete("avatars/deleted.png");
+        backend.delete("avatars/never-stored.png");
+
+        assertThat(backend.stat("avatars/deleted.png")).isEmpty();
+    }
+
+    private byte[] read(String key, long start, long length) throws IOException {
+        try (InputStream inputStream = backend.open(key, start, length)) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,183 @@
+package com.lovedev.user.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.common.web.exception.BadRequestException;
+import com.lovedev.user.util.UserImportReader.ImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserImportReaderTest {
+
+    private static final String HEADER = "email,password,firstName,lastName,phoneNumber\n";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void csvReadsColumnsByHeaderName() throws IOException {
+        List<ImportRow> rows = readCsv("lastName,email,firstName\nDoe,jane@example.com,Jane\n");
+
+        assertThat(rows).containsExactly(new ImportRow("jane@example.com", null, "Jane", "Doe", null, null));
+    }
+
+    @Test
+    void csvQuotedFieldKeepsCommas() throws IOException {
+        List<ImportRow> rows = readCsv(HEADER + "a@example.com,secret,\"Smith, Jr\",Doe,\n");
+
+        assertThat(rows.get(0).firstName()).isEqualTo("Smith, Jr");
+        assertThat(rows.get(0).lastName()).isEqualTo("Doe");
+    }
+
+    @Test
+    void csvDoubledQuoteIsEscapedQuote() throws IOException {
+        List<ImportRow> rows = readCsv(HEADER + "a@example.com,\"pa\"\"ss\"\"\",Ann,\"\"\"Quoted\"\"\",\n");
+
+        assertThat(rows.get(0).password()).isEqualTo("pa\"ss\"");
+        assertThat(rows.get(0).lastName()).isEqualTo("\"Quoted\"");
+    }
+
+    @Test
+    void csvHandlesCrlfLineEndings() throws IOException {
+        List<ImportRow> rows = readCsv("email,password,firstName,lastName\r\n"
+                + "a@example.com,one,Ann,Lee\r\n"
+                + "b@example.com,two,Bob,Ray\r\n");
+
+        assertThat(rows).extracting(ImportRow::email).containsExactly("a@example.com", "b@example.com");
+        assertThat(rows).extracting(ImportRow::lastName).containsExactly("Lee", "Ray");
+    }
+
+    @Test
+    void csvQuotedFieldKeepsEmbeddedNewlines() throws IOException {
+        List<ImportRow> rows = readCsv(HEADER
+                + "a@example.com,secret,\"Line one\nline two\",Doe,\n"
+                + "b@example.com,secret,\"Crlf\r\ninside\",Ray,\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).firstName()).isEqualTo("Line one\nline two");
+        assertThat(rows.get(1).firstName()).isEqualTo("Crlf\r\ninside");
+        assertThat(rows.get(1).email()).isEqualTo("b@example.com");
+    }
+
+    @Test
+    void csvIgnoresByteOrderMarkBeforeHeader() throws IOException {
+        List<ImportRow> rows = readCsv("\uFEFFemail,password\na@example.com,secret\n");
+
+        assertThat(rows).containsExactly(new ImportRow("a@example.com", "secret", null, null, null, null));
+    }
+
+    @Test
+    void csvReadsLastRecordWithoutTrailingNewline() throws IOException {
+        List<ImportRow> rows = readCsv(HEADER + "a@example.com,one,Ann,Lee,\nb@example.com,two,Bob,Ray,555");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(1).phoneNumber()).isEqualTo("555");
+    }
+
+    @Test
+    void csvSkipsBlankLinesAndTrimsValues() throws IOException {
+        List<ImportRow> rows = readCsv(HEADER + "\n  a@example.com , secret ,Ann,  ,\n\r\n");
+
+        assertThat(rows).containsExactly(new ImportRow("a@example.com", "secret", "Ann", null, null, null));
+    }
+
+    @Test
+    void csvShortRecordLeavesMissingColumnsEmpty() throws IOException {
+        List<ImportRow> rows = readCsv(HEADER + "a@example.com,secret\n");
+
+        assertThat(rows).containsExactly(new ImportRow("a@example.com", "secret", null, null, null, null));
+    }
+
+    @Test
+    void csvRejectsEmptyFile() {
+        assertThatThrownBy(() -> readCsv(""))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void csvRejectsHeaderWithoutEmail() {
+        assertThatThrownBy(() -> readCsv("password,firstName\nsecret,Ann\n"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void skipDropsRecordsOfEarlierRun() throws IOException {
+        try (UserImportReader reader = reader(HEADER + "a@example.com\nb@example.com\nc@example.com\n",
+                UserImportReader.FORMAT_CSV)) {
+            reader.skip(2);
+
+            assertThat(reader.next().email()).isEqualTo("c@example.com");
+            assertThat(reader.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void ndjsonReadsOneRecordPerLine() throws IOException {
+        List<ImportRow> rows = read("""
+                {"email": " a@example.com ", "password": "secret", "firstName": "Ann", "lastName": "Lee"}
+                {"email": "b@example.com", "phoneNumber": 5551234}
+                """, UserImportReader.FORMAT_NDJSON);
+
+        assertThat(rows).containsExactly(
+                new ImportRow("a@example.com", "secret", "Ann", "Lee", null, null),
+                new ImportRow("b@example.com", null, null, null, "5551234", null));
+    }
+
+    @Test
+    void ndjsonReadsLastRecordWithoutTrailingNewline() throws IOException {
+        List<ImportRow> rows = read("{\"email\": \"a@example.com\"}\n{\"email\": \"b@example.com\"}",
+                UserImportReader.FORMAT_NDJSON);
+
+        assertThat(rows).extracting(ImportRow::email).containsExactly("a@example.com", "b@example.com");
+    }
+
+    @Test
+    void ndjsonRecordThatIsNotAnObjectBecomesErrorRow() throws IOException {
+        try (UserImportReader reader = reader("{\"email\": \"a@example.com\"}\n[1, 2]\n",
+                UserImportReader.FORMAT_NDJSON)) {
+            assertThat(reader.next().error()).isNull();
+
+            ImportRow malformed = reader.next();
+            assertThat(malformed.email()).isNull();
+            assertThat(malformed.error()).startsWith("Malformed JSON record");
+        }
+    }
+
+    @Test
+    void unsupportedFormatIsRejected() {
+        assertThatThrownBy(() -> reader("", "xml"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void detectFormatUsesFileExtension() {
+        assertThat(UserImportReader.detectFormat("users.NDJSON")).isEqualTo(UserImportReader.FORMAT_NDJSON);
+        assertThat(UserImportReader.detectFormat("users.jsonl")).isEqualTo(UserImportReader.FORMAT_NDJSON);
+        assertThat(UserImportReader.detectFormat("users.json")).isEqualTo(UserImportReader.FORMAT_NDJSON);
+        assertThat(UserImportReader.detectFormat("users.csv")).isEqualTo(UserImportReader.FORMAT_CSV);
+        assertThat(UserImportReader.detectFormat(null)).isEqualTo(UserImportReader.FORMAT_CSV);
+    }
+
+    private List<ImportRow> readCsv(String content) throws IOException {
+        return read(content, UserImportReader.FORMAT_CSV);
+    }
+
+    private List<ImportRow> read(String content, String format) throws IOException {
+        List<ImportRow> rows = new ArrayList<>();
+        try (UserImportReader reader = reader(content, format)) {
+            reader.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+
+    private UserImportReader reader(String content, String format) throws IOException {
+        return new UserImportReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                format, objectMapper);
+    }
+}